@@ -6,6 +6,8 @@ import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
 import com.demo.decorator.promotion.decorators.DiscountCoupon;
 import com.demo.decorator.promotion.decorators.FullReductionCoupon;
 import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+import com.demo.decorator.promotion.optimizer.CouponOrder;
+import com.demo.decorator.promotion.optimizer.CouponOrderOptimizer;
 
 /**
  * 电商购物演示客户端 - 优惠券装饰器模式演示程序
@@ -39,6 +41,10 @@ public class EcommerceShoppingDemo {
         System.out.println("\n--- 场景3：复杂优惠券组合 ---");
         testComplexCombination(originalPrice);
 
+        // 演示4：自动选择最优叠加顺序
+        System.out.println("\n--- 场景4：自动选择最优叠加顺序 ---");
+        testOptimalOrder(originalPrice);
+
         System.out.println("\n=== 优惠券装饰器模式总结 ===");
         System.out.println("✓ 优惠券可以任意叠加组合");
         System.out.println("✓ 计算顺序影响最终价格");
@@ -114,6 +120,34 @@ public class EcommerceShoppingDemo {
                 new TieredFullReductionCoupon(
                     new DiscountCoupon(base, 0.8), 100, 15), 150, 25), 10);
         printResult(complex, originalPrice);
+
+        // 价格明细：一次计算得到每张优惠券之后的价格
+        double[] breakdown = complex.calculateBreakdown(originalPrice);
+        for (int i = 1; i < breakdown.length; i++) {
+            System.out.printf("  第%d张券后：%.2f元（优惠%.2f元）\n",
+                             i, breakdown[i], breakdown[i - 1] - breakdown[i]);
+        }
+    }
+
+    /**
+     * 测试自动选择优惠券的最优叠加顺序
+     */
+    private static void testOptimalOrder(double originalPrice) {
+        IPromotionStrategy base = new OriginalPrice();
+
+        // 顾客持有的四张优惠券，按领取顺序叠加
+        System.out.println("领取顺序：每满减(每满100减20) → 满减(满200减30) → 直接减(15元) → 折扣(8.5折)");
+        IPromotionStrategy coupons = new DiscountCoupon(
+            new DirectReductionCoupon(
+                new FullReductionCoupon(
+                    new TieredFullReductionCoupon(base, 100, 20), 200, 30), 15), 0.85);
+        printResult(coupons, originalPrice);
+
+        System.out.println("\n最优叠加顺序：");
+        CouponOrder best = CouponOrderOptimizer.optimize(coupons, originalPrice);
+        printResult(best.getStrategy(), originalPrice);
+        System.out.printf("  比领取顺序多优惠：%.2f元\n",
+                         coupons.calculatePrice(originalPrice) - best.getFinalPrice());
     }
 
     /**
@@ -0,0 +1,246 @@
+package com.demo.decorator.promotion.benchmark;
+
+import com.demo.decorator.promotion.cart.CartPromotionEngine;
+import com.demo.decorator.promotion.cart.CartReceipt;
+import com.demo.decorator.promotion.cart.ShoppingCart;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 整单促销引擎基准测试
+ *
+ * 随机生成1万个购物车（每单1~60个商品行，20个品类，其中一半品类配置了单品优惠，整单另有满减），比较两种结算方式：
+ * 1. 逐行对象：购物车是商品行对象的列表，按品类从 HashMap 查出装饰器链逐层计算，每行生成一个结算行对象
+ * 2. CartPromotionEngine：按列存储的购物车 + 编译后的规则，复用同一个结算结果对象
+ * 统计每单耗时、每秒结算单数和每单分配的字节数，两种方式的应付金额逐位比较
+ * 最后用多个线程各自复用线程本地的结算结果对象，共享同一个引擎并发结算
+ */
+public class CartPromotionBenchmark {
+
+    private static final int CART_COUNT = 10_000;
+    private static final int MAX_LINES = 60;
+    private static final int CATEGORY_COUNT = 20;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURE_ROUNDS = 30;
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 每个线程复用的结算结果
+     */
+    private static final ThreadLocal<CartReceipt> RECEIPTS = ThreadLocal.withInitial(CartReceipt::new);
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    @FunctionalInterface
+    private interface Round {
+        void run();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== 整单促销引擎基准测试 ===");
+        Map<Integer, IPromotionStrategy> itemPromotions = createItemPromotions();
+        IPromotionStrategy cartPromotion = new DirectReductionCoupon(
+                new FullReductionCoupon(new OriginalPrice(), 300, 40), 5);
+        CartPromotionEngine engine = new CartPromotionEngine(itemPromotions, cartPromotion);
+
+        Random random = new Random(42);
+        ShoppingCart[] carts = new ShoppingCart[CART_COUNT];
+        List<List<CartLine>> objectCarts = new ArrayList<>(CART_COUNT);
+        long lines = 0;
+        for (int c = 0; c < CART_COUNT; c++) {
+            carts[c] = new ShoppingCart();
+            List<CartLine> objectCart = new ArrayList<>();
+            int size = 1 + random.nextInt(MAX_LINES);
+            for (int i = 0; i < size; i++) {
+                int category = random.nextInt(CATEGORY_COUNT);
+                double unitPrice = 5 + random.nextInt(49_500) / 100.0;
+                int quantity = 1 + random.nextInt(5);
+                carts[c].add(category, unitPrice, quantity);
+                objectCart.add(new CartLine(category, unitPrice, quantity));
+            }
+            objectCarts.add(objectCart);
+            lines += size;
+        }
+        System.out.printf("购物车：%d 单，平均 %.1f 行/单，%d 个品类（%d 个有单品优惠）%n",
+                CART_COUNT, (double) lines / CART_COUNT, CATEGORY_COUNT, itemPromotions.size());
+
+        boolean consistent = true;
+        CartReceipt receipt = new CartReceipt();
+        for (int c = 0; c < CART_COUNT; c++) {
+            long expected = Double.doubleToLongBits(priceObjects(objectCarts.get(c), itemPromotions, cartPromotion));
+            if (expected != Double.doubleToLongBits(engine.calculateTotal(carts[c]))
+                    || expected != Double.doubleToLongBits(engine.calculate(carts[c], receipt).getFinalTotal())) {
+                consistent = false;
+                break;
+            }
+        }
+        System.out.println(consistent ? "✅ 两种方式的应付金额逐位一致" : "❌ 应付金额不一致");
+
+        measure("逐行对象 + 装饰器链", () -> {
+            double sum = 0;
+            for (List<CartLine> cart : objectCarts) {
+                sum += priceObjects(cart, itemPromotions, cartPromotion);
+            }
+            blackhole += sum;
+        });
+        measure("引擎 calculateTotal", () -> {
+            double sum = 0;
+            for (ShoppingCart cart : carts) {
+                sum += engine.calculateTotal(cart);
+            }
+            blackhole += sum;
+        });
+        measure("引擎 calculate(复用结算结果)", () -> {
+            double sum = 0;
+            for (ShoppingCart cart : carts) {
+                sum += engine.calculate(cart, receipt).getFinalTotal();
+            }
+            blackhole += sum;
+        });
+        measureConcurrent(engine, carts);
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    /**
+     * 一半品类配置单品优惠，四种优惠券轮流组合
+     */
+    private static Map<Integer, IPromotionStrategy> createItemPromotions() {
+        Map<Integer, IPromotionStrategy> promotions = new HashMap<>();
+        IPromotionStrategy base = new OriginalPrice();
+        for (int category = 0; category < CATEGORY_COUNT; category += 2) {
+            switch (category % 8) {
+                case 0:
+                    promotions.put(category, new DiscountCoupon(base, 0.85));
+                    break;
+                case 2:
+                    promotions.put(category, new FullReductionCoupon(base, 200, 20));
+                    break;
+                case 4:
+                    promotions.put(category, new TieredFullReductionCoupon(new DiscountCoupon(base, 0.9), 100, 10));
+                    break;
+                default:
+                    promotions.put(category, new DirectReductionCoupon(new DiscountCoupon(base, 0.95), 3));
+                    break;
+            }
+        }
+        return promotions;
+    }
+
+    /**
+     * 逐行对象的结算方式：每行查表、逐层调用装饰器链，生成结算行对象
+     */
+    private static double priceObjects(List<CartLine> cart, Map<Integer, IPromotionStrategy> itemPromotions,
+                                       IPromotionStrategy cartPromotion) {
+        List<PricedLine> priced = new ArrayList<>(cart.size());
+        for (CartLine line : cart) {
+            double amount = line.unitPrice * line.quantity;
+            IPromotionStrategy promotion = itemPromotions.get(line.category);
+            priced.add(new PricedLine(line, amount, promotion == null ? amount : promotion.calculatePrice(amount)));
+        }
+        double subtotal = 0;
+        for (PricedLine line : priced) {
+            subtotal += line.price;
+        }
+        return cartPromotion.calculatePrice(subtotal);
+    }
+
+    private static void measure(String label, Round round) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            round.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long priced = (long) MEASURE_ROUNDS * CART_COUNT;
+        System.out.printf("%-26s %8.1f ns/单  %10.0f 单/秒  %8.1f 字节/单%n", label,
+                (double) nanos / priced, priced * 1e9 / nanos, (double) allocated / priced);
+    }
+
+    /**
+     * 多个线程共享同一个引擎，各自复用线程本地的结算结果
+     */
+    private static void measureConcurrent(CartPromotionEngine engine, ShoppingCart[] carts) throws InterruptedException {
+        AtomicLong priced = new AtomicLong();
+        Thread[] threads = new Thread[THREADS];
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int first = t;
+            threads[t] = new Thread(() -> {
+                CartReceipt receipt = RECEIPTS.get();
+                double sum = 0;
+                long count = 0;
+                for (int round = 0; round < MEASURE_ROUNDS; round++) {
+                    for (int c = first; c < carts.length; c += THREADS) {
+                        sum += engine.calculate(carts[c], receipt).getFinalTotal();
+                        count++;
+                    }
+                }
+                priced.addAndGet(count);
+                synchronized (CartPromotionBenchmark.class) {
+                    blackhole += sum;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-26s %10.0f 单/秒（%d 个线程，%d 个CPU）%n", "引擎并发 calculate",
+                priced.get() * 1e9 / nanos, THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 逐行对象方式的商品行
+     */
+    private static final class CartLine {
+        final Integer category;
+        final double unitPrice;
+        final int quantity;
+
+        CartLine(int category, double unitPrice, int quantity) {
+            this.category = category;
+            this.unitPrice = unitPrice;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * 逐行对象方式的结算行
+     */
+    private static final class PricedLine {
+        final CartLine line;
+        final double amount;
+        final double price;
+
+        PricedLine(CartLine line, double amount, double price) {
+            this.line = line;
+            this.amount = amount;
+            this.price = price;
+        }
+    }
+}
\ No newline at end of file
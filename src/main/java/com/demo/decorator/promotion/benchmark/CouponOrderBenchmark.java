@@ -0,0 +1,178 @@
+package com.demo.decorator.promotion.benchmark;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+import com.demo.decorator.promotion.optimizer.CouponOrder;
+import com.demo.decorator.promotion.optimizer.CouponOrderOptimizer;
+
+import java.util.Random;
+
+/**
+ * 优惠券叠加顺序优化基准测试
+ *
+ * 随机生成若干购物车（原价50~2000元）和4~10张随机参数的优惠券，比较两种找最优顺序的方式：
+ * 1. 枚举全部排列：深度优先展开所有排列，共享相同前缀的计算
+ * 2. CouponOrderOptimizer：分支限界搜索
+ * 两种方式找到的最低价格逐位比较，并检查优化器返回的装饰器链确实算出这个价格
+ */
+public class CouponOrderBenchmark {
+
+    private static final int[] COUPON_COUNTS = {4, 6, 8, 10};
+    private static final int CARTS = 100;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 10;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    public static void main(String[] args) {
+        System.out.println("=== 优惠券叠加顺序优化基准测试 ===");
+        Random random = new Random(42);
+        double[][] prices = new double[COUPON_COUNTS.length][CARTS];
+        IPromotionStrategy[][] coupons = new IPromotionStrategy[COUPON_COUNTS.length][CARTS];
+        for (int n = 0; n < COUPON_COUNTS.length; n++) {
+            for (int c = 0; c < CARTS; c++) {
+                prices[n][c] = 50 + random.nextInt(195_000) / 100.0;
+                coupons[n][c] = randomCoupons(COUPON_COUNTS[n], random);
+            }
+        }
+
+        // 先让两种方式见过所有规模的购物车
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (int n = 0; n < COUPON_COUNTS.length; n++) {
+                optimizeAll(coupons[n], prices[n]);
+                if (COUPON_COUNTS[n] <= 8) {
+                    bruteForceAll(coupons[n], prices[n]);
+                }
+            }
+        }
+
+        for (int n = 0; n < COUPON_COUNTS.length; n++) {
+            int count = COUPON_COUNTS[n];
+            IPromotionStrategy[] carts = coupons[n];
+            double[] cartPrices = prices[n];
+            boolean consistent = true;
+            long explored = 0;
+            for (int c = 0; c < CARTS; c++) {
+                CouponOrder order = CouponOrderOptimizer.optimize(carts[c], cartPrices[c]);
+                explored += order.getExploredStates();
+                long expected = Double.doubleToLongBits(bruteForce(carts[c], cartPrices[c]));
+                if (expected != Double.doubleToLongBits(order.getFinalPrice())
+                        || expected != Double.doubleToLongBits(order.getStrategy().calculatePrice(cartPrices[c]))) {
+                    consistent = false;
+                }
+            }
+
+            // 枚举10张券的全部排列很慢，只测一轮
+            double bruteNanos = measure(() -> bruteForceAll(carts, cartPrices), count <= 8 ? MEASURE_ROUNDS : 1);
+            double optimizerNanos = measure(() -> optimizeAll(carts, cartPrices), MEASURE_ROUNDS);
+
+            // 每单取5次中最快的一次，排除GC等偶发停顿，再取最慢的一单
+            long slowest = 0;
+            for (int c = 0; c < CARTS; c++) {
+                long fastest = Long.MAX_VALUE;
+                for (int i = 0; i < 5; i++) {
+                    long start = System.nanoTime();
+                    blackhole += CouponOrderOptimizer.optimize(carts[c], cartPrices[c]).getFinalPrice();
+                    fastest = Math.min(fastest, System.nanoTime() - start);
+                }
+                slowest = Math.max(slowest, fastest);
+            }
+
+            System.out.printf("%2d张券  枚举排列 %10.1f us/单  优化器 %6.1f us/单（最慢 %6.1f us）  加速比 %6.1fx  平均展开 %5.0f 个状态（排列数 %d）  %s%n",
+                    count, bruteNanos / 1000, optimizerNanos / 1000, slowest / 1000.0, bruteNanos / optimizerNanos,
+                    (double) explored / CARTS, factorial(count),
+                    consistent ? "✅ 结果一致" : "❌ 结果不一致");
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    /**
+     * 测量，返回平均每单的纳秒数
+     */
+    private static double measure(Runnable round, int measureRounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < measureRounds; i++) {
+            round.run();
+        }
+        return (double) (System.nanoTime() - start) / ((long) measureRounds * CARTS);
+    }
+
+    private static void bruteForceAll(IPromotionStrategy[] coupons, double[] prices) {
+        double sum = 0;
+        for (int c = 0; c < coupons.length; c++) {
+            sum += bruteForce(coupons[c], prices[c]);
+        }
+        blackhole += sum;
+    }
+
+    private static void optimizeAll(IPromotionStrategy[] coupons, double[] prices) {
+        double sum = 0;
+        for (int c = 0; c < coupons.length; c++) {
+            sum += CouponOrderOptimizer.optimize(coupons[c], prices[c]).getFinalPrice();
+        }
+        blackhole += sum;
+    }
+
+    /**
+     * 随机生成指定数量的优惠券，叠加成一条装饰器链
+     */
+    private static IPromotionStrategy randomCoupons(int count, Random random) {
+        IPromotionStrategy chain = new OriginalPrice();
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    chain = new DiscountCoupon(chain, 0.7 + 0.05 * random.nextInt(6));
+                    break;
+                case 1:
+                    chain = new FullReductionCoupon(chain, 100 * (1 + random.nextInt(5)), 10 * (1 + random.nextInt(8)));
+                    break;
+                case 2:
+                    chain = new TieredFullReductionCoupon(chain, 100 * (1 + random.nextInt(2)), 5 * (1 + random.nextInt(4)));
+                    break;
+                default:
+                    chain = new DirectReductionCoupon(chain, 5 * (1 + random.nextInt(4)));
+                    break;
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * 枚举全部排列，返回最低价格
+     */
+    private static double bruteForce(IPromotionStrategy coupons, double originalPrice) {
+        CompiledPromotion program = PromotionCompiler.compile(coupons);
+        return permute(program, 0, originalPrice, Double.POSITIVE_INFINITY);
+    }
+
+    private static double permute(CompiledPromotion program, int used, double price, double best) {
+        if (used == (1 << program.size()) - 1) {
+            return Math.min(price, best);
+        }
+        for (int i = 0; i < program.size(); i++) {
+            if ((used & (1 << i)) == 0) {
+                double next = CompiledPromotion.execute(program.getOpcode(i),
+                        program.getOperand1(i), program.getOperand2(i), price);
+                best = permute(program, used | (1 << i), next, best);
+            }
+        }
+        return best;
+    }
+
+    private static long factorial(int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++) {
+            result *= i;
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.demo.decorator.promotion.benchmark;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.PromotionDecorator;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * 价格明细基准测试
+ *
+ * 对深度1~32的优惠券装饰器链，比较三种得到每层之后价格（即每张优惠券优惠金额）的方式：
+ * 1. 逐层计算：对链上每一层分别调用 calculatePrice，每次都重新计算其内层，总计算量与深度的平方成正比
+ * 2. calculateBreakdown：沿装饰器链计算一遍，写入复用的数组
+ * 3. 编译后的 calculateBreakdown：CompiledPromotion 一个循环执行全部指令
+ * 三种方式的每个价格逐位比较，并统计每次的耗时和分配字节数
+ */
+public class PriceBreakdownBenchmark {
+
+    private static final int[] DEPTHS = {1, 4, 8, 16, 32};
+    private static final int PRICE_COUNT = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURE_ROUNDS = 30;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    @FunctionalInterface
+    private interface Breakdown {
+        void compute(double originalPrice);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== 价格明细基准测试 ===");
+        double[] prices = new double[PRICE_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < PRICE_COUNT; i++) {
+            prices[i] = 50 + random.nextInt(100_000) / 100.0;
+        }
+
+        // 先让三种方式见过所有深度的链
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (int depth : DEPTHS) {
+                IPromotionStrategy chain = buildChain(depth);
+                CompiledPromotion compiled = PromotionCompiler.compile(chain);
+                IPromotionStrategy[] levels = levels(chain);
+                double[] result = new double[chain.getBreakdownSize()];
+                for (double price : prices) {
+                    perLevel(levels, price, result);
+                    chain.calculateBreakdown(price, result, 0);
+                    compiled.calculateBreakdown(price, result, 0);
+                }
+                blackhole += result[depth];
+            }
+        }
+
+        for (int depth : DEPTHS) {
+            IPromotionStrategy chain = buildChain(depth);
+            CompiledPromotion compiled = PromotionCompiler.compile(chain);
+            IPromotionStrategy[] levels = levels(chain);
+            double[] expected = new double[chain.getBreakdownSize()];
+            double[] actual = new double[chain.getBreakdownSize()];
+
+            boolean consistent = true;
+            for (double price : prices) {
+                perLevel(levels, price, expected);
+                chain.calculateBreakdown(price, actual, 0);
+                consistent &= sameBits(expected, actual);
+                compiled.calculateBreakdown(price, actual, 0);
+                consistent &= sameBits(expected, actual);
+                consistent &= sameBits(expected, chain.calculateBreakdown(price));
+            }
+
+            System.out.println("--- 深度 " + depth + " " + (consistent ? "✅ 结果一致" : "❌ 结果不一致") + " ---");
+            measure("逐层 calculatePrice", prices, price -> {
+                perLevel(levels, price, expected);
+                blackhole += expected[depth];
+            });
+            measure("calculateBreakdown(复用数组)", prices, price -> {
+                chain.calculateBreakdown(price, actual, 0);
+                blackhole += actual[depth];
+            });
+            measure("编译后 calculateBreakdown", prices, price -> {
+                compiled.calculateBreakdown(price, actual, 0);
+                blackhole += actual[depth];
+            });
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    /**
+     * 逐层计算：对每一层分别调用 calculatePrice
+     */
+    private static void perLevel(IPromotionStrategy[] levels, double originalPrice, double[] result) {
+        for (int i = 0; i < levels.length; i++) {
+            result[i] = levels[i].calculatePrice(originalPrice);
+        }
+    }
+
+    /**
+     * 把装饰器链拆成各层，最内层在前
+     */
+    private static IPromotionStrategy[] levels(IPromotionStrategy chain) {
+        IPromotionStrategy[] levels = new IPromotionStrategy[chain.getBreakdownSize()];
+        IPromotionStrategy current = chain;
+        for (int i = levels.length - 1; i >= 0; i--) {
+            levels[i] = current;
+            if (current instanceof PromotionDecorator) {
+                current = ((PromotionDecorator) current).getDecoratedStrategy();
+            }
+        }
+        return levels;
+    }
+
+    private static boolean sameBits(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.doubleToLongBits(expected[i]) != Double.doubleToLongBits(actual[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void measure(String label, double[] prices, Breakdown breakdown) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (double price : prices) {
+                breakdown.compute(price);
+            }
+        }
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            for (double price : prices) {
+                breakdown.compute(price);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long calls = (long) MEASURE_ROUNDS * PRICE_COUNT;
+        System.out.printf("  %-30s %9.1f ns/次  %8.1f 字节/次%n", label,
+                (double) nanos / calls, (double) allocated / calls);
+    }
+
+    /**
+     * 构造指定深度的优惠券链，四种优惠券轮流出现
+     */
+    private static IPromotionStrategy buildChain(int depth) {
+        IPromotionStrategy chain = new OriginalPrice();
+        for (int i = 0; i < depth; i++) {
+            switch (i % 4) {
+                case 0:
+                    chain = new DiscountCoupon(chain, 0.95);
+                    break;
+                case 1:
+                    chain = new FullReductionCoupon(chain, 200, 10);
+                    break;
+                case 2:
+                    chain = new TieredFullReductionCoupon(chain, 100, 3);
+                    break;
+                default:
+                    chain = new DirectReductionCoupon(chain, 1);
+                    break;
+            }
+        }
+        return chain;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.demo.decorator.promotion.benchmark;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+import java.util.Random;
+
+/**
+ * 促销链编译基准测试
+ *
+ * 对深度1~20的优惠券装饰器链，比较三种定价方式的耗时：
+ * 1. 装饰器链：逐层递归调用 calculatePrice
+ * 2. 编译后逐个定价：PromotionCompiler 展开的定价程序，一个循环执行全部指令
+ * 3. 编译后批量定价：CompiledPromotion.calculatePrices，按指令逐条处理整批价格
+ *
+ * 链中四种优惠券轮流出现，装饰器链的调用点是多态的（与真实订单混用多种券的情况一致）
+ * 三种方式的结果逐位比较，确保编译不改变定价结果
+ */
+public class PromotionChainBenchmark {
+
+    private static final int[] DEPTHS = {1, 2, 4, 8, 12, 16, 20};
+    private static final int PRICE_COUNT = 100_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 50;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    public static void main(String[] args) {
+        System.out.println("=== 促销链编译基准测试 ===");
+        double[] prices = new double[PRICE_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < PRICE_COUNT; i++) {
+            prices[i] = 50 + random.nextInt(100_000) / 100.0;
+        }
+
+        IPromotionStrategy[] chains = new IPromotionStrategy[DEPTHS.length];
+        CompiledPromotion[] compiled = new CompiledPromotion[DEPTHS.length];
+        for (int d = 0; d < DEPTHS.length; d++) {
+            chains[d] = buildChain(DEPTHS[d]);
+            compiled[d] = PromotionCompiler.compile(chains[d]);
+        }
+
+        // 先让两个调用点见过所有深度的链
+        for (int d = 0; d < DEPTHS.length; d++) {
+            priceAll(chains[d], prices);
+            priceAll(compiled[d], prices);
+        }
+
+        for (int d = 0; d < DEPTHS.length; d++) {
+            IPromotionStrategy chain = chains[d];
+            CompiledPromotion program = compiled[d];
+            double[] bulk = new double[PRICE_COUNT];
+            program.calculatePrices(prices, bulk, 0, PRICE_COUNT);
+            boolean consistent = true;
+            for (int i = 0; i < PRICE_COUNT; i++) {
+                long expected = Double.doubleToLongBits(chain.calculatePrice(prices[i]));
+                if (expected != Double.doubleToLongBits(program.calculatePrice(prices[i]))
+                        || expected != Double.doubleToLongBits(bulk[i])) {
+                    consistent = false;
+                    break;
+                }
+            }
+            double chainNanos = measure(() -> priceAll(chain, prices));
+            double compiledNanos = measure(() -> priceAll(program, prices));
+            double bulkNanos = measure(() -> priceBulk(program, prices, bulk));
+            System.out.printf("深度 %2d  装饰器链 %7.2f ns/次  编译后 %7.2f ns/次  批量 %6.2f ns/次  加速比 %5.2fx / %5.2fx  %s%n",
+                    DEPTHS[d], chainNanos, compiledNanos, bulkNanos,
+                    chainNanos / compiledNanos, chainNanos / bulkNanos,
+                    consistent ? "✅ 结果一致" : "❌ 结果不一致");
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    /**
+     * 构造指定深度的优惠券链，四种优惠券轮流出现
+     */
+    private static IPromotionStrategy buildChain(int depth) {
+        IPromotionStrategy chain = new OriginalPrice();
+        for (int i = 0; i < depth; i++) {
+            switch (i % 4) {
+                case 0:
+                    chain = new DiscountCoupon(chain, 0.95);
+                    break;
+                case 1:
+                    chain = new FullReductionCoupon(chain, 200, 10);
+                    break;
+                case 2:
+                    chain = new TieredFullReductionCoupon(chain, 100, 3);
+                    break;
+                default:
+                    chain = new DirectReductionCoupon(chain, 1);
+                    break;
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * 预热后测量，返回平均每次定价的纳秒数
+     */
+    private static double measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            round.run();
+        }
+        return (double) (System.nanoTime() - start) / ((long) MEASURE_ROUNDS * PRICE_COUNT);
+    }
+
+    private static void priceAll(IPromotionStrategy strategy, double[] prices) {
+        double sum = 0;
+        for (double price : prices) {
+            sum += strategy.calculatePrice(price);
+        }
+        blackhole += sum;
+    }
+
+    private static void priceBulk(CompiledPromotion program, double[] prices, double[] result) {
+        program.calculatePrices(prices, result, 0, prices.length);
+        blackhole += result[result.length - 1];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.demo.decorator.promotion.benchmark;
+
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.PromotionDecorator;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 促销描述生成基准测试
+ *
+ * 对深度1~32的优惠券装饰器链，统计四种获取描述方式的每次耗时和分配字节数：
+ * 1. 旧实现：每层递归调用 getDescription，再用 String.format 和字符串拼接生成本层描述
+ * 2. 首次 getDescription：新建的链第一次生成描述（每个优惠券格式化一次，整条链只拼接一次）
+ * 3. 缓存 getDescription：之后的调用直接返回缓存的字符串
+ * 4. describeTo：追加到复用的StringBuilder，例如逐行拼接小票
+ * 先校验新旧实现生成的描述完全相同
+ */
+public class PromotionDescriptionBenchmark {
+
+    private static final int[] DEPTHS = {1, 4, 8, 16, 32};
+    private static final int CHAINS = 1_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 20;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static long blackhole;
+
+    @FunctionalInterface
+    private interface Describer {
+        void describe(IPromotionStrategy chain);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== 促销描述生成基准测试 ===");
+        verify();
+        StringBuilder sb = new StringBuilder(1024);
+
+        // 先让各种方式见过所有深度的链
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (int depth : DEPTHS) {
+                for (IPromotionStrategy chain : buildChains(depth)) {
+                    blackhole += legacyDescription(chain).length() + chain.getDescription().length()
+                            + chain.getDescription().length();
+                    sb.setLength(0);
+                    blackhole += chain.describeTo(sb).length();
+                }
+            }
+        }
+
+        for (int depth : DEPTHS) {
+            System.out.println("--- 深度 " + depth + " ---");
+            measure("旧实现(String.format)", depth, false, chain -> blackhole += legacyDescription(chain).length());
+            measure("首次 getDescription", depth, true, chain -> blackhole += chain.getDescription().length());
+            IPromotionStrategy[] cached = buildChains(depth);
+            for (IPromotionStrategy chain : cached) {
+                chain.getDescription();
+            }
+            measure("缓存 getDescription", cached, chain -> blackhole += chain.getDescription().length());
+            measure("describeTo(复用StringBuilder)", cached, chain -> {
+                sb.setLength(0);
+                blackhole += chain.describeTo(sb).length();
+            });
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void verify() {
+        int mismatches = 0;
+        StringBuilder sb = new StringBuilder();
+        for (int depth = 0; depth <= 40; depth++) {
+            IPromotionStrategy chain = buildChain(depth, depth);
+            String expected = legacyDescription(chain);
+            sb.setLength(0);
+            // 先走未缓存的 describeTo，再走 getDescription 和缓存后的 describeTo
+            String built = chain.describeTo(sb).toString();
+            sb.setLength(0);
+            if (!expected.equals(built) || !expected.equals(chain.getDescription())
+                    || !expected.equals(chain.describeTo(sb).toString())) {
+                mismatches++;
+            }
+        }
+        System.out.println(mismatches == 0 ? "✅ 深度0~40的描述与旧实现完全一致" : "❌ 描述不一致的链数：" + mismatches);
+    }
+
+    /**
+     * 每轮使用新建的链，测量首次生成描述的耗时和分配
+     */
+    private static void measure(String label, int depth, boolean freshChains, Describer describer) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        IPromotionStrategy[] chains = buildChains(depth);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            if (freshChains) {
+                chains = buildChains(depth);
+            }
+            runRound(chains, describer);
+        }
+        long nanos = 0;
+        long allocated = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            if (freshChains) {
+                chains = buildChains(depth);
+            }
+            long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            runRound(chains, describer);
+            nanos += System.nanoTime() - start;
+            allocated += threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        report(label, nanos, allocated);
+    }
+
+    /**
+     * 反复使用同一批链测量
+     */
+    private static void measure(String label, IPromotionStrategy[] chains, Describer describer) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound(chains, describer);
+        }
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            runRound(chains, describer);
+        }
+        long nanos = System.nanoTime() - start;
+        report(label, nanos, threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+    }
+
+    private static void runRound(IPromotionStrategy[] chains, Describer describer) {
+        for (IPromotionStrategy chain : chains) {
+            describer.describe(chain);
+        }
+    }
+
+    private static void report(String label, long nanos, long allocated) {
+        long calls = (long) MEASURE_ROUNDS * CHAINS;
+        System.out.printf("  %-30s %10.1f ns/次  %10.1f 字节/次%n", label,
+                (double) nanos / calls, (double) allocated / calls);
+    }
+
+    private static IPromotionStrategy[] buildChains(int depth) {
+        IPromotionStrategy[] chains = new IPromotionStrategy[CHAINS];
+        for (int i = 0; i < CHAINS; i++) {
+            chains[i] = buildChain(depth, i);
+        }
+        return chains;
+    }
+
+    /**
+     * 构造指定深度的优惠券链，四种优惠券轮流出现，参数随seed变化
+     */
+    private static IPromotionStrategy buildChain(int depth, int seed) {
+        IPromotionStrategy chain = new OriginalPrice();
+        for (int i = 0; i < depth; i++) {
+            int variant = (seed + i) % 10;
+            switch (i % 4) {
+                case 0:
+                    chain = new DiscountCoupon(chain, 0.5 + variant * 0.05);
+                    break;
+                case 1:
+                    chain = new FullReductionCoupon(chain, 100 + variant * 50, 10 + variant * 5);
+                    break;
+                case 2:
+                    chain = new TieredFullReductionCoupon(chain, 100, 5 + variant);
+                    break;
+                default:
+                    chain = new DirectReductionCoupon(chain, 1.25 * variant);
+                    break;
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * 旧实现：每层递归生成被装饰策略的描述，再格式化并拼接本层描述
+     */
+    private static String legacyDescription(IPromotionStrategy strategy) {
+        if (!(strategy instanceof PromotionDecorator)) {
+            return strategy.getDescription();
+        }
+        String inner = legacyDescription(((PromotionDecorator) strategy).getDecoratedStrategy());
+        if (strategy instanceof DiscountCoupon) {
+            return inner + " + " + String.format("%.1f折", ((DiscountCoupon) strategy).getDiscountRate() * 10);
+        } else if (strategy instanceof FullReductionCoupon) {
+            FullReductionCoupon coupon = (FullReductionCoupon) strategy;
+            return inner + " + " + String.format("满%.0f减%.0f", coupon.getThreshold(), coupon.getReduction());
+        } else if (strategy instanceof TieredFullReductionCoupon) {
+            TieredFullReductionCoupon coupon = (TieredFullReductionCoupon) strategy;
+            return inner + " + " + String.format("每满%.0f减%.0f", coupon.getThreshold(), coupon.getReduction());
+        } else {
+            return inner + " + " + String.format("直接减%.2f元", ((DirectReductionCoupon) strategy).getReduction());
+        }
+    }
+}
\ No newline at end of file
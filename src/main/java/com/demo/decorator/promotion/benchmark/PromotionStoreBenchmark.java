@@ -0,0 +1,195 @@
+package com.demo.decorator.promotion.benchmark;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+import com.demo.decorator.promotion.store.PromotionStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 促销活动存储基准测试
+ *
+ * 随机生成10万个促销活动（每个1~6张优惠券），比较启动方式和定价方式：
+ * 启动：按参数逐个创建装饰器链（并编译）与打开映射文件；另外统计从文件重建全部装饰器链的耗时
+ * 定价：对随机的（活动, 价格）请求，比较装饰器链、编译后的定价程序和直接解释映射文件三种方式
+ * 所有活动的定价结果和重建后的描述逐一与原装饰器链比较
+ *
+ * 文件刚写入时位于操作系统页缓存中，测得的是"热启动"；冷启动时首次访问各页还需要从磁盘读取
+ */
+public class PromotionStoreBenchmark {
+
+    private static final int CAMPAIGNS = 100_000;
+    private static final int MAX_COUPONS = 6;
+    private static final int REQUESTS = 1_000_000;
+    private static final int STARTUP_ROUNDS = 10;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURE_ROUNDS = 10;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    @FunctionalInterface
+    private interface Pricer {
+        double price(int campaign, double originalPrice);
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== 促销活动存储基准测试 ===");
+        Random random = new Random(42);
+        double[][] parameters = new double[CAMPAIGNS][];
+        for (int c = 0; c < CAMPAIGNS; c++) {
+            int coupons = 1 + random.nextInt(MAX_COUPONS);
+            parameters[c] = new double[coupons * 3];
+            for (int i = 0; i < coupons; i++) {
+                parameters[c][3 * i] = random.nextInt(4);
+                parameters[c][3 * i + 1] = 100 + 50 * random.nextInt(10);
+                parameters[c][3 * i + 2] = 0.5 + 0.05 * random.nextInt(10);
+            }
+        }
+
+        Path file = Files.createTempFile("promotions", ".bin");
+        try {
+            List<IPromotionStrategy> campaigns = buildAll(parameters);
+            PromotionStore.write(file, campaigns);
+            System.out.printf("活动数：%d，文件大小：%d 字节（%.1f 字节/活动）%n",
+                    CAMPAIGNS, Files.size(file), (double) Files.size(file) / CAMPAIGNS);
+
+            // 启动耗时取多轮中最快的一次
+            long buildNanos = Long.MAX_VALUE;
+            long compileNanos = Long.MAX_VALUE;
+            long openNanos = Long.MAX_VALUE;
+            long rebuildNanos = Long.MAX_VALUE;
+            PromotionStore store = null;
+            for (int round = 0; round < STARTUP_ROUNDS; round++) {
+                long start = System.nanoTime();
+                List<IPromotionStrategy> built = buildAll(parameters);
+                buildNanos = Math.min(buildNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                CompiledPromotion[] compiled = new CompiledPromotion[CAMPAIGNS];
+                for (int c = 0; c < CAMPAIGNS; c++) {
+                    compiled[c] = PromotionCompiler.compile(built.get(c));
+                }
+                compileNanos = Math.min(compileNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                store = PromotionStore.open(file);
+                openNanos = Math.min(openNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                for (int c = 0; c < CAMPAIGNS; c++) {
+                    blackhole += store.getStrategy(c).getBreakdownSize();
+                }
+                rebuildNanos = Math.min(rebuildNanos, System.nanoTime() - start);
+                blackhole += built.size() + compiled.length;
+            }
+            System.out.println("--- 启动 ---");
+            System.out.printf("  按参数创建装饰器链   %8.2f ms%n", buildNanos / 1e6);
+            System.out.printf("  编译为定价程序       %8.2f ms%n", compileNanos / 1e6);
+            System.out.printf("  打开映射文件         %8.2f ms%n", openNanos / 1e6);
+            System.out.printf("  从文件重建全部链     %8.2f ms%n", rebuildNanos / 1e6);
+
+            CompiledPromotion[] compiled = new CompiledPromotion[CAMPAIGNS];
+            for (int c = 0; c < CAMPAIGNS; c++) {
+                compiled[c] = PromotionCompiler.compile(campaigns.get(c));
+            }
+            verify(store, campaigns, compiled);
+
+            int[] requestCampaigns = new int[REQUESTS];
+            double[] requestPrices = new double[REQUESTS];
+            for (int i = 0; i < REQUESTS; i++) {
+                requestCampaigns[i] = random.nextInt(CAMPAIGNS);
+                requestPrices[i] = 50 + random.nextInt(100_000) / 100.0;
+            }
+            PromotionStore mapped = store;
+            System.out.println("--- 定价（随机活动） ---");
+            measure("装饰器链", requestCampaigns, requestPrices, (c, p) -> campaigns.get(c).calculatePrice(p));
+            measure("编译后的定价程序", requestCampaigns, requestPrices, (c, p) -> compiled[c].calculatePrice(p));
+            measure("直接解释映射文件", requestCampaigns, requestPrices, mapped::calculatePrice);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void verify(PromotionStore store, List<IPromotionStrategy> campaigns, CompiledPromotion[] compiled) {
+        boolean consistent = store.size() == campaigns.size();
+        double[] prices = {0, 49.99, 100, 199.99, 200, 299, 550.5, 1000, 4999.99};
+        for (int c = 0; c < campaigns.size() && consistent; c++) {
+            IPromotionStrategy original = campaigns.get(c);
+            IPromotionStrategy rebuilt = store.getStrategy(c);
+            consistent = original.getDescription().equals(rebuilt.getDescription())
+                    && store.getCouponCount(c) == compiled[c].size();
+            for (double price : prices) {
+                long expected = Double.doubleToLongBits(original.calculatePrice(price));
+                consistent &= expected == Double.doubleToLongBits(store.calculatePrice(c, price))
+                        && expected == Double.doubleToLongBits(rebuilt.calculatePrice(price))
+                        && expected == Double.doubleToLongBits(compiled[c].calculatePrice(price));
+            }
+        }
+        System.out.println(consistent ? "✅ 全部活动的定价结果和描述与原装饰器链一致" : "❌ 结果不一致");
+    }
+
+    private static void measure(String label, int[] campaigns, double[] prices, Pricer pricer) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            priceAll(campaigns, prices, pricer);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            priceAll(campaigns, prices, pricer);
+        }
+        double nanos = (double) (System.nanoTime() - start) / ((long) MEASURE_ROUNDS * campaigns.length);
+        System.out.printf("  %-16s %7.1f ns/次%n", label, nanos);
+    }
+
+    private static void priceAll(int[] campaigns, double[] prices, Pricer pricer) {
+        double sum = 0;
+        for (int i = 0; i < campaigns.length; i++) {
+            sum += pricer.price(campaigns[i], prices[i]);
+        }
+        blackhole += sum;
+    }
+
+    /**
+     * 按参数创建全部活动的装饰器链，每张券的参数为（类型, 门槛或减免, 折扣率）
+     */
+    private static List<IPromotionStrategy> buildAll(double[][] parameters) {
+        List<IPromotionStrategy> campaigns = new ArrayList<>(parameters.length);
+        for (double[] coupons : parameters) {
+            IPromotionStrategy chain = new OriginalPrice();
+            for (int i = 0; i < coupons.length; i += 3) {
+                double amount = coupons[i + 1];
+                switch ((int) coupons[i]) {
+                    case 0:
+                        chain = new DiscountCoupon(chain, coupons[i + 2]);
+                        break;
+                    case 1:
+                        chain = new FullReductionCoupon(chain, amount, amount / 10);
+                        break;
+                    case 2:
+                        chain = new TieredFullReductionCoupon(chain, amount, amount / 20);
+                        break;
+                    default:
+                        chain = new DirectReductionCoupon(chain, amount / 50);
+                        break;
+                }
+            }
+            campaigns.add(chain);
+        }
+        return campaigns;
+    }
+}
\ No newline at end of file
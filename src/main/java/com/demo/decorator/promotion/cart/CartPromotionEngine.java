@@ -0,0 +1,115 @@
+package com.demo.decorator.promotion.cart;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+
+import java.util.Map;
+
+/**
+ * 整单促销引擎
+ *
+ * 用现有的优惠券装饰器链定义两级促销规则，对整个购物车结算：
+ * 1. 单品优惠：按品类编号配置，作用于该品类每个商品行的金额（单价 × 数量）
+ * 2. 整单优惠：作用于所有商品行单品优惠后的小计
+ * 例如：图书品类8.5折、数码品类满500减50，整单再满300减40
+ *
+ * 规则在构造时由 PromotionCompiler 编译为扁平的定价程序，按品类编号存入数组，
+ * 结算时逐行查数组、执行定价程序，不创建任何对象：
+ * calculateTotal 只累加合计；calculate(cart, receipt) 把逐行结果写入调用方提供的结算结果，
+ * 每个线程复用自己的购物车和结算结果对象即可做到整单零分配
+ *
+ * 引擎创建后不可变，可以被多个线程共享（规则链中的自定义装饰器也需是线程安全的）
+ *
+ * 使用示例：
+ * Map<Integer, IPromotionStrategy> items = Map.of(BOOKS, new DiscountCoupon(new OriginalPrice(), 0.85));
+ * CartPromotionEngine engine = new CartPromotionEngine(items, new FullReductionCoupon(new OriginalPrice(), 300, 40));
+ * double total = engine.calculateTotal(new ShoppingCart().add(BOOKS, 59.0, 2).add(TOYS, 199.0, 1));
+ */
+public final class CartPromotionEngine {
+    private final CompiledPromotion[] itemPromotions;   // 下标为品类编号，null表示没有单品优惠
+    private final CompiledPromotion cartPromotion;      // null表示没有整单优惠
+
+    /**
+     * 构造函数
+     * @param itemPromotions 品类编号到单品优惠的映射，可以为空
+     * @param cartPromotion 整单优惠，null表示没有整单优惠
+     */
+    public CartPromotionEngine(Map<Integer, ? extends IPromotionStrategy> itemPromotions,
+                               IPromotionStrategy cartPromotion) {
+        int categoryCount = 0;
+        for (Map.Entry<Integer, ? extends IPromotionStrategy> entry : itemPromotions.entrySet()) {
+            if (entry.getKey() == null || entry.getKey() < 0) {
+                throw new IllegalArgumentException("品类编号必须是非负整数：" + entry.getKey());
+            }
+            categoryCount = Math.max(categoryCount, entry.getKey() + 1);
+        }
+        this.itemPromotions = new CompiledPromotion[categoryCount];
+        for (Map.Entry<Integer, ? extends IPromotionStrategy> entry : itemPromotions.entrySet()) {
+            this.itemPromotions[entry.getKey()] = PromotionCompiler.compile(entry.getValue());
+        }
+        this.cartPromotion = cartPromotion == null ? null : PromotionCompiler.compile(cartPromotion);
+    }
+
+    /**
+     * 结算购物车，只计算应付金额
+     * @param cart 购物车
+     * @return 应付金额
+     */
+    public double calculateTotal(ShoppingCart cart) {
+        int[] categories = cart.categories();
+        double[] unitPrices = cart.unitPrices();
+        int[] quantities = cart.quantities();
+        double subtotal = 0;
+        for (int i = 0, size = cart.size(); i < size; i++) {
+            subtotal += itemPrice(categories[i], unitPrices[i] * quantities[i]);
+        }
+        return cartPrice(subtotal);
+    }
+
+    /**
+     * 结算购物车，生成新的结算结果
+     * @param cart 购物车
+     * @return 结算结果
+     */
+    public CartReceipt calculate(ShoppingCart cart) {
+        return calculate(cart, new CartReceipt());
+    }
+
+    /**
+     * 结算购物车，把结果写入已有的结算结果对象
+     * @param cart 购物车
+     * @param receipt 结算结果，原有内容被覆盖
+     * @return 传入的结算结果
+     */
+    public CartReceipt calculate(ShoppingCart cart, CartReceipt receipt) {
+        int size = cart.size();
+        receipt.reset(size);
+        int[] categories = cart.categories();
+        double[] unitPrices = cart.unitPrices();
+        int[] quantities = cart.quantities();
+        double[] originalAmounts = receipt.originalAmounts();
+        double[] itemPrices = receipt.itemPrices();
+        double originalTotal = 0;
+        double subtotal = 0;
+        for (int i = 0; i < size; i++) {
+            double amount = unitPrices[i] * quantities[i];
+            double price = itemPrice(categories[i], amount);
+            originalAmounts[i] = amount;
+            itemPrices[i] = price;
+            originalTotal += amount;
+            subtotal += price;
+        }
+        receipt.setTotals(originalTotal, subtotal, cartPrice(subtotal));
+        return receipt;
+    }
+
+    private double itemPrice(int category, double amount) {
+        CompiledPromotion promotion = category < itemPromotions.length ? itemPromotions[category] : null;
+        return promotion == null ? amount : promotion.calculatePrice(amount);
+    }
+
+    private double cartPrice(double subtotal) {
+        return cartPromotion == null ? subtotal : cartPromotion.calculatePrice(subtotal);
+    }
+}
\ No newline at end of file
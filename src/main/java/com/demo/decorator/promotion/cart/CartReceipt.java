@@ -0,0 +1,130 @@
+package com.demo.decorator.promotion.cart;
+
+import java.util.Arrays;
+
+/**
+ * 购物车结算结果
+ *
+ * 记录每个商品行的原金额和单品优惠后的金额，以及整单的各项合计：
+ * 原价合计 → 单品优惠后小计 → 整单优惠后应付金额
+ *
+ * 结算结果可以反复传给 CartPromotionEngine.calculate(cart, receipt) 重新填充，
+ * 数组只在商品行数超过已有容量时扩容；每个线程保留一个结算结果对象即可避免逐单分配
+ * 结算结果不是线程安全的
+ */
+public final class CartReceipt {
+    private double[] originalAmounts = new double[16];
+    private double[] itemPrices = new double[16];
+    private int lineCount;
+    private double originalTotal;
+    private double subtotal;
+    private double finalTotal;
+
+    /**
+     * 准备填充新的结算结果，容量不足时扩容
+     */
+    void reset(int lines) {
+        if (lines > originalAmounts.length) {
+            int capacity = Math.max(lines, originalAmounts.length * 2);
+            originalAmounts = Arrays.copyOf(originalAmounts, capacity);
+            itemPrices = Arrays.copyOf(itemPrices, capacity);
+        }
+        lineCount = lines;
+    }
+
+    double[] originalAmounts() {
+        return originalAmounts;
+    }
+
+    double[] itemPrices() {
+        return itemPrices;
+    }
+
+    void setTotals(double originalTotal, double subtotal, double finalTotal) {
+        this.originalTotal = originalTotal;
+        this.subtotal = subtotal;
+        this.finalTotal = finalTotal;
+    }
+
+    /**
+     * 获取商品行数
+     * @return 商品行数
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * 获取第i行的原金额（单价 × 数量）
+     * @param i 行号
+     * @return 原金额
+     */
+    public double getOriginalAmount(int i) {
+        checkIndex(i);
+        return originalAmounts[i];
+    }
+
+    /**
+     * 获取第i行单品优惠后的金额
+     * @param i 行号
+     * @return 单品优惠后的金额，该品类没有单品优惠时等于原金额
+     */
+    public double getItemPrice(int i) {
+        checkIndex(i);
+        return itemPrices[i];
+    }
+
+    /**
+     * 获取原价合计
+     * @return 所有商品行原金额之和
+     */
+    public double getOriginalTotal() {
+        return originalTotal;
+    }
+
+    /**
+     * 获取单品优惠后的小计，即整单优惠的计算基数
+     * @return 所有商品行单品优惠后金额之和
+     */
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * 获取应付金额
+     * @return 整单优惠后的金额
+     */
+    public double getFinalTotal() {
+        return finalTotal;
+    }
+
+    /**
+     * 获取单品优惠金额
+     * @return 原价合计减去小计
+     */
+    public double getItemDiscount() {
+        return originalTotal - subtotal;
+    }
+
+    /**
+     * 获取整单优惠金额
+     * @return 小计减去应付金额
+     */
+    public double getCartDiscount() {
+        return subtotal - finalTotal;
+    }
+
+    /**
+     * 获取总优惠金额
+     * @return 原价合计减去应付金额
+     */
+    public double getTotalDiscount() {
+        return originalTotal - finalTotal;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= lineCount) {
+            throw new IndexOutOfBoundsException("行号超出范围：" + i + "，商品行数：" + lineCount);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.demo.decorator.promotion.cart;
+
+import java.util.Arrays;
+
+/**
+ * 购物车 - 按列存储的商品行
+ *
+ * 每个商品行由品类编号、单价、数量三列组成，分别存放在三个数组中，
+ * 添加商品行不创建对象；clear() 后数组保留，同一个购物车对象可以反复用于不同订单
+ *
+ * 品类编号是从0开始的较小整数，CartPromotionEngine 按品类编号查找单品优惠
+ * 购物车不是线程安全的，每个线程使用自己的购物车对象
+ */
+public final class ShoppingCart {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] categories;
+    private double[] unitPrices;
+    private int[] quantities;
+    private int size;
+
+    /**
+     * 构造函数
+     */
+    public ShoppingCart() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     * @param capacity 预计的商品行数
+     */
+    public ShoppingCart(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("容量不能为负数：" + capacity);
+        }
+        categories = new int[capacity];
+        unitPrices = new double[capacity];
+        quantities = new int[capacity];
+    }
+
+    /**
+     * 添加商品行
+     * @param category 品类编号
+     * @param unitPrice 单价
+     * @param quantity 数量
+     * @return 当前购物车，便于连续添加
+     */
+    public ShoppingCart add(int category, double unitPrice, int quantity) {
+        if (category < 0) {
+            throw new IllegalArgumentException("品类编号不能为负数：" + category);
+        }
+        if (!(unitPrice >= 0) || Double.isInfinite(unitPrice)) {
+            throw new IllegalArgumentException("单价必须是非负数：" + unitPrice);
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("数量必须大于0：" + quantity);
+        }
+        if (size == categories.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            categories = Arrays.copyOf(categories, capacity);
+            unitPrices = Arrays.copyOf(unitPrices, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        categories[size] = category;
+        unitPrices[size] = unitPrice;
+        quantities[size] = quantity;
+        size++;
+        return this;
+    }
+
+    /**
+     * 清空购物车，保留已分配的数组
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 获取商品行数
+     * @return 商品行数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取第i行的品类编号
+     * @param i 行号
+     * @return 品类编号
+     */
+    public int getCategory(int i) {
+        checkIndex(i);
+        return categories[i];
+    }
+
+    /**
+     * 获取第i行的单价
+     * @param i 行号
+     * @return 单价
+     */
+    public double getUnitPrice(int i) {
+        checkIndex(i);
+        return unitPrices[i];
+    }
+
+    /**
+     * 获取第i行的数量
+     * @param i 行号
+     * @return 数量
+     */
+    public int getQuantity(int i) {
+        checkIndex(i);
+        return quantities[i];
+    }
+
+    /**
+     * 获取第i行的金额（单价 × 数量）
+     * @param i 行号
+     * @return 金额
+     */
+    public double getAmount(int i) {
+        checkIndex(i);
+        return unitPrices[i] * quantities[i];
+    }
+
+    // 供 CartPromotionEngine 直接遍历各列，避免逐行的下标检查
+    int[] categories() {
+        return categories;
+    }
+
+    double[] unitPrices() {
+        return unitPrices;
+    }
+
+    int[] quantities() {
+        return quantities;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("行号超出范围：" + i + "，商品行数：" + size);
+        }
+    }
+}
\ No newline at end of file
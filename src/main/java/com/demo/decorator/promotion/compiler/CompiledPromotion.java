@@ -0,0 +1,228 @@
+package com.demo.decorator.promotion.compiler;
+
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+
+import java.util.Objects;
+
+/**
+ * 编译后的促销策略 - 扁平的定价程序
+ *
+ * 由 PromotionCompiler 把一条装饰器链展开得到：每个优惠券对应一条指令，
+ * 按"最内层先执行"的顺序存放在三个并列数组中（操作码、参数1、参数2）
+ * 计算价格时只需一个循环依次执行指令，不再有逐层的虚方法调用和递归
+ *
+ * 指令集：
+ * OP_DISCOUNT        折扣券，    price = price * 参数1
+ * OP_FULL_REDUCTION  满减券，    price >= 参数1 时 price = price - 参数2
+ * OP_TIERED          每满减券，  price = price - (int)(price / 参数1) * 参数2
+ * OP_DIRECT          无条件减券，price = max(0, price - 参数1)
+ *
+ * 批量定价时按指令逐条处理整批价格，见 calculatePrices
+ * 计算结果与原装饰器链逐位相同；对象创建后不可变，可以被多个线程共享
+ */
+public final class CompiledPromotion implements IPromotionStrategy {
+
+    /** 折扣券 */
+    public static final byte OP_DISCOUNT = 0;
+    /** 满减券 */
+    public static final byte OP_FULL_REDUCTION = 1;
+    /** 每满减券 */
+    public static final byte OP_TIERED = 2;
+    /** 无条件减券 */
+    public static final byte OP_DIRECT = 3;
+
+    private static final int BLOCK_SIZE = 1024;   // 批量定价时每块的价格数（8KB）
+
+    private final IPromotionStrategy source;    // 编译前的装饰器链，用于生成描述
+    private final IPromotionStrategy base;      // 链最内层无法展开的部分，原价时为null
+    private final byte[] opcodes;
+    private final double[] operands1;
+    private final double[] operands2;
+
+    CompiledPromotion(IPromotionStrategy source, IPromotionStrategy base,
+                      byte[] opcodes, double[] operands1, double[] operands2) {
+        this.source = source;
+        this.base = base;
+        this.opcodes = opcodes;
+        this.operands1 = operands1;
+        this.operands2 = operands2;
+    }
+
+    /**
+     * 执行定价程序
+     */
+    @Override
+    public double calculatePrice(double originalPrice) {
+        double price = base == null ? originalPrice : base.calculatePrice(originalPrice);
+        for (int i = 0; i < opcodes.length; i++) {
+            price = execute(opcodes[i], operands1[i], operands2[i], price);
+        }
+        return price;
+    }
+
+    /**
+     * 执行单条指令，与对应优惠券的 calculatePrice 计算方式完全一致
+     * @param opcode 操作码，取值见 OP_* 常量
+     * @param operand1 参数1
+     * @param operand2 参数2
+     * @param price 执行前的价格
+     * @return 执行后的价格
+     */
+    public static double execute(byte opcode, double operand1, double operand2, double price) {
+        switch (opcode) {
+            case OP_DISCOUNT:
+                return price * operand1;
+            case OP_FULL_REDUCTION:
+                return price >= operand1 ? price - operand2 : price;
+            case OP_TIERED:
+                return price - (int) (price / operand1) * operand2;
+            default:
+                return Math.max(0, price - operand1);
+        }
+    }
+
+    /**
+     * 批量执行定价程序
+     *
+     * 按指令逐条处理一块价格：每条指令是一个对整块价格的简单循环，
+     * 不同价格之间没有依赖，CPU可以并行执行（逐个定价时每条指令都要等待上一条的结果），
+     * 折扣、满减等循环也便于JIT自动向量化；结果与逐个调用 calculatePrice 逐位相同
+     *
+     * @param originalPrices 原价数组
+     * @param finalPrices 最终价格输出数组，可以与原价数组是同一个数组
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     */
+    public void calculatePrices(double[] originalPrices, double[] finalPrices, int from, int to) {
+        Objects.checkFromToIndex(from, to, originalPrices.length);
+        Objects.checkFromToIndex(from, to, finalPrices.length);
+        // 分块处理，使每块价格在执行全部指令期间都留在L1缓存中
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            calculateBlock(originalPrices, finalPrices, start, Math.min(to, start + BLOCK_SIZE));
+        }
+    }
+
+    private void calculateBlock(double[] originalPrices, double[] finalPrices, int from, int to) {
+        if (base == null) {
+            System.arraycopy(originalPrices, from, finalPrices, from, to - from);
+        } else {
+            for (int j = from; j < to; j++) {
+                finalPrices[j] = base.calculatePrice(originalPrices[j]);
+            }
+        }
+        for (int i = 0; i < opcodes.length; i++) {
+            double a = operands1[i];
+            double b = operands2[i];
+            switch (opcodes[i]) {
+                case OP_DISCOUNT:
+                    for (int j = from; j < to; j++) {
+                        finalPrices[j] = finalPrices[j] * a;
+                    }
+                    break;
+                case OP_FULL_REDUCTION:
+                    for (int j = from; j < to; j++) {
+                        double price = finalPrices[j];
+                        finalPrices[j] = price >= a ? price - b : price;
+                    }
+                    break;
+                case OP_TIERED:
+                    for (int j = from; j < to; j++) {
+                        double price = finalPrices[j];
+                        finalPrices[j] = price - (int) (price / a) * b;
+                    }
+                    break;
+                default:
+                    for (int j = from; j < to; j++) {
+                        finalPrices[j] = Math.max(0, finalPrices[j] - a);
+                    }
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public int getBreakdownSize() {
+        return (base == null ? 1 : base.getBreakdownSize()) + opcodes.length;
+    }
+
+    /**
+     * 计算价格明细，与编译前的装饰器链逐位相同
+     */
+    @Override
+    public int calculateBreakdown(double originalPrice, double[] prices, int offset) {
+        int next;
+        if (base == null) {
+            prices[offset] = originalPrice;
+            next = offset + 1;
+        } else {
+            next = base.calculateBreakdown(originalPrice, prices, offset);
+        }
+        double price = prices[next - 1];
+        for (int i = 0; i < opcodes.length; i++) {
+            price = execute(opcodes[i], operands1[i], operands2[i], price);
+            prices[next++] = price;
+        }
+        return next;
+    }
+
+    @Override
+    public String getDescription() {
+        return source.getDescription();
+    }
+
+    @Override
+    public StringBuilder describeTo(StringBuilder sb) {
+        return source.describeTo(sb);
+    }
+
+    /**
+     * 获取总折扣金额，只执行一遍定价程序
+     */
+    @Override
+    public double getDiscountAmount(double originalPrice) {
+        return originalPrice - calculatePrice(originalPrice);
+    }
+
+    /**
+     * 获取指令数，即展开的优惠券数量
+     * @return 指令数
+     */
+    public int size() {
+        return opcodes.length;
+    }
+
+    /**
+     * 获取第i条指令的操作码
+     * @param i 指令下标，0为最先执行的指令
+     * @return 操作码，取值见 OP_* 常量
+     */
+    public byte getOpcode(int i) {
+        return opcodes[i];
+    }
+
+    /**
+     * 获取第i条指令的参数1（折扣率、门槛或减免金额）
+     * @param i 指令下标
+     * @return 参数1
+     */
+    public double getOperand1(int i) {
+        return operands1[i];
+    }
+
+    /**
+     * 获取第i条指令的参数2（满减、每满减的减免金额，其他指令为0）
+     * @param i 指令下标
+     * @return 参数2
+     */
+    public double getOperand2(int i) {
+        return operands2[i];
+    }
+
+    /**
+     * 获取链最内层无法展开的部分
+     * @return 最先执行的策略；链的最内层是原价时返回null
+     */
+    public IPromotionStrategy getBase() {
+        return base;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.demo.decorator.promotion.compiler;
+
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.PromotionDecorator;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 促销链编译器
+ *
+ * 把 PromotionDecorator 装饰器链展开为 CompiledPromotion 定价程序
+ * 例如 FullReductionCoupon(DiscountCoupon(OriginalPrice)) 编译为两条指令：
+ *   [OP_DISCOUNT 折扣率] → [OP_FULL_REDUCTION 门槛 减免]
+ *
+ * 编译规则：
+ * 1. 从最外层装饰器开始，沿 getDecoratedStrategy() 向内展开已知的四种优惠券
+ * 2. 遇到 OriginalPrice 时结束，定价程序直接从原价开始
+ * 3. 遇到其他组件或自定义的装饰器子类时，把它连同其内部整体作为程序的起点，
+ *    由 CompiledPromotion 先调用它一次，再执行展开的指令
+ *
+ * 使用示例：
+ * IPromotionStrategy chain = new FullReductionCoupon(new DiscountCoupon(new OriginalPrice(), 0.85), 200, 30);
+ * CompiledPromotion compiled = PromotionCompiler.compile(chain);
+ * double finalPrice = compiled.calculatePrice(299.0);
+ */
+public final class PromotionCompiler {
+
+    private PromotionCompiler() {
+    }
+
+    /**
+     * 编译促销策略
+     * @param strategy 装饰器链；已经编译过的策略原样返回
+     * @return 编译后的定价程序
+     */
+    public static CompiledPromotion compile(IPromotionStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("促销策略不能为空");
+        }
+        if (strategy instanceof CompiledPromotion) {
+            return (CompiledPromotion) strategy;
+        }
+
+        // 由外向内收集可展开的优惠券
+        List<PromotionDecorator> coupons = new ArrayList<>();
+        IPromotionStrategy current = strategy;
+        while (isCompilable(current)) {
+            PromotionDecorator decorator = (PromotionDecorator) current;
+            coupons.add(decorator);
+            current = decorator.getDecoratedStrategy();
+        }
+        // 与优惠券一样按精确类型判断：OriginalPrice 的子类可能重写了 calculatePrice，不能当作原价
+        IPromotionStrategy base = current != null && current.getClass() == OriginalPrice.class ? null : current;
+
+        // 最内层的优惠券最先执行
+        int size = coupons.size();
+        byte[] opcodes = new byte[size];
+        double[] operands1 = new double[size];
+        double[] operands2 = new double[size];
+        for (int i = 0; i < size; i++) {
+            PromotionDecorator coupon = coupons.get(size - 1 - i);
+            if (coupon instanceof DiscountCoupon) {
+                opcodes[i] = CompiledPromotion.OP_DISCOUNT;
+                operands1[i] = ((DiscountCoupon) coupon).getDiscountRate();
+            } else if (coupon instanceof FullReductionCoupon) {
+                opcodes[i] = CompiledPromotion.OP_FULL_REDUCTION;
+                operands1[i] = ((FullReductionCoupon) coupon).getThreshold();
+                operands2[i] = ((FullReductionCoupon) coupon).getReduction();
+            } else if (coupon instanceof TieredFullReductionCoupon) {
+                opcodes[i] = CompiledPromotion.OP_TIERED;
+                operands1[i] = ((TieredFullReductionCoupon) coupon).getThreshold();
+                operands2[i] = ((TieredFullReductionCoupon) coupon).getReduction();
+            } else {
+                opcodes[i] = CompiledPromotion.OP_DIRECT;
+                operands1[i] = ((DirectReductionCoupon) coupon).getReduction();
+            }
+        }
+        return new CompiledPromotion(strategy, base, opcodes, operands1, operands2);
+    }
+
+    /**
+     * 是否是可以展开为指令的优惠券（精确类型匹配，子类可能改写了计算逻辑）
+     */
+    private static boolean isCompilable(IPromotionStrategy strategy) {
+        if (strategy == null) {
+            return false;
+        }
+        Class<?> type = strategy.getClass();
+        return type == DiscountCoupon.class
+                || type == FullReductionCoupon.class
+                || type == TieredFullReductionCoupon.class
+                || type == DirectReductionCoupon.class;
+    }
+}
\ No newline at end of file
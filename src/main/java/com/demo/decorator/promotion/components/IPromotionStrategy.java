@@ -25,6 +25,15 @@ public interface IPromotionStrategy {
      */
     String getDescription();
 
+    /**
+     * 把促销描述追加到StringBuilder，拼接多段描述时不产生中间字符串
+     * @param sb 目标StringBuilder
+     * @return 传入的StringBuilder，便于链式调用
+     */
+    default StringBuilder describeTo(StringBuilder sb) {
+        return sb.append(getDescription());
+    }
+
     /**
      * 获取折扣金额
      * @param originalPrice 原始价格
@@ -33,4 +42,37 @@ public interface IPromotionStrategy {
     default double getDiscountAmount(double originalPrice) {
         return originalPrice - calculatePrice(originalPrice);
     }
+
+    /**
+     * 获取价格明细的长度：组件为1，每层装饰器加1
+     * @return calculateBreakdown 写入的价格个数
+     */
+    default int getBreakdownSize() {
+        return 1;
+    }
+
+    /**
+     * 一次计算出每一层之后的价格
+     * 第0个元素是最内层组件计算后的价格，之后依次是每个装饰器计算后的价格，最后一个元素等于 calculatePrice 的结果；
+     * 相邻两个价格之差就是该层优惠券的优惠金额，整条链只计算一遍
+     * @param originalPrice 原始价格
+     * @return 长度为 getBreakdownSize() 的价格明细
+     */
+    default double[] calculateBreakdown(double originalPrice) {
+        double[] prices = new double[getBreakdownSize()];
+        calculateBreakdown(originalPrice, prices, 0);
+        return prices;
+    }
+
+    /**
+     * 一次计算出每一层之后的价格，写入已有数组，便于逐行生成小票时复用数组
+     * @param originalPrice 原始价格
+     * @param prices 目标数组，从offset开始写入 getBreakdownSize() 个价格
+     * @param offset 起始下标
+     * @return 写入的最后一个价格之后的下标
+     */
+    default int calculateBreakdown(double originalPrice, double[] prices, int offset) {
+        prices[offset] = calculatePrice(originalPrice);
+        return offset + 1;
+    }
 }
\ No newline at end of file
@@ -19,6 +19,11 @@ public class OriginalPrice implements IPromotionStrategy {
         return "原价";
     }
 
+    @Override
+    public StringBuilder describeTo(StringBuilder sb) {
+        return sb.append("原价");
+    }
+
     @Override
     public double getDiscountAmount(double originalPrice) {
         return 0.0;  // 原价没有折扣
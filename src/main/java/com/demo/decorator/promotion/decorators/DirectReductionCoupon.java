@@ -30,21 +30,27 @@ public class DirectReductionCoupon extends PromotionDecorator {
     }
 
     /**
-     * 计算直接减免后的价格
+     * 获取直接减免的金额
+     * @return 直接减免的金额
+     */
+    public double getReduction() {
+        return reduction;
+    }
+
+    /**
      * 在上层处理后的价格基础上直接减免固定金额，但确保价格不为负数
      */
     @Override
-    public double calculatePrice(double originalPrice) {
-        double inputPrice = decoratedStrategy.calculatePrice(originalPrice);
+    protected double applyCoupon(double inputPrice) {
         return Math.max(0, inputPrice - reduction);
     }
 
     /**
-     * 获取完整的促销描述
+     * 生成当前优惠券自身的描述
      */
     @Override
-    public String getDescription() {
-        return decoratedStrategy.getDescription() + " + " + String.format("直接减%.2f元", reduction);
+    protected String describeCoupon() {
+        return String.format("直接减%.2f元", reduction);
     }
 
     /**
@@ -30,21 +30,27 @@ public class DiscountCoupon extends PromotionDecorator {
     }
 
     /**
-     * 计算折扣后的价格
+     * 获取折扣率
+     * @return 折扣率，如0.8表示8折
+     */
+    public double getDiscountRate() {
+        return discountRate;
+    }
+
+    /**
      * 在上层处理后的价格基础上进行折扣计算
      */
     @Override
-    public double calculatePrice(double originalPrice) {
-        double inputPrice = decoratedStrategy.calculatePrice(originalPrice);
+    protected double applyCoupon(double inputPrice) {
         return inputPrice * discountRate;
     }
 
     /**
-     * 获取完整的促销描述
+     * 生成当前优惠券自身的描述
      */
     @Override
-    public String getDescription() {
-        return decoratedStrategy.getDescription() + " + " + String.format("%.1f折", discountRate * 10);
+    protected String describeCoupon() {
+        return String.format("%.1f折", discountRate * 10);
     }
 
     /**
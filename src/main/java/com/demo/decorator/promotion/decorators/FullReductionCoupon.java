@@ -30,13 +30,26 @@ public class FullReductionCoupon extends PromotionDecorator {
     }
 
     /**
-     * 计算满减后的价格
+     * 获取满减门槛
+     * @return 满减门槛
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 获取减免金额
+     * @return 减免金额
+     */
+    public double getReduction() {
+        return reduction;
+    }
+
+    /**
      * 在上层处理后的价格基础上，检查是否满足满减条件，进行相应减免
      */
     @Override
-    public double calculatePrice(double originalPrice) {
-        double inputPrice = decoratedStrategy.calculatePrice(originalPrice);
-
+    protected double applyCoupon(double inputPrice) {
         // 检查是否满足满减条件
         if (inputPrice >= threshold) {
             return inputPrice - reduction;
@@ -46,11 +59,11 @@ public class FullReductionCoupon extends PromotionDecorator {
     }
 
     /**
-     * 获取完整的促销描述
+     * 生成当前优惠券自身的描述
      */
     @Override
-    public String getDescription() {
-        return decoratedStrategy.getDescription() + " + " + String.format("满%.0f减%.0f", threshold, reduction);
+    protected String describeCoupon() {
+        return String.format("满%.0f减%.0f", threshold, reduction);
     }
 
     /**
@@ -15,19 +15,198 @@ import com.demo.decorator.promotion.components.IPromotionStrategy;
  * 2. 持有一个策略对象的引用
  * 3. 组合被装饰策略的功能与当前装饰器的功能
  * 4. 通过抽象方法让子类实现自己的装饰逻辑
+ *
+ * 价格计算（模板方法）：calculatePrice 先计算被装饰策略，再交给子类实现的 applyCoupon() 计算本层，
+ * 子类一般只需实现 applyCoupon()；calculateBreakdown 沿链只计算一遍就得到每层之后的价格
+ * 兼容旧写法：子类也可以像以前一样直接重写 calculatePrice，此时价格明细中本层的价格改为调用 calculatePrice 得到，
+ * 与 calculatePrice 的结果保持一致；两个方法都没有实现的子类在构造时就抛出 IllegalStateException，
+ * 而不是等到第一次计算价格时才失败（每个类只检查一次）
+ *
+ * 促销描述：装饰器链创建后不可变，整条链的描述和每个优惠券自身的描述都在第一次使用时生成并缓存，
+ * 子类只需实现 describeCoupon() 给出自身的描述（如"满200减30"）
+ * 兼容旧写法：直接重写 getDescription 的子类不需要实现 describeCoupon，整条链的描述使用子类的 getDescription，
+ * 自身的描述从中去掉被装饰策略的描述前缀得到
+ * 缓存字段不加volatile：多个线程同时首次访问时可能各自生成一次，但结果相同，String本身可以安全发布
  */
 public abstract class PromotionDecorator implements IPromotionStrategy {
     /**
      * 被装饰的促销策略对象
      * 这是装饰器模式的核心：装饰器持有一个策略的引用
      */
-    protected IPromotionStrategy decoratedStrategy;
+    protected final IPromotionStrategy decoratedStrategy;
+
+    /**
+     * 子类是否重写了 calculatePrice，按类缓存
+     */
+    private static final ClassValue<Boolean> OVERRIDES_CALCULATE_PRICE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return overrides(type, "calculatePrice", double.class);
+        }
+    };
+
+    /**
+     * 子类是否实现了 applyCoupon 或重写了 calculatePrice，按类缓存
+     */
+    private static final ClassValue<Boolean> IMPLEMENTS_PRICING = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return OVERRIDES_CALCULATE_PRICE.get(type) || declaresApplyCoupon(type);
+        }
+    };
+
+    /**
+     * 子类是否重写了 getDescription，按类缓存
+     */
+    private static final ClassValue<Boolean> OVERRIDES_GET_DESCRIPTION = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return overrides(type, "getDescription");
+        }
+    };
+
+    private String couponDescription;   // 当前优惠券自身的描述，首次使用时生成
+    private String description;         // 整条链的描述，首次使用时生成
+
+    /**
+     * 判断子类是否重写了本类的公有方法
+     */
+    private static boolean overrides(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes).getDeclaringClass() != PromotionDecorator.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 判断从 type 到本类之间是否有类声明了 applyCoupon（受保护方法，getMethod 查不到）
+     */
+    private static boolean declaresApplyCoupon(Class<?> type) {
+        for (Class<?> c = type; c != PromotionDecorator.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("applyCoupon", double.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // 继续检查父类
+            }
+        }
+        return false;
+    }
 
     /**
      * 构造函数，传入要被装饰的促销策略
      * @param strategy 要被装饰的促销策略
+     * @throws IllegalStateException 如果子类既没有实现 applyCoupon 也没有重写 calculatePrice
      */
     public PromotionDecorator(IPromotionStrategy strategy) {
+        if (!IMPLEMENTS_PRICING.get(getClass())) {
+            throw new IllegalStateException(getClass().getName() + " 需要实现 applyCoupon 或重写 calculatePrice");
+        }
         this.decoratedStrategy = strategy;
     }
+
+    /**
+     * 获取被装饰的促销策略
+     * @return 被装饰的促销策略
+     */
+    public IPromotionStrategy getDecoratedStrategy() {
+        return decoratedStrategy;
+    }
+
+    /**
+     * 计算最终价格的模板方法：先计算被装饰策略，再对结果使用本优惠券
+     * 子类应实现 applyCoupon()；重写本方法的子类，价格明细也会改用本方法的结果
+     */
+    @Override
+    public double calculatePrice(double originalPrice) {
+        return applyCoupon(decoratedStrategy.calculatePrice(originalPrice));
+    }
+
+    /**
+     * 对上层处理后的价格使用本优惠券，不包含被装饰策略的计算
+     * 直接重写 calculatePrice 的旧子类不需要实现本方法
+     * @param inputPrice 被装饰策略计算后的价格
+     * @return 使用本优惠券后的价格
+     */
+    protected double applyCoupon(double inputPrice) {
+        throw new UnsupportedOperationException(getClass().getName() + " 需要实现 applyCoupon 或重写 calculatePrice");
+    }
+
+    @Override
+    public int getBreakdownSize() {
+        return decoratedStrategy.getBreakdownSize() + 1;
+    }
+
+    /**
+     * 先让被装饰策略写入内层的价格明细，再对最后一个价格使用本优惠券
+     * 子类重写了 calculatePrice 时，本层的价格直接取 calculatePrice 的结果
+     */
+    @Override
+    public int calculateBreakdown(double originalPrice, double[] prices, int offset) {
+        int next = decoratedStrategy.calculateBreakdown(originalPrice, prices, offset);
+        prices[next] = OVERRIDES_CALCULATE_PRICE.get(getClass())
+                ? calculatePrice(originalPrice)
+                : applyCoupon(prices[next - 1]);
+        return next + 1;
+    }
+
+    /**
+     * 获取完整的促销描述，如"原价 + 8.5折 + 满200减30"
+     * 第一次调用时生成，之后直接返回缓存的字符串
+     */
+    @Override
+    public String getDescription() {
+        String result = description;
+        if (result == null) {
+            result = describeTo(new StringBuilder(64)).toString();
+            description = result;
+        }
+        return result;
+    }
+
+    /**
+     * 把完整的促销描述追加到StringBuilder
+     * 描述已缓存时直接追加；否则逐层追加各优惠券的描述，不产生中间字符串
+     * 子类重写了 getDescription 时直接追加 getDescription 的结果
+     */
+    @Override
+    public StringBuilder describeTo(StringBuilder sb) {
+        String result = description;
+        if (result != null) {
+            return sb.append(result);
+        }
+        if (OVERRIDES_GET_DESCRIPTION.get(getClass())) {
+            return sb.append(getDescription());
+        }
+        return decoratedStrategy.describeTo(sb).append(" + ").append(getCouponDescription());
+    }
+
+    /**
+     * 获取当前优惠券自身的描述，不包含被装饰的策略
+     * @return 当前优惠券的描述
+     */
+    public String getCouponDescription() {
+        String result = couponDescription;
+        if (result == null) {
+            result = describeCoupon();
+            couponDescription = result;
+        }
+        return result;
+    }
+
+    /**
+     * 生成当前优惠券自身的描述，每个装饰器对象只调用一次
+     * 默认实现供直接重写 getDescription 的旧子类使用：去掉"被装饰策略的描述 + "前缀，
+     * 格式不符时返回完整描述；两个方法都没有重写时返回类名
+     * @return 当前优惠券的描述
+     */
+    protected String describeCoupon() {
+        if (!OVERRIDES_GET_DESCRIPTION.get(getClass())) {
+            return getClass().getSimpleName();
+        }
+        String full = getDescription();
+        String prefix = decoratedStrategy.getDescription() + " + ";
+        return full.startsWith(prefix) ? full.substring(prefix.length()) : full;
+    }
 }
\ No newline at end of file
@@ -30,13 +30,27 @@ public class TieredFullReductionCoupon extends PromotionDecorator {
     }
 
     /**
-     * 计算每满减后的价格
+     * 获取每满的金额门槛
+     * @return 每满的金额门槛
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 获取每次减免的金额
+     * @return 每次减免的金额
+     */
+    public double getReduction() {
+        return reduction;
+    }
+
+    /**
+     * 对上层处理后的价格使用本优惠券
      * 计算可以享受多少次每满减优惠，进行相应减免
      */
     @Override
-    public double calculatePrice(double originalPrice) {
-        double inputPrice = decoratedStrategy.calculatePrice(originalPrice);
-
+    protected double applyCoupon(double inputPrice) {
         // 计算可以享受多少次每满减优惠
         int times = (int) (inputPrice / threshold);
         double totalReduction = times * reduction;
@@ -45,11 +59,11 @@ public class TieredFullReductionCoupon extends PromotionDecorator {
     }
 
     /**
-     * 获取完整的促销描述
+     * 生成当前优惠券自身的描述
      */
     @Override
-    public String getDescription() {
-        return decoratedStrategy.getDescription() + " + " + String.format("每满%.0f减%.0f", threshold, reduction);
+    protected String describeCoupon() {
+        return String.format("每满%.0f减%.0f", threshold, reduction);
     }
 
     /**
@@ -0,0 +1,75 @@
+package com.demo.decorator.promotion.optimizer;
+
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+
+/**
+ * 优惠券叠加顺序的搜索结果
+ *
+ * 由 CouponOrderOptimizer 返回，包含最低的最终价格、达到该价格的叠加顺序，
+ * 以及按该顺序重新组装好的装饰器链，可以直接用于结算
+ */
+public final class CouponOrder {
+    private final double originalPrice;
+    private final double finalPrice;
+    private final int[] order;
+    private final IPromotionStrategy strategy;
+    private final long exploredStates;
+
+    CouponOrder(double originalPrice, double finalPrice, int[] order,
+                IPromotionStrategy strategy, long exploredStates) {
+        this.originalPrice = originalPrice;
+        this.finalPrice = finalPrice;
+        this.order = order;
+        this.strategy = strategy;
+        this.exploredStates = exploredStates;
+    }
+
+    /**
+     * 获取原价
+     * @return 原价
+     */
+    public double getOriginalPrice() {
+        return originalPrice;
+    }
+
+    /**
+     * 获取按最优顺序叠加后的最终价格
+     * @return 最终价格
+     */
+    public double getFinalPrice() {
+        return finalPrice;
+    }
+
+    /**
+     * 获取总折扣金额
+     * @return 原价减去最终价格
+     */
+    public double getDiscountAmount() {
+        return originalPrice - finalPrice;
+    }
+
+    /**
+     * 获取最优叠加顺序
+     * 数组第k个元素是第k个使用的优惠券在输入链中的位置（0为输入链最内层的优惠券）
+     * @return 叠加顺序的副本
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * 获取按最优顺序组装的装饰器链
+     * @return 促销策略，对原价计算得到 getFinalPrice()
+     */
+    public IPromotionStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 获取搜索过程中展开的状态数，用于观察剪枝效果
+     * @return 展开的状态数
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+}
\ No newline at end of file
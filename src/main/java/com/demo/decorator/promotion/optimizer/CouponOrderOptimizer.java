@@ -0,0 +1,319 @@
+package com.demo.decorator.promotion.optimizer;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+/**
+ * 优惠券叠加顺序优化器
+ *
+ * 优惠券的叠加顺序会影响最终价格（见 EcommerceShoppingDemo 场景2），
+ * 本类对顾客持有的一组优惠券找出使最终价格最低的叠加顺序
+ *
+ * 满减、每满减券在门槛处价格会跳变，中间价格更低不代表最终价格更低，
+ * 不能只保留每个子集的最低价格，因此采用分支限界搜索：
+ * 1. 状态为（已使用的优惠券集合, 当前价格），相同状态只展开一次（不同顺序到达同一状态时合并）
+ * 2. 参数完全相同的优惠券互相等价，只尝试其中一张
+ * 3. 门槛高于当前价格的满减券再也不会生效，直接放在当前位置，不再参与排序
+ * 4. 下界剪枝：假设剩余的折扣券和仍可能生效的减免全部生效，得到最终价格的下界，
+ *    这个下界不低于已找到的最优价格时，跳过整个分支
+ * 5. 子状态按价格从低到高展开，第一条路径就是贪心解，尽早得到较好的上界
+ * 搜索结果是精确最优解，与枚举全部排列得到的最低价格逐位相同
+ * 下界剪枝要求折扣率在0~1之间、减免金额非负、每满减的减免不超过门槛，不满足时只使用1、2、5三项
+ *
+ * 使用示例：
+ * IPromotionStrategy coupons = new FullReductionCoupon(new DiscountCoupon(new OriginalPrice(), 0.85), 200, 30);
+ * CouponOrder best = CouponOrderOptimizer.optimize(coupons, 299.0);
+ * double finalPrice = best.getFinalPrice();
+ */
+public final class CouponOrderOptimizer {
+
+    /** 最多参与排序的优惠券数量，最坏情况下搜索量随数量指数增长 */
+    public static final int MAX_COUPONS = 16;
+
+    /** 剩余券数不超过该值时不再记录已展开的状态 */
+    private static final int MEMO_MIN_REMAINING = 2;
+
+    private CouponOrderOptimizer() {
+    }
+
+    /**
+     * 搜索最优叠加顺序
+     * @param coupons 顾客持有的优惠券，按任意顺序叠加成的装饰器链；
+     *                最内层无法展开的部分（见 PromotionCompiler）固定最先执行，不参与排序
+     * @param originalPrice 原价
+     * @return 最优叠加顺序及其价格；输入顺序本身已是最优时返回输入顺序
+     */
+    public static CouponOrder optimize(IPromotionStrategy coupons, double originalPrice) {
+        CompiledPromotion program = PromotionCompiler.compile(coupons);
+        int size = program.size();
+        if (size > MAX_COUPONS) {
+            throw new IllegalArgumentException("优惠券数量不能超过" + MAX_COUPONS + "张：" + size);
+        }
+        IPromotionStrategy base = program.getBase();
+        double start = base == null ? originalPrice : base.calculatePrice(originalPrice);
+
+        Search search = new Search(program);
+        search.run(start);
+
+        IPromotionStrategy strategy = base == null ? new OriginalPrice() : base;
+        for (int index : search.bestOrder) {
+            strategy = decorate(strategy, program, index);
+        }
+        return new CouponOrder(originalPrice, search.best, search.bestOrder, strategy, search.explored);
+    }
+
+    /**
+     * 用定价程序中第index条指令对应的优惠券包装策略
+     */
+    private static IPromotionStrategy decorate(IPromotionStrategy strategy, CompiledPromotion program, int index) {
+        double operand1 = program.getOperand1(index);
+        double operand2 = program.getOperand2(index);
+        switch (program.getOpcode(index)) {
+            case CompiledPromotion.OP_DISCOUNT:
+                return new DiscountCoupon(strategy, operand1);
+            case CompiledPromotion.OP_FULL_REDUCTION:
+                return new FullReductionCoupon(strategy, operand1, operand2);
+            case CompiledPromotion.OP_TIERED:
+                return new TieredFullReductionCoupon(strategy, operand1, operand2);
+            default:
+                return new DirectReductionCoupon(strategy, operand1);
+        }
+    }
+
+    /**
+     * 一次搜索的状态，搜索过程中不再分配对象（访问表扩容除外）
+     */
+    private static final class Search {
+        private final byte[] opcodes;
+        private final double[] operands1;
+        private final double[] operands2;
+        private final int size;
+        private final int[] earlierDuplicates;   // 每张券之前参数完全相同的券的集合
+        private final boolean bounded;            // 参数是否满足下界剪枝的前提
+        private final double[][] childPrices;     // 每层的子状态价格，按价格升序
+        private final int[][] childCoupons;       // 每层的子状态使用的券
+        private final int[] path;
+        private final StateSet visited = new StateSet();
+
+        private int[] bestOrder;
+        private double best;
+        private long explored;
+
+        Search(CompiledPromotion program) {
+            size = program.size();
+            opcodes = new byte[size];
+            operands1 = new double[size];
+            operands2 = new double[size];
+            boolean boundable = true;
+            for (int i = 0; i < size; i++) {
+                opcodes[i] = program.getOpcode(i);
+                operands1[i] = program.getOperand1(i);
+                operands2[i] = program.getOperand2(i);
+                boundable &= isBoundable(opcodes[i], operands1[i], operands2[i]);
+            }
+            bounded = boundable;
+            earlierDuplicates = new int[size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (opcodes[i] == opcodes[j]
+                            && Double.doubleToLongBits(operands1[i]) == Double.doubleToLongBits(operands1[j])
+                            && Double.doubleToLongBits(operands2[i]) == Double.doubleToLongBits(operands2[j])) {
+                        earlierDuplicates[i] |= 1 << j;
+                    }
+                }
+            }
+            childPrices = new double[size][size];
+            childCoupons = new int[size][size];
+            path = new int[size];
+        }
+
+        void run(double start) {
+            // 以输入顺序作为初始解，之后只接受严格更低的价格
+            bestOrder = new int[size];
+            double price = start;
+            for (int i = 0; i < size; i++) {
+                bestOrder[i] = i;
+                price = CompiledPromotion.execute(opcodes[i], operands1[i], operands2[i], price);
+            }
+            best = price;
+            search(0, 0, start);
+        }
+
+        private void search(int depth, int used, double price) {
+            if (bounded) {
+                // 门槛高于当前价格的满减券再也不会生效，立即使用它们不改变价格
+                double ceiling = Math.max(price, 0);
+                for (int i = 0; i < size; i++) {
+                    if ((used & (1 << i)) == 0 && opcodes[i] == CompiledPromotion.OP_FULL_REDUCTION
+                            && operands1[i] > ceiling) {
+                        path[depth++] = i;
+                        used |= 1 << i;
+                    }
+                }
+            }
+            if (depth == size) {
+                if (price < best) {
+                    best = price;
+                    System.arraycopy(path, 0, bestOrder, 0, size);
+                }
+                return;
+            }
+            // 剩余券很少时子树很小，重新计算比查表更快
+            if (size - depth > MEMO_MIN_REMAINING && !visited.add(used, price)) {
+                return;
+            }
+            explored++;
+            if (bounded && lowerBound(used, price) >= best) {
+                return;
+            }
+
+            // 展开子状态，按价格插入排序
+            double[] prices = childPrices[depth];
+            int[] coupons = childCoupons[depth];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if ((used & (1 << i)) != 0 || (earlierDuplicates[i] & ~used) != 0) {
+                    continue;
+                }
+                double next = CompiledPromotion.execute(opcodes[i], operands1[i], operands2[i], price);
+                int k = count++;
+                while (k > 0 && prices[k - 1] > next) {
+                    prices[k] = prices[k - 1];
+                    coupons[k] = coupons[k - 1];
+                    k--;
+                }
+                prices[k] = next;
+                coupons[k] = i;
+            }
+            for (int k = 0; k < count; k++) {
+                path[depth] = coupons[k];
+                search(depth + 1, used | (1 << coupons[k]), prices[k]);
+            }
+        }
+
+        /**
+         * 剩余优惠券能达到的最低价格的下界
+         *
+         * 价格只会降低（或被无条件减券截到0），设剩余折扣率之积为D，
+         * 最终价格 = 当前价格 × D - Σ 每次减免 × 其后折扣率之积，剩余的每张券在右侧最多贡献：
+         * 无条件减券：减免金额
+         * 满减券：当前价格未达到门槛时为0；折扣全部用完后仍可能达到门槛时为减免金额，
+         *         否则其后至少还有一张折扣券，为减免金额 × 剩余最大折扣率
+         * 每满减券：按当前价格计算的减免金额，且不超过 当前价格 × D × 减免 / 门槛
+         * 最后留出浮点误差的余量
+         */
+        private double lowerBound(int used, double price) {
+            double ceiling = Math.max(price, 0);
+            double rate = 1;
+            double maxRate = 0;
+            for (int i = 0; i < size; i++) {
+                if ((used & (1 << i)) == 0 && opcodes[i] == CompiledPromotion.OP_DISCOUNT) {
+                    rate *= operands1[i];
+                    maxRate = Math.max(maxRate, operands1[i]);
+                }
+            }
+            double floor = ceiling * rate;
+            double reduction = 0;
+            for (int i = 0; i < size; i++) {
+                if ((used & (1 << i)) != 0) {
+                    continue;
+                }
+                switch (opcodes[i]) {
+                    case CompiledPromotion.OP_DISCOUNT:
+                        break;
+                    case CompiledPromotion.OP_FULL_REDUCTION:
+                        if (floor >= operands1[i]) {
+                            reduction += operands2[i];
+                        } else if (ceiling >= operands1[i]) {
+                            reduction += operands2[i] * maxRate;
+                        }
+                        break;
+                    case CompiledPromotion.OP_TIERED:
+                        reduction += Math.min((int) (ceiling / operands1[i]) * operands2[i],
+                                floor * operands2[i] / operands1[i]);
+                        break;
+                    default:
+                        reduction += operands1[i];
+                        break;
+                }
+            }
+            return price * rate - reduction - 1e-9 * (Math.abs(price) + reduction + 1);
+        }
+
+        private static boolean isBoundable(byte opcode, double operand1, double operand2) {
+            if (!Double.isFinite(operand1) || !Double.isFinite(operand2)) {
+                return false;
+            }
+            switch (opcode) {
+                case CompiledPromotion.OP_DISCOUNT:
+                    return operand1 >= 0 && operand1 <= 1;
+                case CompiledPromotion.OP_FULL_REDUCTION:
+                    return operand2 >= 0;
+                case CompiledPromotion.OP_TIERED:
+                    return operand1 > 0 && operand2 >= 0 && operand2 <= operand1;
+                default:
+                    return operand1 >= 0;
+            }
+        }
+    }
+
+    /**
+     * 已展开状态的集合，开放寻址哈希表
+     * 键为（已使用的券集合, 价格的位表示），券集合加1存储，0表示空位
+     */
+    private static final class StateSet {
+        private int[] masks = new int[32];
+        private long[] prices = new long[32];
+        private int count;
+
+        /**
+         * 加入状态
+         * @return 状态此前不在集合中时返回true
+         */
+        boolean add(int used, double price) {
+            if (2 * (count + 1) > masks.length) {
+                resize();
+            }
+            long bits = Double.doubleToLongBits(price);
+            int slot = slot(used, bits, masks.length);
+            while (masks[slot] != 0) {
+                if (masks[slot] == used + 1 && prices[slot] == bits) {
+                    return false;
+                }
+                slot = (slot + 1) & (masks.length - 1);
+            }
+            masks[slot] = used + 1;
+            prices[slot] = bits;
+            count++;
+            return true;
+        }
+
+        private void resize() {
+            int[] oldMasks = masks;
+            long[] oldPrices = prices;
+            masks = new int[oldMasks.length * 2];
+            prices = new long[oldMasks.length * 2];
+            for (int i = 0; i < oldMasks.length; i++) {
+                if (oldMasks[i] != 0) {
+                    int slot = slot(oldMasks[i] - 1, oldPrices[i], masks.length);
+                    while (masks[slot] != 0) {
+                        slot = (slot + 1) & (masks.length - 1);
+                    }
+                    masks[slot] = oldMasks[i];
+                    prices[slot] = oldPrices[i];
+                }
+            }
+        }
+
+        private static int slot(int used, long bits, int capacity) {
+            long h = (bits ^ (long) used * 0x9E3779B97F4A7C15L) * 0xC2B2AE3D27D4EB4FL;
+            return (int) (h >>> 32) & (capacity - 1);
+        }
+    }
+}
\ No newline at end of file
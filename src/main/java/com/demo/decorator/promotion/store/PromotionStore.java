@@ -0,0 +1,269 @@
+package com.demo.decorator.promotion.store;
+
+import com.demo.decorator.promotion.compiler.CompiledPromotion;
+import com.demo.decorator.promotion.compiler.PromotionCompiler;
+import com.demo.decorator.promotion.components.IPromotionStrategy;
+import com.demo.decorator.promotion.components.OriginalPrice;
+import com.demo.decorator.promotion.decorators.DirectReductionCoupon;
+import com.demo.decorator.promotion.decorators.DiscountCoupon;
+import com.demo.decorator.promotion.decorators.FullReductionCoupon;
+import com.demo.decorator.promotion.decorators.TieredFullReductionCoupon;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 促销活动存储 - 紧凑的二进制文件格式
+ *
+ * 大量促销活动（每个活动是一条优惠券装饰器链）保存在一个二进制文件中，
+ * 启动时把文件映射到内存，不需要逐个创建装饰器对象：
+ * 1. calculatePrice(活动序号, 价格) 直接解释映射内存中的指令，不创建对象
+ * 2. getStrategy(活动序号) 按需重建装饰器链，用于展示描述或交给其他组件
+ *
+ * 文件格式（大端序）：
+ * int    魔数 "PROM"
+ * int    版本号
+ * int    活动数量 n
+ * int[n+1] 每个活动的指令在数据区的起始偏移，最后一个为数据区长度
+ * 数据区：每条指令为1字节操作码（取值同 CompiledPromotion.OP_*）加参数，
+ *         折扣券、无条件减券1个double参数，满减券、每满减券2个double参数，最内层的指令在前
+ *
+ * 只能保存由原价和四种优惠券组成的链；打开后不可变，可以被多个线程共享
+ *
+ * 使用示例：
+ * PromotionStore.write(path, campaigns);
+ * PromotionStore store = PromotionStore.open(path);
+ * double finalPrice = store.calculatePrice(42, 299.0);
+ */
+public final class PromotionStore {
+    private static final int MAGIC = 0x50524F4D;    // "PROM"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int ONE_OPERAND = 9;       // 操作码 + 1个double
+    private static final int TWO_OPERANDS = 17;     // 操作码 + 2个double
+
+    private final MappedByteBuffer buffer;
+    private final int campaignCount;
+    private final int dataStart;
+
+    private PromotionStore(MappedByteBuffer buffer, int campaignCount, int dataStart) {
+        this.buffer = buffer;
+        this.campaignCount = campaignCount;
+        this.dataStart = dataStart;
+    }
+
+    /**
+     * 把促销活动写入文件，已有文件会被覆盖
+     * 先写到同一目录下的临时文件并强制落盘，再原子地替换目标文件；已经打开的 PromotionStore 继续读取旧文件的内容，不受影响
+     * 落盘在替换之前完成，断电后目标文件要么是旧内容，要么是完整的新内容，不会是替换了但数据还没写到磁盘的空文件
+     * @param path 文件路径
+     * @param campaigns 促销活动，在文件中的序号即在列表中的下标
+     * @throws IOException 如果写入文件失败
+     * @throws IllegalArgumentException 如果某个活动包含原价和四种优惠券以外的组件或装饰器
+     */
+    public static void write(Path path, List<? extends IPromotionStrategy> campaigns) throws IOException {
+        CompiledPromotion[] programs = new CompiledPromotion[campaigns.size()];
+        for (int i = 0; i < programs.length; i++) {
+            programs[i] = PromotionCompiler.compile(campaigns.get(i));
+            if (programs[i].getBase() != null) {
+                throw new IllegalArgumentException("第" + i + "个活动包含无法保存的促销策略："
+                        + programs[i].getBase().getClass().getName());
+            }
+        }
+
+        Path target = path.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            writeTo(temp, programs);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 按文件格式写出全部活动，返回前把数据和元数据强制写到磁盘
+     */
+    private static void writeTo(Path path, CompiledPromotion[] programs) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(programs.length);
+            long offset = 0;
+            out.writeInt(0);
+            for (CompiledPromotion program : programs) {
+                for (int i = 0; i < program.size(); i++) {
+                    offset += instructionSize(program.getOpcode(i));
+                }
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("促销活动数据超过2GB");
+                }
+                out.writeInt((int) offset);
+            }
+            for (CompiledPromotion program : programs) {
+                for (int i = 0; i < program.size(); i++) {
+                    byte opcode = program.getOpcode(i);
+                    out.writeByte(opcode);
+                    out.writeDouble(program.getOperand1(i));
+                    if (instructionSize(opcode) == TWO_OPERANDS) {
+                        out.writeDouble(program.getOperand2(i));
+                    }
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 打开促销活动文件，把文件映射到内存
+     * 只校验文件头和偏移表，指令在使用时才读取
+     * @param path 文件路径
+     * @return 促销活动存储
+     * @throws IOException 如果读取文件失败或文件格式不正确
+     */
+    public static PromotionStore open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("促销活动文件超过2GB：" + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("不是促销活动文件：" + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("不支持的促销活动文件版本：" + buffer.getInt(4));
+        }
+        int count = buffer.getInt(8);
+        long dataStart = HEADER_SIZE + 4L * (count + 1L);
+        if (count < 0 || dataStart > buffer.capacity()) {
+            throw new IOException("促销活动文件已损坏：活动数量 " + count);
+        }
+        int previous = 0;
+        for (int i = 0; i <= count; i++) {
+            int offset = buffer.getInt(HEADER_SIZE + 4 * i);
+            if ((i == 0 && offset != 0) || offset < previous) {
+                throw new IOException("促销活动文件已损坏：第" + i + "个偏移 " + offset);
+            }
+            previous = offset;
+        }
+        if (dataStart + previous != buffer.capacity()) {
+            throw new IOException("促销活动文件已损坏：数据区长度不符");
+        }
+        return new PromotionStore(buffer, count, (int) dataStart);
+    }
+
+    /**
+     * 获取活动数量
+     * @return 活动数量
+     */
+    public int size() {
+        return campaignCount;
+    }
+
+    /**
+     * 直接解释指令计算价格，结果与原装饰器链逐位相同
+     * @param campaign 活动序号
+     * @param originalPrice 原价
+     * @return 最终价格
+     */
+    public double calculatePrice(int campaign, double originalPrice) {
+        int position = start(campaign);
+        int end = end(campaign);
+        double price = originalPrice;
+        while (position < end) {
+            byte opcode = buffer.get(position);
+            int size = instructionSize(opcode);
+            double operand2 = size == TWO_OPERANDS ? buffer.getDouble(position + 9) : 0;
+            price = CompiledPromotion.execute(opcode, buffer.getDouble(position + 1), operand2, price);
+            position += size;
+        }
+        return price;
+    }
+
+    /**
+     * 获取活动包含的优惠券数量
+     * @param campaign 活动序号
+     * @return 优惠券数量
+     */
+    public int getCouponCount(int campaign) {
+        int position = start(campaign);
+        int end = end(campaign);
+        int count = 0;
+        while (position < end) {
+            position += instructionSize(buffer.get(position));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 重建活动的装饰器链
+     * @param campaign 活动序号
+     * @return 新建的装饰器链，最内层为原价
+     */
+    public IPromotionStrategy getStrategy(int campaign) {
+        int position = start(campaign);
+        int end = end(campaign);
+        IPromotionStrategy strategy = new OriginalPrice();
+        while (position < end) {
+            byte opcode = buffer.get(position);
+            double operand1 = buffer.getDouble(position + 1);
+            switch (opcode) {
+                case CompiledPromotion.OP_DISCOUNT:
+                    strategy = new DiscountCoupon(strategy, operand1);
+                    break;
+                case CompiledPromotion.OP_FULL_REDUCTION:
+                    strategy = new FullReductionCoupon(strategy, operand1, buffer.getDouble(position + 9));
+                    break;
+                case CompiledPromotion.OP_TIERED:
+                    strategy = new TieredFullReductionCoupon(strategy, operand1, buffer.getDouble(position + 9));
+                    break;
+                default:
+                    strategy = new DirectReductionCoupon(strategy, operand1);
+                    break;
+            }
+            position += instructionSize(opcode);
+        }
+        return strategy;
+    }
+
+    private int start(int campaign) {
+        if (campaign < 0 || campaign >= campaignCount) {
+            throw new IndexOutOfBoundsException("活动序号超出范围：" + campaign + "，活动数量：" + campaignCount);
+        }
+        return dataStart + buffer.getInt(HEADER_SIZE + 4 * campaign);
+    }
+
+    private int end(int campaign) {
+        return dataStart + buffer.getInt(HEADER_SIZE + 4 * (campaign + 1));
+    }
+
+    /**
+     * 指令的字节数：操作码1字节，加上1个或2个double参数
+     */
+    private static int instructionSize(byte opcode) {
+        switch (opcode) {
+            case CompiledPromotion.OP_DISCOUNT:
+            case CompiledPromotion.OP_DIRECT:
+                return ONE_OPERAND;
+            case CompiledPromotion.OP_FULL_REDUCTION:
+            case CompiledPromotion.OP_TIERED:
+                return TWO_OPERANDS;
+            default:
+                throw new IllegalStateException("促销活动文件已损坏：未知的操作码 " + opcode);
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.demo.observer;
 
 import com.demo.observer.concretes.Product;
+import com.demo.observer.dispatch.AsyncNotificationDispatcher;
 import com.demo.observer.interfaces.IMember;
 import com.demo.observer.observers.Member;
 
@@ -29,5 +30,14 @@ public class OnlineStore {
 
         // 商品涨价，通知剩余关注会员
         phone.setPrice(6699.00);
+
+        // 使用异步通知分发器，调价后立即返回，由工作线程通知关注会员，来不及通知的连续调价会被合并
+        System.out.println("\n--- 使用异步通知分发器，商品连续调价两次 ---");
+        AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(1, 1024);
+        phone.setDispatcher(dispatcher);
+        phone.setPrice(6599.00);
+        phone.setPrice(6399.00);
+        dispatcher.close();
+        System.out.println("\n通知统计：" + dispatcher.getMetrics());
     }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.demo.observer.benchmark;
+
+import com.demo.observer.broker.PriceAlertBroker;
+import com.demo.observer.concretes.Product;
+import com.demo.observer.interfaces.IMember;
+
+// 降价提醒消息中心基准测试
+// 64个商品，每个商品2000个订阅会员，会员的 update 做少量计算模拟生成提醒消息
+// 1. 吞吐量：对随机商品发布价格变化，比较调用线程直接同步通知和不同分片数的消息中心，统计每秒送达的通知数
+// 2. 背压：队列容量很小时统计发布方因队列已满而等待的次数
+// 每次测试后检查每个会员收到的通知次数等于其商品的价格变化次数
+public class BrokerBenchmark {
+    private static final int PRODUCTS = 64;
+    private static final int FOLLOWERS = 2_000;
+    private static final int PUBLISHES = 2_000;
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int SMALL_QUEUE_CAPACITY = 4;
+    private static final int WORK = 20;   // 每次 update 的计算量
+
+    private static long blackhole;
+
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("=== 降价提醒消息中心基准测试（CPU核数 " + cores + "） ===");
+        Product[] products = new Product[PRODUCTS];
+        AlertMember[][] members = new AlertMember[PRODUCTS][FOLLOWERS];
+        for (int p = 0; p < PRODUCTS; p++) {
+            products[p] = new Product("商品" + p, 100 + p);
+            for (int i = 0; i < FOLLOWERS; i++) {
+                members[p][i] = new AlertMember();
+            }
+        }
+        int[] sequence = new int[PUBLISHES];
+        long seed = 42;
+        for (int i = 0; i < PUBLISHES; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            sequence[i] = (int) ((seed >>> 33) % PRODUCTS);
+        }
+        long deliveries = (long) PUBLISHES * FOLLOWERS;
+
+        System.out.println("--- 吞吐量：发布 " + PUBLISHES + " 次，共 " + deliveries + " 次通知 ---");
+        int[] shardCounts = cores >= 4 ? new int[]{1, 2, 4, cores} : new int[]{1, 2, 4};
+        for (int round = 0; round < 2; round++) {
+            // 第一轮作为预热
+            boolean report = round == 1;
+            resetCounts(members);
+            for (int p = 0; p < PRODUCTS; p++) {
+                products[p].setDispatcher(null);
+                for (AlertMember member : members[p]) {
+                    products[p].attach(member);
+                }
+            }
+            long start = System.nanoTime();
+            for (int p : sequence) {
+                products[p].notifyObservers();
+            }
+            long nanos = System.nanoTime() - start;
+            for (int p = 0; p < PRODUCTS; p++) {
+                for (AlertMember member : members[p]) {
+                    products[p].detach(member);
+                }
+            }
+            if (report) {
+                print("直接同步通知", nanos, deliveries, verify(members, sequence), -1);
+            }
+
+            for (int shardCount : shardCounts) {
+                resetCounts(members);
+                try (PriceAlertBroker broker = new PriceAlertBroker(shardCount, QUEUE_CAPACITY)) {
+                    for (int p = 0; p < PRODUCTS; p++) {
+                        products[p].setDispatcher(broker);
+                        for (AlertMember member : members[p]) {
+                            broker.subscribe(products[p], member);
+                        }
+                    }
+                    broker.flush();
+                    start = System.nanoTime();
+                    for (int p : sequence) {
+                        products[p].notifyObservers();
+                    }
+                    broker.flush();
+                    nanos = System.nanoTime() - start;
+                    if (report) {
+                        print("消息中心 " + shardCount + " 分片", nanos, deliveries, verify(members, sequence),
+                                broker.getBlockedSubmits());
+                    }
+                }
+            }
+        }
+
+        System.out.println("--- 背压：队列容量 " + SMALL_QUEUE_CAPACITY + " ---");
+        resetCounts(members);
+        try (PriceAlertBroker broker = new PriceAlertBroker(2, SMALL_QUEUE_CAPACITY)) {
+            for (int p = 0; p < PRODUCTS; p++) {
+                products[p].setDispatcher(broker);
+                for (AlertMember member : members[p]) {
+                    broker.subscribe(products[p], member);
+                }
+            }
+            long subscribeBlocked = broker.getBlockedSubmits();
+            long start = System.nanoTime();
+            for (int p : sequence) {
+                products[p].notifyObservers();
+            }
+            broker.flush();
+            long nanos = System.nanoTime() - start;
+            print("消息中心 2 分片", nanos, deliveries, verify(members, sequence),
+                    broker.getBlockedSubmits() - subscribeBlocked);
+            System.out.printf("  订阅 %d 次时等待 %d 次；每个分片最多积压 %d 个事件%n",
+                    PRODUCTS * FOLLOWERS, subscribeBlocked, SMALL_QUEUE_CAPACITY);
+        }
+        for (Product product : products) {
+            product.setDispatcher(null);
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void print(String label, long nanos, long deliveries, boolean ok, long blocked) {
+        System.out.printf("  %-16s %8.1f ms %10.1f 万次通知/秒%s %s%n", label, nanos / 1e6,
+                deliveries / (nanos / 1e9) / 1e4, blocked < 0 ? "" : "，发布等待 " + blocked + " 次", ok ? "✅" : "❌");
+    }
+
+    private static void resetCounts(AlertMember[][] members) {
+        for (AlertMember[] productMembers : members) {
+            for (AlertMember member : productMembers) {
+                member.received = 0;
+            }
+        }
+    }
+
+    private static boolean verify(AlertMember[][] members, int[] sequence) {
+        int[] expected = new int[members.length];
+        for (int p : sequence) {
+            expected[p]++;
+        }
+        long sum = 0;
+        for (int p = 0; p < members.length; p++) {
+            for (AlertMember member : members[p]) {
+                if (member.received != expected[p]) {
+                    return false;
+                }
+                sum += member.checksum;
+            }
+        }
+        blackhole += sum;
+        return true;
+    }
+
+    // 收到通知后做少量计算的会员，计数只由商品所在分片的线程修改
+    private static class AlertMember implements IMember {
+        private int received;
+        private long checksum;
+
+        @Override
+        public void update(Product product) {
+            long x = Double.doubleToLongBits(product.getPrice()) + received;
+            for (int i = 0; i < WORK; i++) {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+            checksum += x;
+            received++;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.demo.observer.benchmark;
+
+import com.demo.observer.concretes.Product;
+import com.demo.observer.dispatch.AsyncNotificationDispatcher;
+import com.demo.observer.interfaces.IMember;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// 价格通知分发基准测试
+// 1. 单次调价：50万关注会员，比较同步通知和异步分发时 setPrice 调用线程的耗时，以及全部会员收到通知的耗时
+// 2. 连续调价：2万关注会员的商品连续调价1000次，比较同步逐次通知和异步合并通知的总耗时
+// 每次测试后检查每个会员最后读到的都是最终价格
+// setPrice 会打印系统消息，测试期间把标准输出重定向到空输出
+public class NotificationDispatchBenchmark {
+    private static final int FOLLOWERS = 500_000;
+    private static final int RAPID_FOLLOWERS = 20_000;
+    private static final int RAPID_CHANGES = 1_000;
+    private static final int BATCH_SIZE = 1024;
+    private static final int ROUNDS = 5;
+
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws InterruptedException {
+        int workers = Runtime.getRuntime().availableProcessors();
+        CONSOLE.println("=== 价格通知分发基准测试（工作线程 " + workers + "，批次 " + BATCH_SIZE + "） ===");
+
+        CONSOLE.println("--- 单次调价，关注会员 " + FOLLOWERS + " ---");
+        PriceMember[] members = createMembers(FOLLOWERS);
+        Product product = createProduct(members);
+        for (int round = 0; round < ROUNDS; round++) {
+            double price = 1000 + round;
+            System.setOut(DISCARD);
+            long start = System.nanoTime();
+            product.setPrice(price);
+            long syncNanos = System.nanoTime() - start;
+            System.setOut(CONSOLE);
+            boolean syncOk = allSaw(members, price);
+
+            price += 0.5;
+            try (AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(workers, BATCH_SIZE)) {
+                product.setDispatcher(dispatcher);
+                System.setOut(DISCARD);
+                start = System.nanoTime();
+                product.setPrice(price);
+                long callerNanos = System.nanoTime() - start;
+                dispatcher.awaitIdle(1, TimeUnit.MINUTES);
+                long deliveredNanos = System.nanoTime() - start;
+                System.setOut(CONSOLE);
+                product.setDispatcher(null);
+                System.out.printf("  同步：调用方 %8.2f ms %s | 异步：调用方 %8.3f ms，全部送达 %8.2f ms %s%n",
+                        syncNanos / 1e6, mark(syncOk), callerNanos / 1e6, deliveredNanos / 1e6,
+                        mark(allSaw(members, price)));
+                if (round == ROUNDS - 1) {
+                    System.out.println("  " + dispatcher.getMetrics());
+                }
+            }
+        }
+
+        CONSOLE.println("--- 连续调价 " + RAPID_CHANGES + " 次，关注会员 " + RAPID_FOLLOWERS + " ---");
+        PriceMember[] rapidMembers = createMembers(RAPID_FOLLOWERS);
+        Product rapidProduct = createProduct(rapidMembers);
+        for (int round = 0; round < ROUNDS; round++) {
+            double finalPrice = 0;
+            System.setOut(DISCARD);
+            long start = System.nanoTime();
+            for (int i = 0; i < RAPID_CHANGES; i++) {
+                finalPrice = 2000 + round + i / 1000.0;
+                rapidProduct.setPrice(finalPrice);
+            }
+            long syncNanos = System.nanoTime() - start;
+            System.setOut(CONSOLE);
+            boolean syncOk = allSaw(rapidMembers, finalPrice);
+
+            try (AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(workers, BATCH_SIZE)) {
+                rapidProduct.setDispatcher(dispatcher);
+                System.setOut(DISCARD);
+                start = System.nanoTime();
+                for (int i = 0; i < RAPID_CHANGES; i++) {
+                    finalPrice = 3000 + round + i / 1000.0;
+                    rapidProduct.setPrice(finalPrice);
+                }
+                long callerNanos = System.nanoTime() - start;
+                dispatcher.awaitIdle(1, TimeUnit.MINUTES);
+                long deliveredNanos = System.nanoTime() - start;
+                System.setOut(CONSOLE);
+                rapidProduct.setDispatcher(null);
+                System.out.printf("  同步：%8.2f ms %s | 异步：调用方 %7.2f ms，全部送达 %7.2f ms，通知 %d 轮 %s%n",
+                        syncNanos / 1e6, mark(syncOk), callerNanos / 1e6, deliveredNanos / 1e6,
+                        dispatcher.getMetrics().getFanOuts(), mark(allSaw(rapidMembers, finalPrice)));
+                if (round == ROUNDS - 1) {
+                    System.out.println("  " + dispatcher.getMetrics());
+                }
+            }
+        }
+    }
+
+    private static PriceMember[] createMembers(int count) {
+        PriceMember[] members = new PriceMember[count];
+        for (int i = 0; i < count; i++) {
+            members[i] = new PriceMember();
+        }
+        return members;
+    }
+
+    private static Product createProduct(PriceMember[] members) {
+        Product product = new Product("基准测试商品", 999);
+        for (PriceMember member : members) {
+            product.attach(member);
+        }
+        return product;
+    }
+
+    private static boolean allSaw(PriceMember[] members, double price) {
+        for (PriceMember member : members) {
+            if (member.lastPrice != price) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String mark(boolean ok) {
+        return ok ? "✅" : "❌";
+    }
+
+    // 只记录最后收到的价格的轻量会员
+    private static class PriceMember implements IMember {
+        private volatile double lastPrice;
+
+        @Override
+        public void update(Product product) {
+            lastPrice = product.getPrice();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.demo.observer.benchmark;
+
+import com.demo.observer.concretes.Product;
+import com.demo.observer.interfaces.IMember;
+import com.demo.observer.subscription.SubscriptionStore;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 关注会员存储基准测试
+// 1. 关注：比较原来的 ArrayList（先 contains 再 add）和 SubscriptionStore 逐个关注的耗时，SubscriptionStore 一直测到100万
+// 2. 取消关注：随机取消一半会员
+// 3. 通知遍历：比较 ArrayList 直接遍历、复制快照后遍历和 SubscriptionStore 遍历，统计耗时和分配字节数
+// 4. 并发：一个线程反复通知100万会员，另一个线程同时不断关注和取消关注，检查没有异常且一直关注的会员每次恰好收到一次通知
+public class SubscriptionBenchmark {
+    private static final int[] LIST_SIZES = {10_000, 30_000, 100_000};
+    private static final int[] STORE_SIZES = {10_000, 30_000, 100_000, 1_000_000};
+    private static final int MEMBERS = 1_000_000;
+    private static final int NOTIFY_ROUNDS = 20;
+    private static final int CONCURRENT_PASSES = 20;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long blackhole;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== 关注会员存储基准测试 ===");
+        CountingMember[] members = new CountingMember[MEMBERS];
+        for (int i = 0; i < MEMBERS; i++) {
+            members[i] = new CountingMember();
+        }
+
+        System.out.println("--- 关注 ---");
+        for (int n : LIST_SIZES) {
+            long start = System.nanoTime();
+            List<IMember> list = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (!list.contains(members[i])) {
+                    list.add(members[i]);
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            blackhole += list.size();
+            System.out.printf("  ArrayList        %,9d 人 %10.2f ms %9.1f ns/次%n", n, nanos / 1e6, (double) nanos / n);
+        }
+        SubscriptionStore store = null;
+        for (int round = 0; round < 3; round++) {
+            // 前两轮作为预热
+            for (int n : STORE_SIZES) {
+                long start = System.nanoTime();
+                store = new SubscriptionStore();
+                for (int i = 0; i < n; i++) {
+                    store.add(members[i]);
+                }
+                long nanos = System.nanoTime() - start;
+                if (round == 2) {
+                    System.out.printf("  SubscriptionStore %,8d 人 %10.2f ms %9.1f ns/次%n",
+                            n, nanos / 1e6, (double) nanos / n);
+                }
+            }
+        }
+        boolean deduplicated = true;
+        for (int i = 0; i < MEMBERS; i += 7) {
+            deduplicated &= !store.add(members[i]);
+        }
+        System.out.println("  " + mark(deduplicated && store.size() == MEMBERS) + " 重复关注被忽略，会员数 " + store.size());
+
+        System.out.println("--- 取消关注一半（随机顺序） ---");
+        int[] order = shuffledIndexes(MEMBERS, new Random(42));
+        long start = System.nanoTime();
+        for (int i = 0; i < MEMBERS / 2; i++) {
+            store.remove(members[order[i]]);
+        }
+        long removeNanos = System.nanoTime() - start;
+        System.out.printf("  SubscriptionStore %,8d 次 %10.2f ms %9.1f ns/次%n",
+                MEMBERS / 2, removeNanos / 1e6, (double) removeNanos / (MEMBERS / 2));
+        List<IMember> list = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(members[i]);
+        }
+        int[] listOrder = shuffledIndexes(100_000, new Random(42));
+        start = System.nanoTime();
+        for (int i = 0; i < 50_000; i++) {
+            list.remove(members[listOrder[i]]);
+        }
+        long listRemoveNanos = System.nanoTime() - start;
+        System.out.printf("  ArrayList        %,9d 次 %10.2f ms %9.1f ns/次（10万人中取消）%n",
+                50_000, listRemoveNanos / 1e6, listRemoveNanos / 50_000.0);
+        for (int i = 0; i < MEMBERS / 2; i++) {
+            store.add(members[order[i]]);
+        }
+        System.out.println("  " + mark(store.size() == MEMBERS && store.slotLimit() == MEMBERS)
+                + " 重新关注后复用空槽位，槽位上界 " + store.slotLimit());
+
+        System.out.println("--- 通知遍历 " + MEMBERS + " 人 ---");
+        List<IMember> fullList = new ArrayList<>(MEMBERS);
+        for (CountingMember member : members) {
+            fullList.add(member);
+        }
+        // 取消再重新关注后槽位顺序被打乱，遍历时按随机顺序访问会员对象，这里与 ArrayList 一样按创建顺序关注
+        SubscriptionStore fullStore = new SubscriptionStore();
+        for (CountingMember member : members) {
+            fullStore.add(member);
+        }
+        SubscriptionStore shuffledStore = store;
+        measureNotify("ArrayList 直接遍历", () -> {
+            for (IMember member : fullList) {
+                member.update(null);
+            }
+        });
+        measureNotify("ArrayList 复制快照后遍历", () -> {
+            for (IMember member : fullList.toArray(new IMember[0])) {
+                member.update(null);
+            }
+        });
+        measureNotify("SubscriptionStore 遍历", () -> fullStore.forEach(member -> member.update(null)));
+        measureNotify("SubscriptionStore 遍历（顺序打乱）", () -> shuffledStore.forEach(member -> member.update(null)));
+
+        System.out.println("--- 通知期间并发关注和取消关注 ---");
+        Product product = new Product("基准测试商品", 999);
+        for (CountingMember member : members) {
+            member.count = 0;
+            product.attach(member);
+        }
+        CountingMember[] churn = new CountingMember[10_000];
+        for (int i = 0; i < churn.length; i++) {
+            churn[i] = new CountingMember();
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] churnOperations = {0};
+        Thread churner = new Thread(() -> {
+            Random random = new Random(7);
+            while (running.get()) {
+                CountingMember member = churn[random.nextInt(churn.length)];
+                if (random.nextBoolean()) {
+                    product.attach(member);
+                } else {
+                    product.detach(member);
+                }
+                churnOperations[0]++;
+            }
+        }, "subscription-churn");
+        churner.start();
+        boolean failed = false;
+        start = System.nanoTime();
+        try {
+            for (int pass = 0; pass < CONCURRENT_PASSES; pass++) {
+                product.notifyObservers();
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            System.out.println("  通知时抛出异常：" + e);
+        }
+        long concurrentNanos = System.nanoTime() - start;
+        running.set(false);
+        churner.join();
+        boolean exact = !failed;
+        for (CountingMember member : members) {
+            exact &= member.count == CONCURRENT_PASSES;
+        }
+        System.out.printf("  %s 通知 %d 轮共 %.2f ms，同时关注/取消关注 %,d 次，一直关注的会员每轮恰好收到一次通知%n",
+                mark(exact), CONCURRENT_PASSES, concurrentNanos / 1e6, churnOperations[0]);
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void measureNotify(String label, Runnable notifyAll) {
+        for (int i = 0; i < NOTIFY_ROUNDS; i++) {
+            notifyAll.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < NOTIFY_ROUNDS; i++) {
+            notifyAll.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("  %-28s %8.2f ms/次 %12.0f 字节/次%n", label,
+                nanos / 1e6 / NOTIFY_ROUNDS, (double) allocated / NOTIFY_ROUNDS);
+    }
+
+    private static int[] shuffledIndexes(int n, Random random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static String mark(boolean ok) {
+        return ok ? "✅" : "❌";
+    }
+
+    // 只统计收到通知次数的轻量会员
+    private static class CountingMember implements IMember {
+        private int count;
+
+        @Override
+        public void update(Product product) {
+            count++;
+            blackhole++;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,357 @@
+package com.demo.observer.broker;
+
+import com.demo.observer.concretes.Product;
+import com.demo.observer.interfaces.IMember;
+import com.demo.observer.interfaces.INotificationDispatcher;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 进程内的降价提醒消息中心
+// 会员不再直接关注商品对象，而是向消息中心订阅；商品按哈希分到N个分片：
+// 1. 每个分片有自己的事件循环线程，是该分片订阅关系的唯一写入者，订阅表不需要加锁
+// 2. 订阅、取消订阅和价格变化都作为事件放进分片的有界队列，队列满时调用线程阻塞等待（背压），内存占用有上限
+// 3. 价格变化事件由分片线程逐个调用订阅会员的 update，不同分片的商品可以在多个核上同时通知
+// 同一商品的事件在同一个分片中按提交顺序处理；每次价格变化都会通知，不合并
+// 某个会员的 update 抛出异常时只记为失败；抛出 Error 时本事件剩下的会员不再通知，Error 交给分片线程的
+// 未捕获异常处理器（默认打印），分片线程继续处理后续事件，屏障照常完成，提交方不会因队列不再被消费而永远阻塞
+// 分片线程（即会员的 update 中）提交的事件不进入有界队列，分片线程从不阻塞等待队列空间，避免分片之间互相等待：
+// 提交给本分片的事件排在当前事件之后处理；提交给其他分片的事件放进目标分片不限长度的转交队列，
+// 这部分事件不受背压限制，会员在 update 中大量发布时转交队列可能持续增长
+// 关闭后提交事件或调用 flush 会抛出 IllegalStateException；关闭过程中分片线程转交给已停止分片的事件同样被拒绝
+// flush 和 close 不能在会员的 update 中调用
+// 商品通过 setDispatcher(broker) 接入后，价格变化由消息中心通知订阅的会员，商品自己的关注列表不再被通知
+public class PriceAlertBroker implements INotificationDispatcher, AutoCloseable {
+    private static final int SUBSCRIBE = 0;
+    private static final int UNSUBSCRIBE = 1;
+    private static final int PUBLISH = 2;
+    private static final int BARRIER = 3;
+    private static final int STOP = 4;
+    private static final int WAKE = 5;
+    private static final Event WAKE_EVENT = new Event(WAKE, null, null);  // 唤醒分片处理转交队列
+
+    private final Shard[] shards;
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();  // 外部线程提交时持读锁，关闭时持写锁
+    private volatile boolean closed;
+
+    // 统计指标
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blockedSubmits = new LongAdder();   // 因队列已满而等待的提交次数
+    private final LongAdder handedOff = new LongAdder();        // 分片线程转交给其他分片的事件数
+
+    public PriceAlertBroker(int shardCount, int queueCapacity) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("分片数必须大于0：" + shardCount);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("队列容量必须大于0：" + queueCapacity);
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    public void subscribe(Product product, IMember member) {
+        // 会员订阅商品的价格变化，重复订阅会被忽略
+        submit(new Event(SUBSCRIBE, Objects.requireNonNull(product, "product"), Objects.requireNonNull(member, "member")));
+    }
+
+    public void unsubscribe(Product product, IMember member) {
+        // 会员取消订阅
+        submit(new Event(UNSUBSCRIBE, Objects.requireNonNull(product, "product"), Objects.requireNonNull(member, "member")));
+    }
+
+    @Override
+    public void dispatch(Product product) {
+        // 商品价格变化，通知订阅的会员；队列已满时等待
+        submit(new Event(PUBLISH, Objects.requireNonNull(product, "product"), null));
+        published.increment();
+    }
+
+    public void flush() throws InterruptedException {
+        // 等待在此之前提交的所有事件处理完成，包括处理这些事件时分片之间转交的事件
+        // 分片处理屏障前先处理完已转交给它的事件；一轮屏障期间又有新的转交时再来一轮，
+        // 因此会员在 update 中无休止地互相转发事件时 flush 不会返回
+        if (currentShard() != null) {
+            throw new IllegalStateException("不能在分片线程中调用 flush");
+        }
+        long handOffs;
+        do {
+            handOffs = handedOff.sum();
+            CountDownLatch latch = new CountDownLatch(shards.length);
+            lifecycle.readLock().lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("消息中心已关闭");
+                }
+                for (Shard shard : shards) {
+                    Event barrier = new Event(BARRIER, null, null);
+                    barrier.latch = latch;
+                    shard.put(barrier);
+                }
+            } finally {
+                lifecycle.readLock().unlock();
+            }
+            latch.await();
+        } while (handedOff.sum() != handOffs);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(Product product) {
+        // 商品所在的分片
+        int h = product.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getBlockedSubmits() {
+        return blockedSubmits.sum();
+    }
+
+    public long getHandedOff() {
+        return handedOff.sum();
+    }
+
+    private Shard currentShard() {
+        Thread thread = Thread.currentThread();
+        for (Shard shard : shards) {
+            if (shard.thread == thread) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    private void submit(Event event) {
+        Shard target = shards[shardOf(event.product)];
+        Shard current = currentShard();
+        if (current == target) {
+            // 本分片在处理完已提交的本地事件之前不会停止，不需要检查是否关闭
+            target.local.add(event);
+            return;
+        }
+        if (current != null) {
+            target.handOff(event);
+            return;
+        }
+        // 外部线程持读锁提交，关闭时的写锁保证不会有事件排在停止事件之后
+        lifecycle.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("消息中心已关闭");
+            }
+            target.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待分片队列空间时被中断", e);
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        // 不再接受新事件，处理完已提交的事件后停止分片线程
+        if (currentShard() != null) {
+            throw new IllegalStateException("不能在分片线程中关闭消息中心");
+        }
+        boolean first;
+        lifecycle.writeLock().lock();
+        try {
+            first = !closed;
+            closed = true;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        boolean interrupted = false;
+        if (first) {
+            // 写锁释放后不会再有外部线程提交，停止事件一定排在所有已接受的事件之后
+            for (Shard shard : shards) {
+                while (true) {
+                    try {
+                        shard.put(new Event(STOP, null, null));
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        }
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Event {
+        final int type;
+        final Product product;
+        final IMember member;
+        CountDownLatch latch;   // 屏障事件完成时计数
+
+        Event(int type, Product product, IMember member) {
+            this.type = type;
+            this.product = product;
+            this.member = member;
+        }
+    }
+
+    private final class Shard implements Runnable {
+        private final BlockingQueue<Event> queue;
+        private final ArrayDeque<Event> local = new ArrayDeque<>();   // 分片线程自己提交的事件
+        private final ConcurrentLinkedQueue<Event> overflow = new ConcurrentLinkedQueue<>();  // 其他分片线程转交的事件
+        private boolean stopped;  // 已开始停止，不再接受转交，由 overflow 加锁保护
+        private final Map<Product, Set<IMember>> subscriptions = new HashMap<>();  // 只由分片线程读写
+        private final Thread thread;
+
+        Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "price-alert-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void put(Event event) throws InterruptedException {
+            if (!queue.offer(event)) {
+                blockedSubmits.increment();
+                queue.put(event);
+            }
+        }
+
+        void handOff(Event event) {
+            // 由其他分片线程调用，不阻塞
+            synchronized (overflow) {
+                if (stopped) {
+                    throw new IllegalStateException("消息中心已关闭");
+                }
+                overflow.add(event);
+            }
+            handedOff.increment();
+            // 队列已满时分片正忙，处理完每个事件后都会检查转交队列，不需要唤醒
+            queue.offer(WAKE_EVENT);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Event event = queue.take();
+                    if (event.type == STOP) {
+                        // 停止接受转交后处理完剩下的事件，之后不会再有事件进入本分片
+                        synchronized (overflow) {
+                            stopped = true;
+                        }
+                        drain();
+                        return;
+                    }
+                    process(event);
+                    drain();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Event next = local.poll();
+                if (next == null) {
+                    next = overflow.poll();
+                }
+                if (next == null) {
+                    return;
+                }
+                process(next);
+            }
+        }
+
+        private void process(Event event) {
+            try {
+                handle(event);
+            } catch (Throwable e) {
+                // 会员的 update 抛出了 Error：放弃本事件，分片线程继续运行
+                failures.increment();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+
+        private void handle(Event event) {
+            switch (event.type) {
+                case SUBSCRIBE:
+                    subscriptions.computeIfAbsent(event.product, p -> new LinkedHashSet<>()).add(event.member);
+                    break;
+                case UNSUBSCRIBE:
+                    Set<IMember> members = subscriptions.get(event.product);
+                    if (members != null && members.remove(event.member) && members.isEmpty()) {
+                        subscriptions.remove(event.product);
+                    }
+                    break;
+                case PUBLISH:
+                    deliver(event.product);
+                    break;
+                case WAKE:
+                    break;
+                default:
+                    // 屏障：先处理完已转交给本分片的事件
+                    drain();
+                    event.latch.countDown();
+                    break;
+            }
+        }
+
+        private void deliver(Product product) {
+            Set<IMember> members = subscriptions.get(product);
+            if (members == null) {
+                return;
+            }
+            // 会员在 update 中的订阅变化排在本事件之后处理，遍历期间集合不会被修改
+            for (IMember member : members) {
+                try {
+                    member.update(product);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                }
+            }
+            delivered.add(members.size());
+        }
+    }
+}
\ No newline at end of file
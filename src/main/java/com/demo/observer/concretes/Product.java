@@ -1,17 +1,19 @@
 package com.demo.observer.concretes;
 
 import com.demo.observer.interfaces.IMember;
+import com.demo.observer.interfaces.INotificationDispatcher;
 import com.demo.observer.interfaces.IProduct;
+import com.demo.observer.subscription.SubscriptionStore;
 import lombok.Getter;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Getter
 public class Product implements IProduct {
-    private List<IMember> members = new ArrayList<>(); // 关注该商品的会员列表
+    private final SubscriptionStore subscriptions = new SubscriptionStore(); // 关注该商品的会员，分发器按槽位区间分批遍历
     private String name;  // 商品名称
-    private double price; // 商品价格
+    private volatile double price; // 商品价格，分发器的工作线程会读取
+    private volatile INotificationDispatcher dispatcher; // 通知分发器，为null时在调用线程上同步通知
 
     public Product(String name, double price) {
         this.name = name;
@@ -25,25 +27,42 @@ public class Product implements IProduct {
         this.notifyObservers();
     }
 
+    public void setDispatcher(INotificationDispatcher dispatcher) {
+        // 设置通知分发器，之后的价格变化交给分发器异步通知
+        this.dispatcher = dispatcher;
+    }
+
     @Override
     public void attach(IMember member) {
-        // 添加关注商品的会员
-        if (!members.contains(member)) {
-            members.add(member);
-        }
+        // 添加关注商品的会员，重复关注会被忽略
+        subscriptions.add(member);
     }
 
     @Override
     public void detach(IMember member) {
         // 移除关注商品的会员
-        members.remove(member);
+        subscriptions.remove(member);
+    }
+
+    public List<IMember> getMembers() {
+        // 当前关注会员的只读列表（快照），关注和取消关注请使用 attach/detach
+        return List.of(subscriptions.toArray());
+    }
+
+    public IMember[] getMemberSnapshot() {
+        // 当前关注会员的快照，通知过程中会员关注或取消关注不影响快照
+        return subscriptions.toArray();
     }
 
     @Override
     public void notifyObservers() {
-        // 通知所有关注该商品的会员
-        for (IMember member : members) {
-            member.update(this);
+        INotificationDispatcher current = dispatcher;
+        if (current != null) {
+            // 交给分发器，调用线程立即返回
+            current.dispatch(this);
+            return;
         }
+        // 通知所有关注该商品的会员，遍历时不复制会员列表
+        subscriptions.forEach(member -> member.update(this));
     }
 }
\ No newline at end of file
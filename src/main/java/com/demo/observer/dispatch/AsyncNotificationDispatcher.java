@@ -0,0 +1,297 @@
+package com.demo.observer.dispatch;
+
+import com.demo.observer.concretes.Product;
+import com.demo.observer.interfaces.INotificationDispatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 异步批量通知分发器
+// 商品价格变化时调用线程只登记一次变化就返回，由工作线程把关注会员分成若干批逐批通知：
+// 1. 合并：同一商品上一次变化还没开始通知时，新的变化直接合并（会员收到通知时读到的是最新价格）；
+//    正在通知时发生的变化，等这一轮通知完成后再开始下一轮，同一商品同时最多只有一轮通知
+// 2. 分批：每轮通知按开始时会员存储的槽位上界，每 batchSize 个槽位切成一批交给工作线程并行通知，
+//    各批直接遍历存储中的槽位区间，不复制会员列表
+// 3. 延迟统计：每批通知完成时，记录从本轮第一次价格变化到这批会员收到通知的时间
+// 某个会员的 update 抛出异常时只记为失败，不影响其他会员
+// 商品没有待通知的变化时，其状态从状态表中移除，分发器不会一直持有通知过的商品
+public class AsyncNotificationDispatcher implements INotificationDispatcher, AutoCloseable {
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final Map<Product, ProductState> states = new ConcurrentHashMap<>();
+    private final AtomicLong outstandingTasks = new AtomicLong(); // 已提交未完成的任务数
+    private final Object idleLock = new Object();
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();  // 登记变化时持读锁，关闭时持写锁
+    private volatile boolean closed;
+
+    // 统计指标
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder fanOuts = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lagTotalNanos = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final AtomicLongArray lagHistogram = new AtomicLongArray(64); // 第i格统计 [2^i, 2^(i+1)) 纳秒的延迟
+
+    public AsyncNotificationDispatcher(int workerThreads, int batchSize) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("工作线程数必须大于0：" + workerThreads);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0：" + batchSize);
+        }
+        this.batchSize = batchSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "price-notifier-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void dispatch(Product product) {
+        // 外部线程持读锁登记，关闭时的写锁保证关闭后不会再有新任务提交给线程池
+        lifecycle.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("通知分发器已关闭");
+            }
+            dispatched.increment();
+            long now = System.nanoTime();
+            while (true) {
+                ProductState state = states.computeIfAbsent(product, p -> new ProductState());
+                synchronized (state) {
+                    if (state.retired) {
+                        // 该状态刚被移除，重新取商品的当前状态
+                        continue;
+                    }
+                    if (state.pending) {
+                        // 上一次变化还没开始通知，合并到一起
+                        coalesced.increment();
+                        return;
+                    }
+                    state.pending = true;
+                    state.pendingSince = now;
+                    if (state.active) {
+                        // 正在通知，本轮完成后再开始下一轮
+                        return;
+                    }
+                    state.active = true;
+                }
+                scheduleFanOut(product, state);
+                return;
+            }
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    private void scheduleFanOut(Product product, ProductState state) {
+        try {
+            submit(() -> startFanOut(product, state));
+        } catch (RuntimeException | Error e) {
+            retire(product, state);
+            throw e;
+        }
+    }
+
+    private void startFanOut(Product product, ProductState state) {
+        long since;
+        synchronized (state) {
+            since = state.pendingSince;
+            state.pending = false;
+        }
+        int slotLimit = product.getSubscriptions().slotLimit();
+        fanOuts.increment();
+        int batchCount = (int) (((long) slotLimit + batchSize - 1) / batchSize);
+        if (batchCount == 0) {
+            finishFanOut(product, state);
+            return;
+        }
+        synchronized (state) {
+            state.remainingBatches = batchCount;
+        }
+        int submitted = 0;
+        try {
+            for (int from = 0; from < slotLimit; from += batchSize) {
+                int start = from;
+                int end = (int) Math.min(slotLimit, (long) from + batchSize);
+                submit(() -> notifyBatch(product, state, start, end, since));
+                submitted++;
+            }
+        } finally {
+            if (submitted < batchCount) {
+                // 提交失败的批次不会执行，直接记为完成
+                completeBatches(product, state, batchCount - submitted);
+            }
+        }
+    }
+
+    private void notifyBatch(Product product, ProductState state, int from, int to, long since) {
+        int[] delivered = {0};
+        try {
+            product.getSubscriptions().forEachInRange(from, to, member -> {
+                delivered[0]++;
+                try {
+                    member.update(product);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                }
+            });
+        } finally {
+            // update 抛出 Error 时本批剩下的会员不再通知，但本批仍要记为完成，否则该商品再也不会被通知
+            notifications.add(delivered[0]);
+            batches.increment();
+            recordLag(System.nanoTime() - since);
+            completeBatches(product, state, 1);
+        }
+    }
+
+    private void completeBatches(Product product, ProductState state, int count) {
+        boolean last;
+        synchronized (state) {
+            state.remainingBatches -= count;
+            last = state.remainingBatches == 0;
+        }
+        if (last) {
+            finishFanOut(product, state);
+        }
+    }
+
+    private void finishFanOut(Product product, ProductState state) {
+        synchronized (state) {
+            if (!state.pending) {
+                // 商品空闲后移除状态，分发器不再持有该商品
+                retire(product, state);
+                return;
+            }
+        }
+        // 通知期间价格又变了，开始下一轮
+        scheduleFanOut(product, state);
+    }
+
+    private void retire(Product product, ProductState state) {
+        synchronized (state) {
+            state.active = false;
+            state.pending = false;
+            state.retired = true;
+        }
+        states.remove(product, state);
+    }
+
+    private void recordLag(long lagNanos) {
+        lagTotalNanos.add(lagNanos);
+        maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        lagHistogram.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(lagNanos, 1)));
+    }
+
+    private void submit(Runnable task) {
+        outstandingTasks.incrementAndGet();
+        try {
+            workers.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    taskDone();
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            taskDone();
+            throw e;
+        }
+    }
+
+    private void taskDone() {
+        if (outstandingTasks.decrementAndGet() == 0) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        // 等待已登记的价格变化全部通知完成
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idleLock) {
+            while (outstandingTasks.get() != 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idleLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    public NotificationMetrics getMetrics() {
+        long[] histogram = new long[lagHistogram.length()];
+        long samples = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = lagHistogram.get(i);
+            samples += histogram[i];
+        }
+        return new NotificationMetrics(dispatched.sum(), coalesced.sum(), fanOuts.sum(), batches.sum(),
+                notifications.sum(), failures.sum(), samples == 0 ? 0 : lagTotalNanos.sum() / samples,
+                percentile(histogram, samples, 0.5), percentile(histogram, samples, 0.99), maxLagNanos.get());
+    }
+
+    private static long percentile(long[] histogram, long samples, double fraction) {
+        // 返回所在格的上界，是近似值
+        long rank = (long) Math.ceil(samples * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0) {
+                return i == 62 ? Long.MAX_VALUE : 1L << (i + 1);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void close() {
+        // 不再接受新的变化，等已登记的变化通知完成后停止工作线程
+        lifecycle.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        // 此后只有正在执行的任务会提交后续任务，未完成任务数归零后线程池不会再收到任务
+        try {
+            synchronized (idleLock) {
+                while (outstandingTasks.get() != 0) {
+                    idleLock.wait();
+                }
+            }
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class ProductState {
+        boolean pending;        // 是否有还没开始通知的价格变化
+        long pendingSince;      // 其中第一次变化的时间
+        boolean active;         // 是否有一轮通知已安排或正在进行
+        int remainingBatches;   // 本轮未完成的批次数
+        boolean retired;        // 已从状态表移除，不能再使用
+    }
+}
\ No newline at end of file
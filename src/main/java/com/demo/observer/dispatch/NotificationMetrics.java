@@ -0,0 +1,40 @@
+package com.demo.observer.dispatch;
+
+import lombok.Getter;
+
+@Getter
+public class NotificationMetrics {
+    private final long dispatched;       // 登记的价格变化次数
+    private final long coalesced;        // 被合并的价格变化次数
+    private final long fanOuts;          // 实际进行的通知轮数
+    private final long batches;          // 完成的批次数
+    private final long notifications;    // 调用 update 的次数
+    private final long failures;         // update 抛出异常的次数
+    private final long meanLagNanos;     // 平均通知延迟
+    private final long p50LagNanos;      // 通知延迟中位数（近似，所在2的幂区间的上界）
+    private final long p99LagNanos;      // 通知延迟99分位（近似）
+    private final long maxLagNanos;      // 最大通知延迟
+
+    public NotificationMetrics(long dispatched, long coalesced, long fanOuts, long batches, long notifications,
+                               long failures, long meanLagNanos, long p50LagNanos, long p99LagNanos,
+                               long maxLagNanos) {
+        this.dispatched = dispatched;
+        this.coalesced = coalesced;
+        this.fanOuts = fanOuts;
+        this.batches = batches;
+        this.notifications = notifications;
+        this.failures = failures;
+        this.meanLagNanos = meanLagNanos;
+        this.p50LagNanos = p50LagNanos;
+        this.p99LagNanos = p99LagNanos;
+        this.maxLagNanos = maxLagNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("价格变化 %d 次（合并 %d 次），通知 %d 轮 / %d 批 / %d 人次，失败 %d 次，"
+                        + "延迟 平均 %.2fms p50≤%.2fms p99≤%.2fms 最大 %.2fms",
+                dispatched, coalesced, fanOuts, batches, notifications, failures,
+                meanLagNanos / 1e6, p50LagNanos / 1e6, p99LagNanos / 1e6, maxLagNanos / 1e6);
+    }
+}
\ No newline at end of file
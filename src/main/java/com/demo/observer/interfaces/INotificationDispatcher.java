@@ -0,0 +1,7 @@
+package com.demo.observer.interfaces;
+
+import com.demo.observer.concretes.Product;
+
+public interface INotificationDispatcher {
+    void dispatch(Product product);  // 商品状态变化后，由分发器负责通知该商品的关注者
+}
\ No newline at end of file
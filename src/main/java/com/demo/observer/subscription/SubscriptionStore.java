@@ -0,0 +1,183 @@
+package com.demo.observer.subscription;
+
+import com.demo.observer.interfaces.IMember;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+// 商品的关注会员存储
+// 1. 关注和取消关注都是均摊O(1)：会员到槽位的哈希表负责去重和定位，取消关注只把槽位置空并放进空闲槽位栈，之后的关注优先复用；
+//    末尾的槽位空出来时收回槽位上界，遍历不会一直扫描早已取消关注的尾部
+// 2. 会员按槽位存放在固定大小的分块数组里，扩容只追加新块，已有的块不会被复制或移动
+// 3. 遍历不加锁也不复制：只读取开始遍历时已用过的槽位，跳过空槽位
+// 遍历期间其他线程关注或取消关注不会抛出异常，一直关注的会员恰好被遍历一次；
+// 期间新关注的会员可能被遍历到也可能没有，取消关注后又重新关注的会员可能被遍历两次
+public class SubscriptionStore implements Iterable<IMember> {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;   // 每块的槽位数
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(IMember[].class);
+
+    private final Map<IMember, Integer> slots = new HashMap<>();  // 会员所在的槽位，修改时加锁
+    private int[] freeSlots = new int[16];  // 空闲槽位栈，上界收回后可能残留已越界或已被重新占用的槽位，出栈时跳过
+    private int freeCount;
+    private int size;
+    private volatile IMember[][] chunks = new IMember[0][];
+    private volatile int limit;  // 用过的槽位上界，遍历只需要看到这里
+
+    public synchronized boolean add(IMember member) {
+        // 添加会员，已经存在时返回false
+        Objects.requireNonNull(member, "member");
+        if (slots.containsKey(member)) {
+            return false;
+        }
+        int slot = takeFreeSlot();
+        if (slot < 0) {
+            slot = limit;
+            if ((slot >>> CHUNK_BITS) == chunks.length) {
+                IMember[][] grown = new IMember[chunks.length + 1][];
+                System.arraycopy(chunks, 0, grown, 0, chunks.length);
+                grown[chunks.length] = new IMember[CHUNK_SIZE];
+                chunks = grown;
+            }
+        }
+        slots.put(member, slot);
+        SLOT.setRelease(chunks[slot >>> CHUNK_BITS], slot & CHUNK_MASK, member);
+        if (slot == limit) {
+            // 先写入槽位再推进上界，遍历时看到新上界就一定能看到这个会员
+            limit = slot + 1;
+        }
+        size++;
+        return true;
+    }
+
+    public synchronized boolean remove(IMember member) {
+        // 移除会员，不存在时返回false
+        Integer slot = slots.remove(member);
+        if (slot == null) {
+            return false;
+        }
+        SLOT.setRelease(chunks[slot >>> CHUNK_BITS], slot & CHUNK_MASK, null);
+        size--;
+        if (size == 0) {
+            // 全部取消关注后从头开始使用槽位，空闲槽位栈也一并清空
+            limit = 0;
+            freeCount = 0;
+            return true;
+        }
+        if (slot == limit - 1) {
+            // 收回上界，跳过末尾连续的空槽位；这些槽位留在空闲栈里的记录出栈时丢弃
+            int end = slot;
+            while (end > 0 && chunks[(end - 1) >>> CHUNK_BITS][(end - 1) & CHUNK_MASK] == null) {
+                end--;
+            }
+            limit = end;
+            return true;
+        }
+        if (freeCount == freeSlots.length) {
+            int[] grown = new int[freeSlots.length * 2];
+            System.arraycopy(freeSlots, 0, grown, 0, freeCount);
+            freeSlots = grown;
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private int takeFreeSlot() {
+        // 弹出一个仍在上界以内且确实为空的槽位，没有时返回-1（调用方持有锁）
+        while (freeCount > 0) {
+            int slot = freeSlots[--freeCount];
+            if (slot < limit && chunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK] == null) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized boolean contains(IMember member) {
+        return slots.containsKey(member);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int slotLimit() {
+        // 当前用过的槽位上界，可以按槽位区间分批遍历
+        return limit;
+    }
+
+    @Override
+    public void forEach(Consumer<? super IMember> action) {
+        forEachInRange(0, limit, action);
+    }
+
+    public void forEachInRange(int from, int to, Consumer<? super IMember> action) {
+        // 遍历槽位区间 [from, to) 中的会员，to 超过当前上界的部分被忽略
+        int end = Math.min(to, limit);
+        IMember[][] current = chunks;   // 先读上界再读分块数组，分块数组一定覆盖上界
+        for (int slot = Math.max(from, 0); slot < end; ) {
+            IMember[] chunk = current[slot >>> CHUNK_BITS];
+            int chunkEnd = Math.min(end, (slot | CHUNK_MASK) + 1);
+            for (; slot < chunkEnd; slot++) {
+                IMember member = (IMember) SLOT.getAcquire(chunk, slot & CHUNK_MASK);
+                if (member != null) {
+                    action.accept(member);
+                }
+            }
+        }
+    }
+
+    public IMember[] toArray() {
+        // 当前会员的快照
+        synchronized (this) {
+            IMember[] result = new IMember[size];
+            int[] count = {0};
+            forEach(member -> result[count[0]++] = member);
+            return result;
+        }
+    }
+
+    @Override
+    public Iterator<IMember> iterator() {
+        // 与 forEach 一样不加锁、不复制
+        int end = limit;
+        IMember[][] current = chunks;
+        return new Iterator<IMember>() {
+            private int slot;
+            private IMember next = advance();
+
+            private IMember advance() {
+                while (slot < end) {
+                    IMember member = (IMember) SLOT.getAcquire(current[slot >>> CHUNK_BITS], slot & CHUNK_MASK);
+                    slot++;
+                    if (member != null) {
+                        return member;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public IMember next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                IMember result = next;
+                next = advance();
+                return result;
+            }
+        };
+    }
+}
\ No newline at end of file
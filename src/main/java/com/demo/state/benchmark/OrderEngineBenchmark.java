@@ -0,0 +1,142 @@
+package com.demo.state.benchmark;
+
+import java.io.PrintStream;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 三种订单状态引擎的性能对比
+ *
+ * <p>对传统switch方式（{@code origin.Order}）、状态模式（{@code optimize.Order}）和
+ * 表驱动方式（{@code table.Order}）执行同样的工作负载：对预先创建好的订单查询可执行操作、
+ * 走完"支付 → 发货 → 确认收货"流程，再尝试一次非法的取消。</p>
+ *
+ * <p><strong>说明：</strong></p>
+ * <ul>
+ *   <li>每个引擎先预热再测量多轮，取最好成绩，减少JIT编译和GC的干扰</li>
+ *   <li>传统方式在每个分支里直接拼接字符串并打印、并更新时间戳，测量时输出被丢弃，但这些开销仍计入结果</li>
+ *   <li>状态模式使用默认的空事件接收器，不产生输出</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderEngineBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final int ITERATIONS = 200_000;
+
+    /**
+     * 防止JIT把测试代码当作无用代码消除
+     */
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        System.out.println("=== 订单状态引擎性能对比 ===");
+        System.out.println("每轮订单数：" + ITERATIONS + "，测量轮数：" + MEASURE_ROUNDS);
+
+        PrintStream console = System.out;
+        double originNanos;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            originNanos = measure(OrderEngineBenchmark::createOrigin, OrderEngineBenchmark::runOrigin);
+        } finally {
+            System.setOut(console);
+        }
+        double optimizeNanos = measure(OrderEngineBenchmark::createOptimize, OrderEngineBenchmark::runOptimize);
+        double tableNanos = measure(OrderEngineBenchmark::createTable, OrderEngineBenchmark::runTable);
+
+        System.out.printf("传统switch方式：%8.1f ns/订单%n", originNanos);
+        System.out.printf("状态模式：      %8.1f ns/订单%n", optimizeNanos);
+        System.out.printf("表驱动方式：    %8.1f ns/订单%n", tableNanos);
+        System.out.println("（校验和：" + blackhole + "）");
+    }
+
+    /**
+     * 预热后测量多轮，返回每个订单的最佳平均耗时
+     *
+     * <p>订单在计时之前创建并放入数组，计时部分只包含状态查询和状态转换，
+     * 同时避免JIT通过逃逸分析把整个订单对象优化掉。</p>
+     */
+    private static <T> double measure(IntFunction<T[]> creator, ToLongFunction<T[]> workload) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            blackhole += workload.applyAsLong(creator.apply(ITERATIONS));
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            T[] orders = creator.apply(ITERATIONS);
+            long start = System.nanoTime();
+            blackhole += workload.applyAsLong(orders);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / ITERATIONS;
+    }
+
+    private static com.demo.state.origin.Order[] createOrigin(int count) {
+        com.demo.state.origin.Order[] orders = new com.demo.state.origin.Order[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = new com.demo.state.origin.Order("ORD", 10.0);
+        }
+        return orders;
+    }
+
+    private static com.demo.state.optimize.Order[] createOptimize(int count) {
+        com.demo.state.optimize.Order[] orders = new com.demo.state.optimize.Order[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = new com.demo.state.optimize.Order("ORD", 10.0);
+        }
+        return orders;
+    }
+
+    private static com.demo.state.table.Order[] createTable(int count) {
+        com.demo.state.table.Order[] orders = new com.demo.state.table.Order[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = new com.demo.state.table.Order("ORD", 10.0);
+        }
+        return orders;
+    }
+
+    private static long runOrigin(com.demo.state.origin.Order[] orders) {
+        long successes = 0;
+        for (com.demo.state.origin.Order order : orders) {
+            successes += order.canPay() ? 1 : 0;
+            successes += order.pay() ? 1 : 0;
+            successes += order.canShip() ? 1 : 0;
+            successes += order.ship() ? 1 : 0;
+            successes += order.confirmDelivery() ? 1 : 0;
+            successes += order.canCancel() ? 1 : 0;
+            successes += order.cancel() ? 1 : 0;
+        }
+        return successes;
+    }
+
+    private static long runOptimize(com.demo.state.optimize.Order[] orders) {
+        long successes = 0;
+        for (com.demo.state.optimize.Order order : orders) {
+            successes += order.canPay() ? 1 : 0;
+            successes += order.pay() ? 1 : 0;
+            successes += order.canShip() ? 1 : 0;
+            successes += order.ship() ? 1 : 0;
+            successes += order.confirmDelivery() ? 1 : 0;
+            successes += order.canCancel() ? 1 : 0;
+            successes += order.cancel() ? 1 : 0;
+        }
+        return successes;
+    }
+
+    private static long runTable(com.demo.state.table.Order[] orders) {
+        long successes = 0;
+        for (com.demo.state.table.Order order : orders) {
+            successes += order.canPay() ? 1 : 0;
+            successes += order.pay() ? 1 : 0;
+            successes += order.canShip() ? 1 : 0;
+            successes += order.ship() ? 1 : 0;
+            successes += order.confirmDelivery() ? 1 : 0;
+            successes += order.canCancel() ? 1 : 0;
+            successes += order.cancel() ? 1 : 0;
+        }
+        return successes;
+    }
+}
@@ -0,0 +1,61 @@
+package com.demo.state.benchmark;
+
+import com.demo.state.origin.Order;
+import com.demo.state.origin.OrderTable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 列式订单表内存占用对比
+ *
+ * <p>分别用"{@code HashMap<String, Order>} + 每订单一个对象"和 {@link OrderTable} 保存同样数量的订单，
+ * 在两次完整GC之间测量堆内存增量，计算每个订单平均占用的字节数。</p>
+ *
+ * <p>运行时建议指定足够的堆，例如 {@code -Xmx2g}。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderTableMemoryBenchmark {
+
+    private static final int ORDER_COUNT = 2_000_000;
+
+    public static void main(String[] args) {
+        System.out.println("=== 列式订单表内存占用对比 ===");
+        System.out.println("订单数：" + ORDER_COUNT);
+
+        long before = usedHeap();
+        Map<String, Order> objects = new HashMap<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            String orderId = "ORD" + (100_000_000L + i);
+            objects.put(orderId, new Order(orderId, 99.99));
+        }
+        long objectBytes = usedHeap() - before;
+        int objectCount = objects.size();
+        objects = null;
+
+        before = usedHeap();
+        OrderTable table = new OrderTable(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            table.add(100_000_000L + i, 9_999);
+        }
+        long tableBytes = usedHeap() - before;
+
+        System.out.printf("对象方式：%6.1f 字节/订单（%d 个订单）%n", (double) objectBytes / objectCount, objectCount);
+        System.out.printf("列式订单表：%6.1f 字节/订单（%d 个订单）%n", (double) tableBytes / table.size(), table.size());
+        System.out.printf("内存节省：%.1f 倍%n", (double) objectBytes / tableBytes);
+    }
+
+    /**
+     * 多次触发GC后返回当前已用堆内存
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
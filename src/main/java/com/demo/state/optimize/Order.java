@@ -1,8 +1,15 @@
 package com.demo.state.optimize;
 
+import com.demo.state.optimize.events.NoOpOrderEventSink;
+import com.demo.state.optimize.events.OrderEventSink;
 import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
 import com.demo.state.optimize.states.PendingState;
-import lombok.Data;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 
 /**
  * 订单类 - 状态模式的上下文角色
@@ -43,6 +50,13 @@ import lombok.Data;
  *   <li><strong>运行时灵活</strong>：状态可以在运行时动态改变</li>
  * </ul>
  *
+ * <p><strong>并发设计（按订单加锁）：</strong>状态只能通过 {@link #transition(OrderAction, OrderState, OrderState)}
+ * 和 {@link #changeState(OrderState)} 修改，二者在订单对象的锁内检查并切换状态，没有公开的状态setter；
+ * 读取状态不加锁（{@code volatile} 字段）。不同订单互不阻塞，同一订单的转换串行执行，
+ * 因此事件接收器可以在新状态发布之前写入预写日志，并按状态实际变化的顺序收到通知。</p>
+ *
+ * <p>{@code equals}/{@code hashCode} 使用对象身份，不随状态变化。</p>
+ *
  * @author 软件设计与架构课程
  * @version 1.0
  * @since 1.0
@@ -50,18 +64,60 @@ import lombok.Data;
  * @see com.demo.state.optimize.states.PendingState 待支付状态
  * @see com.demo.state.optimize.states.PaidState 已支付状态
  */
-@Data
+@Getter
 public class Order {
 
+    /**
+     * 全局订单事件接收器
+     *
+     * <p>订单创建、状态转换和被拒绝的操作都会通知该接收器。默认为 {@link NoOpOrderEventSink}，
+     * 不拼接任何字符串、不输出任何内容。</p>
+     */
+    private static volatile OrderEventSink eventSink = NoOpOrderEventSink.INSTANCE;
+
+    // ==================== 订单摘要渲染用的预编码常量 ====================
+
+    private static final byte[] SUMMARY_PREFIX = "Order{id='".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AMOUNT_LABEL = "', amount=".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STATUS_LABEL = ", status=".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 各状态描述的 UTF-8 字节，下标为 {@link OrderStates#ordinalOf(OrderState)}
+     */
+    private static final byte[][] STATUS_DESCRIPTIONS;
+
+    static {
+        OrderState[] states = OrderStates.values();
+        STATUS_DESCRIPTIONS = new byte[states.length][];
+        for (int i = 0; i < states.length; i++) {
+            STATUS_DESCRIPTIONS[i] = states[i].getStateDescription().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 金额无法用整数快速换算时的标记值
+     */
+    private static final long NO_FAST_PATH = Long.MIN_VALUE;
+
+    /**
+     * 整数换算的金额上限（分），超过后 double 的精度不足以判断舍入边界
+     */
+    private static final double MAX_FAST_PATH_CENTS = 1e11;
+
+    /**
+     * 判定为"逢5"舍入边界的误差范围
+     */
+    private static final double ROUNDING_TIE_WINDOW = 1e-4;
+
     /**
      * 订单ID
      */
-    private String orderId;
+    private final String orderId;
 
     /**
      * 订单金额
      */
-    private double amount;
+    private final double amount;
 
     /**
      * 当前订单状态对象 - 状态模式的核心
@@ -74,8 +130,11 @@ public class Order {
      *   <li><strong>传统方式</strong>：OrderStatus枚举 + switch判断</li>
      *   <li><strong>状态模式</strong>：OrderState对象 + 多态调用</li>
      * </ul>
+     *
+     * <p>字段声明为 {@code volatile}，读取不加锁；只在订单对象的锁内修改，
+     * 见 {@link #transition(OrderAction, OrderState, OrderState)}。</p>
      */
-    private OrderState currentState;
+    private volatile OrderState currentState;
 
     /**
      * 构造函数
@@ -89,7 +148,8 @@ public class Order {
     public Order(String orderId, double amount) {
         this.orderId = orderId;
         this.amount = amount;
-        this.currentState = new PendingState(); // 初始状态为待支付
+        this.currentState = OrderStates.PENDING; // 初始状态为待支付（共享实例）
+        eventSink.onCreated(this);
     }
 
     /**
@@ -106,6 +166,7 @@ public class Order {
         this.orderId = orderId;
         this.amount = amount;
         this.currentState = initialState;
+        eventSink.onCreated(this);
     }
 
     // ==================== 状态转换方法 ====================
@@ -123,13 +184,80 @@ public class Order {
      *   <li>更新时间戳，记录状态变更时间</li>
      * </ul>
      *
+     * <p>此方法无条件覆盖当前状态；由具体状态类发起的转换请使用
+     * {@link #transition(OrderAction, OrderState, OrderState)}，以便在并发场景下检测冲突。
+     * 事件接收器的通知顺序与 {@code transition} 相同。</p>
+     *
      * @param newState 新的状态对象
      */
     public void changeState(OrderState newState) {
-        System.out.println("🔄 订单 " + orderId + " 状态变更：" +
-                          this.currentState.getStateDescription() + " → " +
-                          newState.getStateDescription());
-        this.currentState = newState;
+        OrderEventSink sink = eventSink;
+        synchronized (this) {
+            OrderState previousState = currentState;
+            sink.beforeTransition(this, null, previousState, newState);
+            currentState = newState;
+            sink.onTransition(this, null, previousState, newState);
+        }
+        sink.afterTransition(this);
+    }
+
+    /**
+     * 条件状态转换方法
+     *
+     * <p>仅当当前状态仍为 {@code expectedState} 时才切换到 {@code newState}。
+     * 具体状态类在执行业务操作时以自身作为期望状态调用此方法，
+     * 如果在此期间其他线程已经改变了订单状态，本次转换失败并返回 {@code false}。</p>
+     *
+     * <p><strong>并发场景示例：</strong>两个线程同时对待支付订单调用 {@code pay()} 和 {@code cancel()}，
+     * 两者都由 {@link PendingState} 处理，但订单锁内的检查只允许其中一个完成转换；
+     * 另一个线程得到 {@code false}，不会出现"已支付又被当作未支付取消"的非法转换。</p>
+     *
+     * <p><strong>事件接收器的通知顺序：</strong></p>
+     * <ol>
+     *   <li>锁内、新状态发布之前：{@link OrderEventSink#beforeTransition}，例如写入预写日志；
+     *       抛出异常时放弃本次转换，订单保持原状态，异常抛给调用方</li>
+     *   <li>锁内、新状态发布之后：{@link OrderEventSink#onTransition}，同一订单按状态实际变化的顺序通知</li>
+     *   <li>释放锁之后：{@link OrderEventSink#afterTransition}，例如等待日志落盘，不阻塞同一订单的其他转换</li>
+     * </ol>
+     *
+     * @param action 触发转换的操作
+     * @param expectedState 期望的当前状态（按对象身份比较）
+     * @param newState 新的状态对象
+     * @return 转换是否成功；竞争失败时返回false
+     */
+    public boolean transition(OrderAction action, OrderState expectedState, OrderState newState) {
+        OrderEventSink sink = eventSink;
+        synchronized (this) {
+            if (currentState != expectedState) {
+                sink.onRejected(this, action, expectedState, "状态已被并发修改");
+                return false;
+            }
+            sink.beforeTransition(this, action, expectedState, newState);
+            currentState = newState;
+            sink.onTransition(this, action, expectedState, newState);
+        }
+        sink.afterTransition(this);
+        return true;
+    }
+
+    // ==================== 事件接收器配置 ====================
+
+    /**
+     * 获取全局订单事件接收器
+     *
+     * @return 当前事件接收器
+     */
+    public static OrderEventSink getEventSink() {
+        return eventSink;
+    }
+
+    /**
+     * 设置全局订单事件接收器
+     *
+     * @param sink 新的事件接收器，传入null时恢复为 {@link NoOpOrderEventSink}
+     */
+    public static void setEventSink(OrderEventSink sink) {
+        eventSink = sink != null ? sink : NoOpOrderEventSink.INSTANCE;
     }
 
     // ==================== 业务操作方法 - 委托给状态对象 ====================
@@ -250,12 +378,143 @@ public class Order {
     /**
      * 获取订单详细信息
      *
-     * @return 订单信息字符串
+     * @return 订单信息字符串，格式为 {@code Order{id='...', amount=0.00, status=...}}
+     * @see #appendTo(StringBuilder)
      */
     @Override
     public String toString() {
-        return String.format("Order{id='%s', amount=%.2f, status=%s}",
-                           orderId, amount, currentState.getStateDescription());
+        return appendTo(new StringBuilder(64)).toString();
+    }
+
+    /**
+     * 把订单摘要追加到 StringBuilder
+     *
+     * <p>输出与 {@link #toString()} 相同，但不使用 {@code String.format}，也不产生中间字符串，
+     * 适合在一个缓冲区中连续渲染大量订单。金额保留两位小数，小数点固定为 {@code '.'}。</p>
+     *
+     * @param sb 目标缓冲区
+     * @return 传入的缓冲区，便于链式调用
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        sb.append("Order{id='").append(orderId).append("', amount=");
+        long cents = amountInCents(amount);
+        if (cents == NO_FAST_PATH) {
+            sb.append(formatAmountSlowly(amount));
+        } else {
+            if (cents < 0) {
+                sb.append('-');
+                cents = -cents;
+            }
+            sb.append(cents / 100).append('.');
+            long fraction = cents % 100;
+            if (fraction < 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.append(", status=").append(currentState.getStateDescription()).append('}');
+    }
+
+    /**
+     * 把订单摘要以 UTF-8 编码写入 ByteBuffer
+     *
+     * <p>内容与 {@link #appendTo(StringBuilder)} 相同。固定文本和各状态描述的字节已预先编码，
+     * 订单编号逐字符编码，金额逐位写入，整个过程不创建任何对象。</p>
+     *
+     * @param buffer 目标缓冲区，从当前位置开始写入
+     * @return 传入的缓冲区，便于链式调用
+     * @throws java.nio.BufferOverflowException 如果剩余空间不足
+     */
+    public ByteBuffer writeTo(ByteBuffer buffer) {
+        buffer.put(SUMMARY_PREFIX);
+        putUtf8(buffer, orderId != null ? orderId : "null");
+        buffer.put(AMOUNT_LABEL);
+        long cents = amountInCents(amount);
+        if (cents == NO_FAST_PATH) {
+            buffer.put(formatAmountSlowly(amount).getBytes(StandardCharsets.UTF_8));
+        } else {
+            if (cents < 0) {
+                buffer.put((byte) '-');
+                cents = -cents;
+            }
+            putDecimal(buffer, cents / 100);
+            long fraction = cents % 100;
+            buffer.put((byte) '.')
+                  .put((byte) ('0' + fraction / 10))
+                  .put((byte) ('0' + fraction % 10));
+        }
+        return buffer.put(STATUS_LABEL)
+                     .put(STATUS_DESCRIPTIONS[OrderStates.ordinalOf(currentState)])
+                     .put((byte) '}');
+    }
+
+    /**
+     * 把金额换算为"分"
+     *
+     * <p>{@code %.2f} 按金额的最短十进制表示做四舍五入，而整数换算作用在二进制近似值上，
+     * 两者只在恰好"逢5"的边界上可能不同。遇到这类边界值，以及过大、非有限的金额时返回
+     * {@link #NO_FAST_PATH}，由调用方退回到格式化方式，保证与原输出一致。</p>
+     */
+    private static long amountInCents(double amount) {
+        double scaled = Math.abs(amount) * 100;
+        if (!(scaled < MAX_FAST_PATH_CENTS)) {
+            return NO_FAST_PATH;
+        }
+        double fraction = scaled - Math.floor(scaled);
+        long cents = Math.round(scaled);
+        // 负号由符号位决定："-0.001"、"-0.0" 都会输出 "-0.00"，交给格式化方式处理
+        boolean negative = Double.doubleToRawLongBits(amount) < 0;
+        if (Math.abs(fraction - 0.5) < ROUNDING_TIE_WINDOW || (negative && cents == 0)) {
+            return NO_FAST_PATH;
+        }
+        return negative ? -cents : cents;
+    }
+
+    private static String formatAmountSlowly(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+
+    /**
+     * 写入非负整数的十进制数字
+     */
+    private static void putDecimal(ByteBuffer buffer, long value) {
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * 以 UTF-8 编码逐字符写入字符串，不成对的代理字符写为 {@code '?'}，与 {@link String#getBytes} 一致
+     */
+    private static void putUtf8(ByteBuffer buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)))
+                      .put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)))
+                          .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                          .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                          .put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)))
+                      .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                      .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
     }
 
     /**
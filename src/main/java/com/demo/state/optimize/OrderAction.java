@@ -0,0 +1,67 @@
+package com.demo.state.optimize;
+
+/**
+ * 订单操作枚举
+ *
+ * <p>将 {@link Order} 对外提供的四个业务操作表示为数据，
+ * 便于批量处理、事件记录等场景以统一方式描述"对订单做了什么"。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public enum OrderAction {
+
+    /**
+     * 支付订单
+     */
+    PAY("支付"),
+
+    /**
+     * 发货
+     */
+    SHIP("发货"),
+
+    /**
+     * 确认收货
+     */
+    CONFIRM_DELIVERY("确认收货"),
+
+    /**
+     * 取消订单
+     */
+    CANCEL("取消");
+
+    private final String description;
+
+    OrderAction(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 对指定订单执行本操作
+     *
+     * <p>操作最终仍委托给订单的当前状态对象处理。</p>
+     *
+     * @param order 目标订单
+     * @return 操作是否成功
+     */
+    public boolean applyTo(Order order) {
+        switch (this) {
+            case PAY:
+                return order.pay();
+            case SHIP:
+                return order.ship();
+            case CONFIRM_DELIVERY:
+                return order.confirmDelivery();
+            case CANCEL:
+                return order.cancel();
+            default:
+                return false;
+        }
+    }
+}
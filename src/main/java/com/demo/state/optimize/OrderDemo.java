@@ -1,5 +1,7 @@
 package com.demo.state.optimize;
 
+import com.demo.state.optimize.events.ConsoleOrderEventSink;
+
 /**
  * 状态模式演示类
  *
@@ -47,6 +49,9 @@ public class OrderDemo {
         System.out.println("=== 状态模式演示 ===");
         System.out.println("此演示展示了如何使用状态模式优雅地管理订单状态");
 
+        // 演示程序需要看到状态转换日志，默认的空接收器不会输出任何内容
+        Order.setEventSink(new ConsoleOrderEventSink());
+
         // === 场景一：正常的订单流程 ===
         demonstrateNormalOrderFlow();
 
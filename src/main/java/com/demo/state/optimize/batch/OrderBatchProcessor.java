@@ -0,0 +1,181 @@
+package com.demo.state.optimize.batch;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 订单批量处理器
+ *
+ * <p>一次接收一批 (订单ID, 操作) 事件，按订单ID分区后在 {@link ForkJoinPool} 中并行执行，
+ * 并以紧凑的 {@code byte[]} 返回每个事件的处理结果，而不是逐条输出日志。</p>
+ *
+ * <p><strong>分区规则：</strong></p>
+ * <ul>
+ *   <li>同一订单的所有事件总是落在同一个分区，并按它们在批次中的先后顺序串行执行</li>
+ *   <li>不同分区之间互不共享订单，可以安全地并行处理</li>
+ *   <li>分区通过一次计数排序生成，只分配两个 {@code int[]}，不为每个事件创建对象</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderBatchProcessor {
+
+    /**
+     * 结果码：操作成功
+     */
+    public static final byte RESULT_SUCCESS = 1;
+
+    /**
+     * 结果码：当前状态不允许该操作（或并发转换竞争失败）
+     */
+    public static final byte RESULT_REJECTED = 0;
+
+    /**
+     * 结果码：订单不存在
+     */
+    public static final byte RESULT_UNKNOWN_ORDER = -1;
+
+    private final Map<String, Order> orders;
+    private final ForkJoinPool pool;
+    private final int partitionCount;
+
+    /**
+     * 使用公共 ForkJoinPool 创建批量处理器
+     *
+     * @param orders 订单ID到订单的映射，处理期间不应被修改
+     */
+    public OrderBatchProcessor(Map<String, Order> orders) {
+        this(orders, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 创建批量处理器
+     *
+     * @param orders 订单ID到订单的映射，处理期间不应被修改
+     * @param pool 执行并行任务的线程池
+     */
+    public OrderBatchProcessor(Map<String, Order> orders, ForkJoinPool pool) {
+        this.orders = Objects.requireNonNull(orders, "orders");
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.partitionCount = pool.getParallelism() * 4;
+    }
+
+    /**
+     * 处理一批事件
+     *
+     * <p>{@code orderIds[i]} 与 {@code actions[i]} 共同描述第 i 个事件，
+     * 返回数组的第 i 个元素即该事件的结果码。</p>
+     *
+     * @param orderIds 事件对应的订单ID
+     * @param actions 事件对应的操作
+     * @return 每个事件的结果码，取值见 {@code RESULT_*} 常量
+     * @throws IllegalArgumentException 如果两个数组长度不一致，或其中有 {@code null} 元素
+     */
+    public byte[] process(String[] orderIds, OrderAction[] actions) {
+        if (orderIds.length != actions.length) {
+            throw new IllegalArgumentException("订单ID数量与操作数量不一致：" +
+                    orderIds.length + " != " + actions.length);
+        }
+        // 提交前检查，避免在并行任务中才抛出空指针异常
+        for (int i = 0; i < orderIds.length; i++) {
+            if (orderIds[i] == null || actions[i] == null) {
+                throw new IllegalArgumentException("第 " + i + " 个事件的订单ID或操作为空");
+            }
+        }
+        byte[] results = new byte[orderIds.length];
+        if (orderIds.length == 0) {
+            return results;
+        }
+
+        // 计数排序：partitionStart[p] ~ partitionStart[p + 1] 是分区p在eventIndexes中的区间
+        int[] partitionStart = new int[partitionCount + 1];
+        for (String orderId : orderIds) {
+            partitionStart[partitionOf(orderId) + 1]++;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            partitionStart[p + 1] += partitionStart[p];
+        }
+        int[] eventIndexes = new int[orderIds.length];
+        int[] cursor = partitionStart.clone();
+        for (int i = 0; i < orderIds.length; i++) {
+            eventIndexes[cursor[partitionOf(orderIds[i])]++] = i;
+        }
+
+        pool.invoke(new PartitionTask(orderIds, actions, results, partitionStart, eventIndexes,
+                0, partitionCount));
+        return results;
+    }
+
+    /**
+     * 计算订单所属的分区
+     */
+    private int partitionOf(String orderId) {
+        int h = orderId.hashCode();
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) % partitionCount;
+    }
+
+    /**
+     * 串行执行单个分区内的全部事件
+     */
+    private void processPartition(String[] orderIds, OrderAction[] actions, byte[] results,
+                                  int[] eventIndexes, int from, int to) {
+        for (int k = from; k < to; k++) {
+            int i = eventIndexes[k];
+            Order order = orders.get(orderIds[i]);
+            if (order == null) {
+                results[i] = RESULT_UNKNOWN_ORDER;
+            } else {
+                results[i] = actions[i].applyTo(order) ? RESULT_SUCCESS : RESULT_REJECTED;
+            }
+        }
+    }
+
+    /**
+     * 按分区区间二分拆分的并行任务，拆分到每个任务只处理一个分区为止
+     * （分区数是并行度的4倍，足以在线程间均衡负载）
+     */
+    @SuppressWarnings("serial")
+    private class PartitionTask extends RecursiveAction {
+
+        private final String[] orderIds;
+        private final OrderAction[] actions;
+        private final byte[] results;
+        private final int[] partitionStart;
+        private final int[] eventIndexes;
+        private final int fromPartition;
+        private final int toPartition;
+
+        PartitionTask(String[] orderIds, OrderAction[] actions, byte[] results,
+                      int[] partitionStart, int[] eventIndexes, int fromPartition, int toPartition) {
+            this.orderIds = orderIds;
+            this.actions = actions;
+            this.results = results;
+            this.partitionStart = partitionStart;
+            this.eventIndexes = eventIndexes;
+            this.fromPartition = fromPartition;
+            this.toPartition = toPartition;
+        }
+
+        @Override
+        protected void compute() {
+            if (toPartition - fromPartition == 1) {
+                processPartition(orderIds, actions, results, eventIndexes,
+                        partitionStart[fromPartition], partitionStart[toPartition]);
+                return;
+            }
+            int mid = (fromPartition + toPartition) >>> 1;
+            invokeAll(new PartitionTask(orderIds, actions, results, partitionStart, eventIndexes,
+                            fromPartition, mid),
+                    new PartitionTask(orderIds, actions, results, partitionStart, eventIndexes,
+                            mid, toPartition));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 并发状态转换压力测试
+ *
+ * <p>多个线程按相同顺序同时操作同一批订单，制造最大程度的竞争，
+ * 验证 {@link Order#transition(com.demo.state.optimize.OrderAction, com.demo.state.optimize.states.OrderState,
+ * com.demo.state.optimize.states.OrderState)} 的条件转换语义不会产生非法转换。</p>
+ *
+ * <p><strong>检查内容：</strong></p>
+ * <ol>
+ *   <li>重复支付竞争：所有线程同时支付同一订单，每个订单恰好一次成功</li>
+ *   <li>发货与取消竞争：一半线程发货、一半线程取消，每个订单恰好一个操作成功，
+ *       且最终状态与成功的操作一致</li>
+ * </ol>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class ConcurrentTransitionStressTest {
+
+    private static final int ORDER_COUNT = 20_000;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors());
+        System.out.println("=== 并发状态转换压力测试 ===");
+        System.out.println("线程数：" + threadCount + "，订单数：" + ORDER_COUNT + "，轮数：" + ROUNDS);
+
+        int violations = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            violations += runRound(threadCount);
+        }
+
+        System.out.println(violations == 0
+                ? "✅ 未发现非法状态转换"
+                : "❌ 发现 " + violations + " 处非法状态转换");
+        if (violations != 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 执行一轮竞争，返回发现的违规次数
+     */
+    private static int runRound(int threadCount) throws InterruptedException {
+        Order[] orders = new Order[ORDER_COUNT];
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders[i] = new Order("ORD-" + i, 10.0);
+        }
+        AtomicIntegerArray paySuccess = new AtomicIntegerArray(ORDER_COUNT);
+        AtomicIntegerArray shipSuccess = new AtomicIntegerArray(ORDER_COUNT);
+        AtomicIntegerArray cancelSuccess = new AtomicIntegerArray(ORDER_COUNT);
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            boolean shipper = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                await(barrier);
+                for (int i = 0; i < ORDER_COUNT; i++) {
+                    if (orders[i].pay()) {
+                        paySuccess.incrementAndGet(i);
+                    }
+                }
+                await(barrier);
+                for (int i = 0; i < ORDER_COUNT; i++) {
+                    if (shipper) {
+                        if (orders[i].ship()) {
+                            shipSuccess.incrementAndGet(i);
+                        }
+                    } else if (orders[i].cancel()) {
+                        cancelSuccess.incrementAndGet(i);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int violations = 0;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            int ships = shipSuccess.get(i);
+            int cancels = cancelSuccess.get(i);
+            boolean legal = paySuccess.get(i) == 1
+                    && ships + cancels == 1
+                    && orders[i].getCurrentState() == (ships == 1 ? OrderStates.SHIPPED : OrderStates.CANCELLED);
+            if (!legal) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException("线程同步失败", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.batch.OrderBatchProcessor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 批量处理吞吐量基准测试
+ *
+ * <p>为每个订单生成"支付 → 发货 → 确认收货"三个事件，不同订单的事件交错排列，
+ * 交给 {@link OrderBatchProcessor} 处理，统计每秒处理的事件数并校验同一订单的事件顺序得到保持。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderBatchBenchmark {
+
+    private static final int ORDER_COUNT = 50_000;
+    private static final int ROUNDS = 10;
+
+    private static final OrderAction[] LIFECYCLE = {
+            OrderAction.PAY, OrderAction.SHIP, OrderAction.CONFIRM_DELIVERY
+    };
+
+    public static void main(String[] args) {
+        System.out.println("=== 批量处理吞吐量基准测试 ===");
+
+        long bestNanos = Long.MAX_VALUE;
+        int failures = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            Map<String, Order> orders = new HashMap<>();
+            String[] orderIds = new String[ORDER_COUNT * LIFECYCLE.length];
+            OrderAction[] actions = new OrderAction[orderIds.length];
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                String orderId = "ORD-" + i;
+                orders.put(orderId, new Order(orderId, 10.0));
+                for (int step = 0; step < LIFECYCLE.length; step++) {
+                    orderIds[step * ORDER_COUNT + i] = orderId;
+                    actions[step * ORDER_COUNT + i] = LIFECYCLE[step];
+                }
+            }
+
+            OrderBatchProcessor processor = new OrderBatchProcessor(orders);
+            long start = System.nanoTime();
+            byte[] results = processor.process(orderIds, actions);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+
+            for (byte result : results) {
+                if (result != OrderBatchProcessor.RESULT_SUCCESS) {
+                    failures++;
+                }
+            }
+        }
+
+        int events = ORDER_COUNT * LIFECYCLE.length;
+        System.out.println("每批事件数：" + events);
+        System.out.printf("最佳耗时：%.1f ms，吞吐量：%.0f 事件/秒%n",
+                bestNanos / 1e6, events * 1e9 / bestNanos);
+        System.out.println(failures == 0
+                ? "✅ 所有事件按订单内顺序成功执行"
+                : "❌ 有 " + failures + " 个事件执行失败");
+    }
+}
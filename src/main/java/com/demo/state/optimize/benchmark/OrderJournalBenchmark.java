@@ -0,0 +1,93 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.journal.OrderJournal;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订单日志持续追加基准测试
+ *
+ * <p>把 {@link OrderJournal} 设置为订单事件接收器，多个线程并发创建订单并走完"支付 → 发货 → 确认收货"流程，
+ * 分别在同步提交（等待落盘，依靠组提交摊薄刷盘开销）和异步提交两种模式下统计每秒追加的记录数；
+ * 最后重放日志，校验恢复出的订单数量和状态。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderJournalBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 10_000;
+
+    /**
+     * 每个订单产生的记录数：创建 + 3次转换
+     */
+    private static final int RECORDS_PER_ORDER = 4;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== 订单日志持续追加基准测试 ===");
+        System.out.println("线程数：" + THREADS + "，每线程订单数：" + ORDERS_PER_THREAD);
+
+        run(true);
+        run(false);
+    }
+
+    private static void run(boolean syncCommit) throws Exception {
+        Path file = Files.createTempFile("order-journal", ".wal");
+        try {
+            long nanos;
+            try (OrderJournal journal = new OrderJournal(file, syncCommit)) {
+                Order.setEventSink(journal);
+                try {
+                    nanos = appendConcurrently();
+                } finally {
+                    Order.setEventSink(null);
+                }
+            }
+
+            long records = (long) THREADS * ORDERS_PER_THREAD * RECORDS_PER_ORDER;
+            Map<String, Order> recovered = OrderJournal.recover(file);
+            long completed = recovered.values().stream()
+                    .filter(order -> order.getCurrentState() == OrderStates.COMPLETED)
+                    .count();
+
+            System.out.printf("%s：%.0f 条记录/秒（共 %d 条，用时 %.1f ms）%n",
+                    syncCommit ? "同步组提交" : "异步提交",
+                    records * 1e9 / nanos, records, nanos / 1e6);
+            System.out.println(completed == (long) THREADS * ORDERS_PER_THREAD
+                    ? "  ✅ 恢复出 " + recovered.size() + " 个订单，全部处于已完成状态"
+                    : "  ❌ 恢复结果不一致：订单 " + recovered.size() + "，已完成 " + completed);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long appendConcurrently() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int threadIndex = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    Order order = new Order("ORD-" + threadIndex + "-" + i, 10.0);
+                    order.pay();
+                    order.ship();
+                    order.confirmDelivery();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - start;
+    }
+}
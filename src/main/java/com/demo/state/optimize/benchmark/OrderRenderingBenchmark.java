@@ -0,0 +1,145 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 订单摘要渲染基准测试
+ *
+ * <p>先校验 {@link Order#appendTo(StringBuilder)} 和 {@link Order#writeTo(ByteBuffer)}
+ * 的输出与原先基于 {@code String.format} 的 {@code toString} 完全一致（包含"逢5"舍入边界和负数金额），
+ * 然后分别统计三种渲染方式以及 {@link Order#getAvailableActions()} 的每次耗时和分配字节数。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderRenderingBenchmark {
+
+    private static final int ORDER_COUNT = 1_000;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURE_ROUNDS = 5_000;
+    private static final int VERIFY_SAMPLES = 1_000_000;
+
+    /**
+     * 防止渲染结果被JIT优化掉
+     */
+    private static long blackhole;
+
+    @FunctionalInterface
+    private interface Renderer {
+        void render(Order order);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== 订单摘要渲染基准测试 ===");
+        verify();
+
+        Order[] orders = createOrders();
+        StringBuilder sb = new StringBuilder(256);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        System.out.println("--- 每次渲染 ---");
+        measure("String.format(旧toString)", orders, order -> blackhole += legacyToString(order).length());
+        measure("toString()", orders, order -> blackhole += order.toString().length());
+        measure("appendTo(StringBuilder)", orders, order -> {
+            sb.setLength(0);
+            blackhole += order.appendTo(sb).length();
+        });
+        measure("writeTo(ByteBuffer)", orders, order -> {
+            buffer.clear();
+            blackhole += order.writeTo(buffer).position();
+        });
+        measure("getAvailableActions()", orders, order -> blackhole += order.getAvailableActions().length());
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    /**
+     * 原先的 toString 实现，作为对照
+     */
+    private static String legacyToString(Order order) {
+        return String.format(Locale.ROOT, "Order{id='%s', amount=%.2f, status=%s}",
+                order.getOrderId(), order.getAmount(), order.getCurrentState().getStateDescription());
+    }
+
+    private static void verify() {
+        Random random = new Random(42);
+        OrderState[] states = OrderStates.values();
+        double[] edgeAmounts = {0, -0.0, 0.005, 1.005, 2.675, 1.115, -1.005, -0.001, 0.001, 99.995,
+                123456789.125, 1e9 + 0.005, 1e12, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+        StringBuilder sb = new StringBuilder();
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        int mismatches = 0;
+        for (int i = 0; i < VERIFY_SAMPLES + edgeAmounts.length; i++) {
+            double amount;
+            if (i < edgeAmounts.length) {
+                amount = edgeAmounts[i];
+            } else if (i % 3 == 0) {
+                amount = random.nextInt(10_000_000) / 1000.0;
+            } else if (i % 3 == 1) {
+                amount = (random.nextInt(2_000_000) - 1_000_000) / 100.0;
+            } else {
+                amount = random.nextDouble() * 100_000;
+            }
+            String orderId = (i % 5 == 0) ? "订单-" + i + "-📦" : "ORD-" + i;
+            Order order = new Order(orderId, amount, states[i % states.length]);
+
+            String expected = legacyToString(order);
+            sb.setLength(0);
+            buffer.clear();
+            order.writeTo(buffer);
+            byte[] written = Arrays.copyOf(buffer.array(), buffer.position());
+            if (!expected.equals(order.appendTo(sb).toString())
+                    || !Arrays.equals(expected.getBytes(StandardCharsets.UTF_8), written)) {
+                if (mismatches++ < 5) {
+                    System.out.println("  不一致：" + expected + " / " + sb);
+                }
+            }
+        }
+        System.out.println(mismatches == 0
+                ? "✅ " + (VERIFY_SAMPLES + edgeAmounts.length) + " 个样本的渲染结果与 String.format 完全一致"
+                : "❌ 渲染结果不一致的样本数：" + mismatches);
+    }
+
+    private static Order[] createOrders() {
+        OrderState[] states = OrderStates.values();
+        Order[] orders = new Order[ORDER_COUNT];
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders[i] = new Order("ORD-" + (100_000 + i), 10 + i * 1.25, states[i % states.length]);
+        }
+        return orders;
+    }
+
+    private static void measure(String label, Order[] orders, Renderer renderer) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        runRounds(orders, renderer, WARMUP_ROUNDS);
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        runRounds(orders, renderer, MEASURE_ROUNDS);
+        long nanos = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long renders = (long) MEASURE_ROUNDS * orders.length;
+        System.out.printf("%-28s %8.1f ns/次  %8.1f 字节/次%n", label,
+                (double) nanos / renders, (double) allocated / renders);
+    }
+
+    private static void runRounds(Order[] orders, Renderer renderer, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            for (Order order : orders) {
+                renderer.render(order);
+            }
+        }
+    }
+}
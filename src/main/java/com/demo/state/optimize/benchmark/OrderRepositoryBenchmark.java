@@ -0,0 +1,134 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.repository.OrderRepository;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 订单状态索引基准测试
+ *
+ * <p>把 {@link OrderRepository} 设置为订单事件接收器，多个线程对同一批订单并发执行随机操作，
+ * 结束后校验每个状态索引与订单的实际状态完全一致；
+ * 然后对比"全量扫描比较状态名称"与"按状态索引查询"两种方式统计、遍历已发货订单的耗时。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderRepositoryBenchmark {
+
+    private static final int ORDER_COUNT = 1_000_000;
+    private static final int THREADS = 8;
+    private static final int ACTIONS_PER_THREAD = 2_000_000;
+    private static final int QUERY_ROUNDS = 20;
+    private static final int COUNT_ROUNDS = 1_000_000;
+
+    private static final OrderAction[] ACTIONS = OrderAction.values();
+
+    /**
+     * 防止查询结果被JIT优化掉
+     */
+    private static long blackhole;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== 订单状态索引基准测试 ===");
+        System.out.println("订单数：" + ORDER_COUNT + "，并发线程：" + THREADS + "，每线程随机操作：" + ACTIONS_PER_THREAD);
+
+        OrderRepository repository = new OrderRepository();
+        Order[] orders = new Order[ORDER_COUNT];
+        Order.setEventSink(repository);
+        try {
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                orders[i] = new Order("ORD-" + i, 10.0);
+            }
+            long nanos = applyRandomActions(orders);
+            System.out.printf("并发随机操作：%.0f 次/秒（含索引维护）%n",
+                    (long) THREADS * ACTIONS_PER_THREAD * 1e9 / nanos);
+        } finally {
+            Order.setEventSink(null);
+        }
+
+        verify(repository, orders);
+        compareQueries(repository, orders);
+    }
+
+    private static long applyRandomActions(Order[] orders) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ACTIONS_PER_THREAD; i++) {
+                    ACTIONS[random.nextInt(ACTIONS.length)].applyTo(orders[random.nextInt(orders.length)]);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void verify(OrderRepository repository, Order[] orders) {
+        long[] actual = new long[OrderStates.values().length];
+        for (Order order : orders) {
+            actual[OrderStates.ordinalOf(order.getCurrentState())]++;
+        }
+        boolean consistent = repository.size() == orders.length;
+        for (OrderState state : OrderStates.values()) {
+            List<Order> indexed = repository.findByState(state);
+            long mismatched = indexed.stream().filter(order -> order.getCurrentState() != state).count();
+            long expected = actual[OrderStates.ordinalOf(state)];
+            System.out.printf("  %-10s 实际 %7d，计数 %7d，索引 %7d，错位 %d%n", state.getStateName(),
+                    expected, repository.countByState(state), indexed.size(), mismatched);
+            consistent &= mismatched == 0
+                    && repository.countByState(state) == expected
+                    && indexed.size() == expected;
+        }
+        System.out.println(consistent ? "✅ 状态索引与订单实际状态一致" : "❌ 状态索引与订单实际状态不一致");
+    }
+
+    private static void compareQueries(OrderRepository repository, Order[] orders) {
+        long start = System.nanoTime();
+        for (int round = 0; round < QUERY_ROUNDS; round++) {
+            long sum = 0;
+            for (Order order : orders) {
+                if ("SHIPPED".equals(order.getCurrentStateName())) {
+                    sum += (long) order.getAmount();
+                }
+            }
+            blackhole += sum;
+        }
+        long scanNanos = (System.nanoTime() - start) / QUERY_ROUNDS;
+
+        start = System.nanoTime();
+        for (int round = 0; round < QUERY_ROUNDS; round++) {
+            long sum = 0;
+            for (Order order : repository.findByState(OrderStates.SHIPPED)) {
+                sum += (long) order.getAmount();
+            }
+            blackhole += sum;
+        }
+        long indexNanos = (System.nanoTime() - start) / QUERY_ROUNDS;
+
+        start = System.nanoTime();
+        for (int round = 0; round < COUNT_ROUNDS; round++) {
+            blackhole += repository.countByState(OrderStates.SHIPPED);
+        }
+        long countNanos = (System.nanoTime() - start) / COUNT_ROUNDS;
+
+        System.out.println("--- 查询已发货订单 ---");
+        System.out.printf("全量扫描遍历：%.2f ms/次%n", scanNanos / 1e6);
+        System.out.printf("状态索引遍历：%.2f ms/次%n", indexNanos / 1e6);
+        System.out.printf("状态索引计数：%d ns/次%n", countNanos);
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+}
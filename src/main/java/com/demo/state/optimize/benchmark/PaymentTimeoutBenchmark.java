@@ -0,0 +1,78 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+import com.demo.state.optimize.timeout.PaymentTimeoutScheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 支付超时调度基准测试
+ *
+ * <p>把 {@link PaymentTimeoutScheduler} 设置为订单事件接收器，一次性创建数百万个待支付订单（登记超时），
+ * 再支付其中一半（注销超时），分别统计登记和注销的吞吐量；
+ * 随后等待超时到期，校验未支付的订单全部被自动取消、已支付的订单不受影响。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class PaymentTimeoutBenchmark {
+
+    private static final int ORDER_COUNT = 2_000_000;
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final long TICK_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== 支付超时调度基准测试 ===");
+        System.out.println("订单数：" + ORDER_COUNT + "，超时：" + TIMEOUT_MILLIS + " ms，刻度：" + TICK_MILLIS + " ms");
+
+        String[] orderIds = new String[ORDER_COUNT];
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orderIds[i] = "ORD-" + i;
+        }
+        Order[] orders = new Order[ORDER_COUNT];
+
+        try (PaymentTimeoutScheduler scheduler = new PaymentTimeoutScheduler(
+                TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, TICK_MILLIS, TimeUnit.MILLISECONDS)) {
+            Order.setEventSink(scheduler);
+            try {
+                long start = System.nanoTime();
+                for (int i = 0; i < ORDER_COUNT; i++) {
+                    orders[i] = new Order(orderIds[i], 10.0);
+                }
+                long createNanos = System.nanoTime() - start;
+                long createdAt = System.nanoTime();
+                System.out.printf("创建并登记超时：%.0f 个/秒，待超时 %d 个%n",
+                        ORDER_COUNT * 1e9 / createNanos, scheduler.getPendingCount());
+
+                start = System.nanoTime();
+                for (int i = 0; i < ORDER_COUNT; i += 2) {
+                    orders[i].pay();
+                }
+                long payNanos = System.nanoTime() - start;
+                System.out.printf("支付并注销超时：%.0f 个/秒，待超时 %d 个%n",
+                        (ORDER_COUNT / 2) * 1e9 / payNanos, scheduler.getPendingCount());
+
+                while (scheduler.getPendingCount() > 0) {
+                    Thread.sleep(TICK_MILLIS);
+                }
+                System.out.printf("全部超时处理完毕：创建后 %.0f ms%n", (System.nanoTime() - createdAt) / 1e6);
+            } finally {
+                Order.setEventSink(null);
+            }
+        }
+
+        int wrong = 0;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            OrderState expected = (i % 2 == 0) ? OrderStates.PAID : OrderStates.CANCELLED;
+            if (orders[i].getCurrentState() != expected) {
+                wrong++;
+            }
+        }
+        System.out.println(wrong == 0
+                ? "✅ 未支付订单全部自动取消，已支付订单不受影响"
+                : "❌ 状态不符合预期的订单数：" + wrong);
+    }
+}
@@ -0,0 +1,84 @@
+package com.demo.state.optimize.benchmark;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * 状态对象分配基准测试
+ *
+ * <p>验证 {@link OrderStates} 的享元共享效果：反复执行完整的订单生命周期，
+ * 统计所有订单实际用到的状态对象个数（按对象身份去重），并借助
+ * {@link com.sun.management.ThreadMXBean} 统计每次状态转换分配的字节数。</p>
+ *
+ * <p><strong>观察重点：</strong></p>
+ * <ul>
+ *   <li>无论执行多少次转换，出现过的状态对象始终只有5个</li>
+ *   <li>默认的空事件接收器不拼接任何字符串，每次转换分配的字节数应为0</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class StateAllocationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 200_000;
+
+    /**
+     * 每轮生命周期包含的状态转换次数：支付、发货、确认收货 + 支付、取消
+     */
+    private static final int TRANSITIONS_PER_ROUND = 5;
+
+    public static void main(String[] args) {
+        System.out.println("=== 状态对象分配基准测试 ===");
+
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Set<OrderState> seenStates = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Order order = new Order("ORD-BENCH", 99.9);
+        runRounds(order, WARMUP_ROUNDS, seenStates);
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        runRounds(order, MEASURE_ROUNDS, seenStates);
+        long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        long transitions = (long) MEASURE_ROUNDS * TRANSITIONS_PER_ROUND;
+        System.out.println("状态转换次数：" + transitions);
+        System.out.println("出现过的状态对象个数：" + seenStates.size());
+        System.out.printf("每次转换分配字节数：%.1f%n",
+                (double) allocatedBytes / transitions);
+        System.out.println(seenStates.size() == OrderStates.values().length
+                ? "✅ 所有转换均复用共享状态实例，没有为状态对象分配内存"
+                : "❌ 发现了非共享的状态实例");
+    }
+
+    /**
+     * 反复驱动同一个订单走完两条生命周期路径
+     */
+    private static void runRounds(Order order, int rounds, Set<OrderState> seenStates) {
+        for (int i = 0; i < rounds; i++) {
+            order.changeState(OrderStates.PENDING);
+            order.pay();
+            seenStates.add(order.getCurrentState());
+            order.ship();
+            seenStates.add(order.getCurrentState());
+            order.confirmDelivery();
+            seenStates.add(order.getCurrentState());
+
+            order.changeState(OrderStates.PENDING);
+            seenStates.add(order.getCurrentState());
+            order.pay();
+            order.cancel();
+            seenStates.add(order.getCurrentState());
+        }
+    }
+}
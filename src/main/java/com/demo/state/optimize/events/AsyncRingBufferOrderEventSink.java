@@ -0,0 +1,264 @@
+package com.demo.state.optimize.events;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.states.OrderState;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步环形缓冲区事件接收器
+ *
+ * <p>状态转换线程只把事件参数写入预先分配好的环形缓冲区槽位，随即返回；
+ * 一个后台消费线程按顺序取出事件并转交给下游接收器（例如 {@link ConsoleOrderEventSink}）。
+ * 这样字符串拼接和I/O都从热路径移到了后台线程。</p>
+ *
+ * <p><strong>实现要点：</strong></p>
+ * <ul>
+ *   <li><strong>多生产者单消费者</strong>：生产者通过 CAS 抢占序号，消费者单线程读取</li>
+ *   <li><strong>无分配</strong>：槽位以并列数组保存事件字段，发布事件不创建对象</li>
+ *   <li><strong>发布标记</strong>：每个槽位写完后写入自己的序号，消费者据此判断槽位是否可读</li>
+ *   <li><strong>满时丢弃</strong>：缓冲区满时丢弃新事件并计数，绝不阻塞业务线程</li>
+ *   <li><strong>关闭</strong>：{@link #close()} 在生产者序号上置关闭标记，之后发布的事件不再入队，
+ *       单独计数（{@link #getDroppedAfterCloseCount()}）；关闭前已抢占到序号的事件都会被消费</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class AsyncRingBufferOrderEventSink implements OrderEventSink, AutoCloseable {
+
+    private static final byte KIND_TRANSITION = 0;
+    private static final byte KIND_REJECTED = 1;
+    private static final byte KIND_CREATED = 2;
+
+    /**
+     * 消费者空闲时的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = 100_000L;
+
+    /**
+     * 生产者序号上的关闭标记；置位后 CAS 抢占序号必然失败
+     */
+    private static final long CLOSED_BIT = 1L << 62;
+
+    private final OrderEventSink delegate;
+    private final int mask;
+
+    // ==================== 槽位数据（并列数组） ====================
+
+    private final byte[] kinds;
+    private final Order[] orders;
+    private final OrderAction[] actions;
+    private final OrderState[] fromStates;
+    private final OrderState[] toStates;
+    private final String[] reasons;
+
+    /**
+     * 每个槽位最近一次发布的序号，-1表示尚未发布
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * 下一个待分配的生产者序号，关闭后带有 {@link #CLOSED_BIT}
+     */
+    private final AtomicLong claimSequence = new AtomicLong();
+
+    /**
+     * 下一个待消费的序号
+     */
+    private final AtomicLong consumeSequence = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong droppedAfterCloseCount = new AtomicLong();
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    /**
+     * 创建异步事件接收器并启动消费线程
+     *
+     * @param delegate 实际处理事件的下游接收器
+     * @param capacity 缓冲区容量，必须是2的幂
+     * @throws IllegalArgumentException 如果容量不是正的2的幂
+     */
+    public AsyncRingBufferOrderEventSink(OrderEventSink delegate, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("缓冲区容量必须是2的幂：" + capacity);
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.mask = capacity - 1;
+        this.kinds = new byte[capacity];
+        this.orders = new Order[capacity];
+        this.actions = new OrderAction[capacity];
+        this.fromStates = new OrderState[capacity];
+        this.toStates = new OrderState[capacity];
+        this.reasons = new String[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.consumer = new Thread(this::consumeLoop, "order-event-sink");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void onCreated(Order order) {
+        publish(KIND_CREATED, order, null, null, null, null);
+    }
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        publish(KIND_TRANSITION, order, action, from, to, null);
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+        publish(KIND_REJECTED, order, action, state, null, reason);
+    }
+
+    /**
+     * 抢占一个槽位并写入事件
+     */
+    private void publish(byte kind, Order order, OrderAction action,
+                         OrderState from, OrderState to, String reason) {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if ((sequence & CLOSED_BIT) != 0) {
+                droppedAfterCloseCount.incrementAndGet();
+                return;
+            }
+            if (sequence - consumeSequence.get() > mask) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        kinds[index] = kind;
+        orders[index] = order;
+        actions[index] = action;
+        fromStates[index] = from;
+        toStates[index] = to;
+        reasons[index] = reason;
+        published.set(index, sequence);
+    }
+
+    /**
+     * 消费线程主循环
+     */
+    private void consumeLoop() {
+        while (running || consumeSequence.get() < claimedEnd()) {
+            if (!consumeOne()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * 尝试消费一个事件
+     *
+     * @return 是否消费到了事件
+     */
+    private boolean consumeOne() {
+        long sequence = consumeSequence.get();
+        int index = (int) (sequence & mask);
+        if (published.get(index) != sequence) {
+            return false;
+        }
+        byte kind = kinds[index];
+        Order order = orders[index];
+        OrderAction action = actions[index];
+        OrderState from = fromStates[index];
+        OrderState to = toStates[index];
+        String reason = reasons[index];
+        orders[index] = null;
+        reasons[index] = null;
+        consumeSequence.set(sequence + 1);
+
+        try {
+            if (kind == KIND_TRANSITION) {
+                delegate.onTransition(order, action, from, to);
+            } else if (kind == KIND_REJECTED) {
+                delegate.onRejected(order, action, from, reason);
+            } else {
+                delegate.onCreated(order);
+            }
+        } catch (RuntimeException e) {
+            // 下游异常不能终止消费线程，否则后续事件将全部丢失
+            System.err.println("订单事件处理失败：" + e);
+        }
+        return true;
+    }
+
+    /**
+     * 等待调用时刻之前发布的所有事件被消费完毕
+     */
+    public void flush() {
+        long target = claimedEnd();
+        while (consumeSequence.get() < target && consumer.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * 已分配出去的序号上界（去掉关闭标记）
+     */
+    private long claimedEnd() {
+        return claimSequence.get() & ~CLOSED_BIT;
+    }
+
+    /**
+     * 获取因缓冲区已满而丢弃的事件数
+     *
+     * @return 丢弃的事件数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 获取关闭之后才发布、因而没有入队的事件数
+     *
+     * @return 关闭后丢弃的事件数
+     */
+    public long getDroppedAfterCloseCount() {
+        return droppedAfterCloseCount.get();
+    }
+
+    /**
+     * 停止接收器：拒绝新事件，消费完已入队的事件后结束消费线程
+     *
+     * <p>等待期间调用线程被中断时继续等待，返回前恢复中断标志；
+     * 在下游接收器中（即消费线程上）调用时只发出停止信号。可以重复调用。</p>
+     */
+    @Override
+    public void close() {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+        } while ((sequence & CLOSED_BIT) == 0 && !claimSequence.compareAndSet(sequence, sequence | CLOSED_BIT));
+        running = false;
+        if (Thread.currentThread() == consumer) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                consumer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.demo.state.optimize.events;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.states.OrderState;
+
+/**
+ * 组合事件接收器
+ *
+ * <p>{@link Order} 只持有一个全局事件接收器，需要同时启用多个接收器
+ * （例如控制台日志、持久化日志、超时调度）时，用本类把它们组合起来，按构造时的顺序依次通知。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class CompositeOrderEventSink implements OrderEventSink {
+
+    private final OrderEventSink[] sinks;
+
+    /**
+     * 创建组合事件接收器
+     *
+     * @param sinks 被组合的接收器，按此顺序通知
+     */
+    public CompositeOrderEventSink(OrderEventSink... sinks) {
+        this.sinks = sinks.clone();
+    }
+
+    @Override
+    public void onCreated(Order order) {
+        for (OrderEventSink sink : sinks) {
+            sink.onCreated(order);
+        }
+    }
+
+    @Override
+    public void beforeTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        for (OrderEventSink sink : sinks) {
+            sink.beforeTransition(order, action, from, to);
+        }
+    }
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        for (OrderEventSink sink : sinks) {
+            sink.onTransition(order, action, from, to);
+        }
+    }
+
+    @Override
+    public void afterTransition(Order order) {
+        for (OrderEventSink sink : sinks) {
+            sink.afterTransition(order);
+        }
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+        for (OrderEventSink sink : sinks) {
+            sink.onRejected(order, action, state, reason);
+        }
+    }
+}
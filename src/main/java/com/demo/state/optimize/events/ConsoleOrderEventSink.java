@@ -0,0 +1,37 @@
+package com.demo.state.optimize.events;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+/**
+ * 控制台事件接收器
+ *
+ * <p>把订单事件格式化为可读文本并输出到控制台，用于演示程序。
+ * 字符串只在这里拼接，其他接收器不承担这部分开销。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class ConsoleOrderEventSink implements OrderEventSink {
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        if (action == OrderAction.CANCEL && from == OrderStates.PAID) {
+            System.out.println("💸 订单 " + order.getOrderId() + " 已退款：" + order.getAmount() + "元");
+        }
+        System.out.println("🔄 订单 " + order.getOrderId() + " 状态变更：" +
+                          from.getStateDescription() + " → " + to.getStateDescription());
+        if (action != null) {
+            System.out.println("✅ " + action.getDescription() + "成功！订单状态变更为：" +
+                              to.getStateDescription());
+        }
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+        System.out.println("❌ " + action.getDescription() + "失败：订单 " + order.getOrderId() + " " + reason);
+    }
+}
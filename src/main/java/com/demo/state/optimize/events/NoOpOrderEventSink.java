@@ -0,0 +1,33 @@
+package com.demo.state.optimize.events;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.states.OrderState;
+
+/**
+ * 空事件接收器 - 默认实现
+ *
+ * <p>忽略所有事件。作为 {@link Order} 的默认接收器，保证未配置日志时状态转换没有任何输出开销。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public final class NoOpOrderEventSink implements OrderEventSink {
+
+    /**
+     * 共享实例
+     */
+    public static final NoOpOrderEventSink INSTANCE = new NoOpOrderEventSink();
+
+    private NoOpOrderEventSink() {
+    }
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+    }
+}
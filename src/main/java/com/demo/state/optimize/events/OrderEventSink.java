@@ -0,0 +1,85 @@
+package com.demo.state.optimize.events;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.states.OrderState;
+
+/**
+ * 订单事件接收器接口
+ *
+ * <p>状态类和 {@link Order} 不再直接向控制台打印日志，而是把发生的事情以结构化参数
+ * （订单、操作、源状态、目标状态）交给事件接收器。只有真正需要文本的接收器
+ * （如 {@link ConsoleOrderEventSink}）才会拼接字符串，默认的 {@link NoOpOrderEventSink}
+ * 什么也不做，热路径上不产生任何额外开销。</p>
+ *
+ * <p><strong>实现约定：</strong></p>
+ * <ul>
+ *   <li>回调在执行状态转换的线程上同步调用，实现应尽量轻量且线程安全</li>
+ *   <li>一次成功的转换依次回调 {@link #beforeTransition}、{@link #onTransition}（二者在订单对象的锁内）
+ *       和 {@link #afterTransition}（释放锁之后），详见 {@link Order#transition}</li>
+ *   <li>拒绝原因 {@code reason} 由状态类以字符串常量传入，不会为每次调用新建字符串</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ * @see Order#setEventSink(OrderEventSink)
+ */
+public interface OrderEventSink {
+
+    /**
+     * 订单创建完成
+     *
+     * <p>默认忽略。需要追踪订单完整生命周期的接收器（例如日志持久化）可以覆盖此方法。</p>
+     *
+     * @param order 新创建的订单，此时已处于初始状态
+     */
+    default void onCreated(Order order) {
+    }
+
+    /**
+     * 订单状态即将转换
+     *
+     * <p>在订单对象的锁内、新状态对其他线程可见之前调用。默认忽略。
+     * 需要先记录再生效的接收器（例如预写日志）在此写入记录；抛出异常时本次转换被放弃，订单保持原状态。</p>
+     *
+     * @param order 将要转换的订单，此时仍处于 {@code from} 状态
+     * @param action 触发转换的操作；通过 {@link Order#changeState(OrderState)} 直接设置状态时为null
+     * @param from 转换前的状态
+     * @param to 转换后的状态
+     */
+    default void beforeTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+    }
+
+    /**
+     * 订单状态转换成功
+     *
+     * <p>在订单对象的锁内、新状态发布之后调用，同一订单的通知顺序与状态实际变化的顺序一致。</p>
+     *
+     * @param order 发生转换的订单
+     * @param action 触发转换的操作；通过 {@link Order#changeState(OrderState)} 直接设置状态时为null
+     * @param from 转换前的状态
+     * @param to 转换后的状态
+     */
+    void onTransition(Order order, OrderAction action, OrderState from, OrderState to);
+
+    /**
+     * 订单状态转换完成，订单锁已释放
+     *
+     * <p>默认忽略。耗时的等待（例如等待日志落盘）放在这里，不会阻塞同一订单的其他转换。</p>
+     *
+     * @param order 发生转换的订单
+     */
+    default void afterTransition(Order order) {
+    }
+
+    /**
+     * 订单操作被拒绝
+     *
+     * @param order 目标订单
+     * @param action 被拒绝的操作
+     * @param state 处理该操作的状态
+     * @param reason 拒绝原因（字符串常量）
+     */
+    void onRejected(Order order, OrderAction action, OrderState state, String reason);
+}
@@ -0,0 +1,481 @@
+package com.demo.state.optimize.journal;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.events.OrderEventSink;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 订单状态预写日志（Write-Ahead Journal）
+ *
+ * <p>作为 {@link OrderEventSink} 挂到 {@link Order} 上后，每次订单创建和状态转换都会以一条二进制记录
+ * 追加到内存映射文件中；进程重启时调用 {@link #recover(Path)} 重放日志，即可重建全部订单及其当前状态。</p>
+ *
+ * <p><strong>记录格式：</strong></p>
+ * <pre>
+ * [int 记录体长度][int 记录体CRC32][记录体]
+ * 记录体 = [byte 类型][long 时间戳][short 订单ID长度][订单ID(UTF-8)][类型相关数据]
+ *   CREATED    : [double 金额][byte 初始状态序号]
+ *   TRANSITION : [byte 源状态序号][byte 目标状态序号]
+ * </pre>
+ * <p>写入时先写记录体和校验和，最后写长度；长度为0表示日志结束，校验失败的记录视为崩溃时未写完的尾部。
+ * 时间戳在追加锁内取得且不小于日志中已有的任何时间戳，即使系统时钟回拨也单调不减。</p>
+ *
+ * <p><strong>先写日志后生效：</strong>转换记录在 {@link #beforeTransition} 中、订单锁内且新状态发布之前追加；
+ * 追加失败（例如日志已关闭、无法映射新区域）时异常抛出，订单保持原状态，内存与日志不会不一致。</p>
+ *
+ * <p><strong>组提交（Group Commit）：</strong>追加操作只写入映射内存，由后台刷盘线程统一调用
+ * {@link MappedByteBuffer#force(int, int)}。同步模式下，写入线程等待覆盖自己记录的那次刷盘完成后才返回，
+ * 多个并发写入线程共享同一次刷盘，从而把昂贵的磁盘同步摊薄到一批记录上。
+ * 转换的落盘等待在 {@link #afterTransition} 中进行，此时订单锁已释放，不会阻塞同一订单的其他转换。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderJournal implements OrderEventSink, AutoCloseable {
+
+    private static final byte TYPE_CREATED = 1;
+    private static final byte TYPE_TRANSITION = 2;
+
+    /**
+     * 记录头长度：记录体长度 + CRC32
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * 记录体固定部分长度：类型 + 时间戳 + 订单ID长度
+     */
+    private static final int BODY_FIXED_SIZE = 1 + 8 + 2;
+
+    /**
+     * 每次映射的文件区域大小
+     */
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 刷盘线程在没有等待者时的刷盘间隔
+     */
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final FileChannel channel;
+    private final boolean syncCommit;
+
+    /**
+     * 保护映射区域和写入位置的锁
+     */
+    private final Object appendLock = new Object();
+    private MappedByteBuffer buffer;
+    private long bufferBase;
+    private long writePosition;
+    private long lastTimestamp;
+
+    /**
+     * 切换区域后尚未由刷盘线程刷完的旧区域，以及其中记录的结束位置
+     */
+    private MappedByteBuffer retiredBuffer;
+    private long retiredBase;
+    private long retiredEnd;
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * 同步模式下，当前线程最近一次追加的转换记录结束位置，由 afterTransition 等待其落盘
+     */
+    private final ThreadLocal<long[]> pendingCommit = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * 已确认落盘的位置（绝对文件偏移）
+     */
+    private final AtomicLong durablePosition = new AtomicLong();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * 打开（或创建）日志文件，并定位到已有记录之后继续追加
+     *
+     * @param file 日志文件路径
+     * @param syncCommit 为true时每次写入都等待落盘后再返回
+     * @throws IOException 如果文件无法打开或映射
+     */
+    public OrderJournal(Path file, boolean syncCommit) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.syncCommit = syncCommit;
+        long[] latestTimestamp = new long[1];
+        this.writePosition = scan(channel, null, latestTimestamp);
+        this.lastTimestamp = latestTimestamp[0];
+        this.durablePosition.set(writePosition);
+        mapChunk(writePosition);
+        this.flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // ==================== 事件接收器实现 ====================
+
+    @Override
+    public void onCreated(Order order) {
+        byte[] orderId = order.getOrderId().getBytes(StandardCharsets.UTF_8);
+        long end = append(TYPE_CREATED, orderId, order.getAmount(),
+                OrderStates.ordinalOf(order.getCurrentState()), 0);
+        commit(end);
+    }
+
+    @Override
+    public void beforeTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        // 在订单锁内、新状态发布之前写入；抛出异常时转换被放弃
+        byte[] orderId = order.getOrderId().getBytes(StandardCharsets.UTF_8);
+        long end = append(TYPE_TRANSITION, orderId, 0.0,
+                OrderStates.ordinalOf(from), OrderStates.ordinalOf(to));
+        if (syncCommit) {
+            pendingCommit.get()[0] = end;
+        }
+    }
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        // 记录已在 beforeTransition 中写入
+    }
+
+    @Override
+    public void afterTransition(Order order) {
+        if (syncCommit) {
+            long[] pending = pendingCommit.get();
+            long end = pending[0];
+            pending[0] = 0;
+            awaitDurable(end);
+        }
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+        // 被拒绝的操作没有改变状态，不需要记录
+    }
+
+    // ==================== 追加与组提交 ====================
+
+    /**
+     * 追加一条记录
+     *
+     * @return 该记录结束处的文件偏移
+     */
+    private long append(byte type, byte[] orderId, double amount, int first, int second) {
+        if (orderId.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("订单ID过长：" + orderId.length + " 字节");
+        }
+        int payloadSize = type == TYPE_CREATED ? 8 + 1 : 1 + 1;
+        int bodySize = BODY_FIXED_SIZE + orderId.length + payloadSize;
+        int recordSize = HEADER_SIZE + bodySize;
+
+        synchronized (appendLock) {
+            if (!running) {
+                throw new IllegalStateException("日志已关闭");
+            }
+            if (writePosition - bufferBase + recordSize + HEADER_SIZE > buffer.capacity()) {
+                switchChunk();
+            }
+            // 在追加锁内取时间戳并保证单调，同一订单的记录时间戳不会倒退
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            lastTimestamp = timestamp;
+            int start = (int) (writePosition - bufferBase);
+            int bodyStart = start + HEADER_SIZE;
+            buffer.position(bodyStart);
+            buffer.put(type);
+            buffer.putLong(timestamp);
+            buffer.putShort((short) orderId.length);
+            buffer.put(orderId);
+            if (type == TYPE_CREATED) {
+                buffer.putDouble(amount);
+                buffer.put((byte) first);
+            } else {
+                buffer.put((byte) first);
+                buffer.put((byte) second);
+            }
+            crc.reset();
+            crc.update(buffer.slice(bodyStart, bodySize));
+            buffer.putInt(start + 4, (int) crc.getValue());
+            // 最后写长度，长度非0即表示记录完整可读
+            buffer.putInt(start, bodySize);
+            writePosition += recordSize;
+            return writePosition;
+        }
+    }
+
+    /**
+     * 根据提交模式决定是否等待落盘
+     */
+    private void commit(long end) {
+        if (syncCommit) {
+            awaitDurable(end);
+        }
+    }
+
+    /**
+     * 等待指定位置之前的记录全部落盘
+     *
+     * @param position 文件偏移
+     */
+    public void awaitDurable(long position) {
+        if (durablePosition.get() >= position) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            while (durablePosition.get() < position) {
+                if (!flusher.isAlive()) {
+                    throw new IllegalStateException("刷盘线程已停止，记录可能未落盘");
+                }
+                LockSupport.unpark(flusher);
+                durableAdvanced.await(1, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待日志落盘时被中断", e);
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * 刷盘线程主循环：定期或被等待者唤醒时，把新写入的记录一次性刷到磁盘
+     */
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            flush();
+        }
+        flush();
+    }
+
+    /**
+     * 把旧区域和当前映射区域中尚未落盘的部分刷到磁盘，并唤醒等待者
+     */
+    private void flush() {
+        MappedByteBuffer retired;
+        long oldBase;
+        long oldEnd;
+        MappedByteBuffer target;
+        long base;
+        long end;
+        synchronized (appendLock) {
+            retired = retiredBuffer;
+            oldBase = retiredBase;
+            oldEnd = retiredEnd;
+            retiredBuffer = null;
+            target = buffer;
+            base = bufferBase;
+            end = writePosition;
+        }
+        if (retired != null) {
+            long oldFrom = Math.max(durablePosition.get(), oldBase);
+            if (oldEnd > oldFrom) {
+                retired.force((int) (oldFrom - oldBase), (int) (oldEnd - oldFrom));
+            }
+        }
+        long from = Math.max(durablePosition.get(), base);
+        if (end > from) {
+            target.force((int) (from - base), (int) (end - from));
+        }
+        advanceDurable(end);
+    }
+
+    private void advanceDurable(long position) {
+        if (durablePosition.accumulateAndGet(position, Math::max) == position) {
+            durableLock.lock();
+            try {
+                durableAdvanced.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 当前区域放不下新记录时，从当前写入位置映射新的区域（调用方持有 appendLock）
+     *
+     * <p>旧区域交给刷盘线程刷盘，追加线程（此时持有订单锁）不等待磁盘；
+     * 只有上一个旧区域还没被刷盘线程取走时（极少见）才在这里同步刷完它。</p>
+     */
+    private void switchChunk() {
+        MappedByteBuffer old = buffer;
+        long oldBase = bufferBase;
+        try {
+            mapChunk(writePosition);
+        } catch (IOException e) {
+            throw new IllegalStateException("无法映射新的日志区域", e);
+        }
+        if (retiredBuffer != null) {
+            retiredBuffer.force();
+        }
+        retiredBuffer = old;
+        retiredBase = oldBase;
+        retiredEnd = writePosition;
+    }
+
+    private void mapChunk(long position) throws IOException {
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_SIZE);
+        this.bufferBase = position;
+    }
+
+    /**
+     * 停止追加，刷完剩余记录并关闭文件
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            running = false;
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    // ==================== 崩溃恢复 ====================
+
+    /**
+     * 重放日志，重建全部订单
+     *
+     * <p>创建记录恢复订单金额和初始状态，转换记录按顺序覆盖当前状态。
+     * {@link Order} 在订单对象的锁内写日志并修改状态，同一订单的转换记录与状态变化顺序一致，
+     * 重放时每条转换记录的源状态都必须等于订单的当前状态，否则视为日志损坏。
+     * 重放只在临时记录上进行，全部记录读完后才按最终状态创建订单，不需要修改订单状态的setter。</p>
+     *
+     * <p>没有创建记录的订单（日志挂载前已创建）无法得知金额，其转换记录被跳过，不会以错误的金额重建。</p>
+     *
+     * <p><strong>注意：</strong>订单构造函数会通知全局事件接收器，
+     * 因此应在把日志设置为 {@link Order#setEventSink(OrderEventSink)} 之前调用本方法，避免恢复过程被重新写入日志。</p>
+     *
+     * @param file 日志文件路径
+     * @return 订单ID到订单的映射，按首次出现的顺序排列
+     * @throws IOException 如果文件无法读取，或转换记录的源状态与订单当前状态不一致
+     */
+    public static Map<String, Order> recover(Path file) throws IOException {
+        Map<String, ReplayedOrder> replayed = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel, replayed, null);
+        }
+        Map<String, Order> orders = new LinkedHashMap<>();
+        for (Map.Entry<String, ReplayedOrder> entry : replayed.entrySet()) {
+            ReplayedOrder order = entry.getValue();
+            orders.put(entry.getKey(), new Order(entry.getKey(), order.amount, order.state));
+        }
+        return orders;
+    }
+
+    /**
+     * 从头扫描日志，返回最后一条完整记录之后的位置
+     *
+     * @param orders 不为null时把记录重放到该映射中
+     * @param latestTimestamp 不为null时在第0个元素中返回记录的最大时间戳
+     */
+    private static long scan(FileChannel channel, Map<String, ReplayedOrder> orders, long[] latestTimestamp)
+            throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        while (position + HEADER_SIZE <= fileSize) {
+            int windowSize = (int) Math.min(CHUNK_SIZE, fileSize - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            int offset = 0;
+            while (offset + HEADER_SIZE <= windowSize) {
+                int bodySize = window.getInt(offset);
+                if (bodySize <= 0) {
+                    return position + offset;
+                }
+                if (offset + HEADER_SIZE + bodySize > windowSize) {
+                    if (position + offset + HEADER_SIZE + bodySize > fileSize) {
+                        return position + offset;
+                    }
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(window.slice(offset + HEADER_SIZE, bodySize));
+                if ((int) crc.getValue() != window.getInt(offset + 4)) {
+                    return position + offset;
+                }
+                if (latestTimestamp != null) {
+                    latestTimestamp[0] = Math.max(latestTimestamp[0], window.getLong(offset + HEADER_SIZE + 1));
+                }
+                if (orders != null) {
+                    replay(window, offset + HEADER_SIZE, orders, position + offset);
+                }
+                offset += HEADER_SIZE + bodySize;
+            }
+            if (offset == 0) {
+                return position;
+            }
+            position += offset;
+        }
+        return position;
+    }
+
+    /**
+     * 重放一条记录
+     */
+    private static void replay(MappedByteBuffer window, int bodyStart, Map<String, ReplayedOrder> orders,
+                               long recordPosition) throws IOException {
+        int cursor = bodyStart;
+        byte type = window.get(cursor);
+        cursor += 1 + 8;
+        int idLength = window.getShort(cursor);
+        cursor += 2;
+        byte[] idBytes = new byte[idLength];
+        window.get(cursor, idBytes);
+        cursor += idLength;
+        String orderId = new String(idBytes, StandardCharsets.UTF_8);
+
+        if (type == TYPE_CREATED) {
+            double amount = window.getDouble(cursor);
+            OrderState initial = OrderStates.valueOf(window.get(cursor + 8));
+            orders.put(orderId, new ReplayedOrder(amount, initial));
+        } else if (type == TYPE_TRANSITION) {
+            OrderState from = OrderStates.valueOf(window.get(cursor));
+            OrderState to = OrderStates.valueOf(window.get(cursor + 1));
+            ReplayedOrder order = orders.get(orderId);
+            if (order == null) {
+                return;
+            }
+            if (order.state != from) {
+                throw new IOException("日志已损坏：偏移 " + recordPosition + " 处订单 " + orderId + " 的转换记录源状态为 "
+                        + from.getStateName() + "，但订单当前状态为 " + order.state.getStateName());
+            }
+            order.state = to;
+        }
+    }
+
+    /**
+     * 重放过程中的订单记录：金额和重放到当前的状态
+     */
+    private static final class ReplayedOrder {
+
+        private final double amount;
+        private OrderState state;
+
+        ReplayedOrder(double amount, OrderState state) {
+            this.amount = amount;
+            this.state = state;
+        }
+    }
+}
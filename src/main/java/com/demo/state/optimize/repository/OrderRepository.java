@@ -0,0 +1,254 @@
+package com.demo.state.optimize.repository;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.events.OrderEventSink;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 订单仓库：按状态维护二级索引
+ *
+ * <p>"查询所有已发货订单"不再需要遍历全部订单逐个比较状态名称：
+ * 仓库为每个状态维护一个索引，订单状态每次变化时增量更新。</p>
+ *
+ * <p><strong>实现要点：</strong></p>
+ * <ul>
+ *   <li><strong>增量更新</strong>：仓库本身是一个 {@link OrderEventSink}，
+ *       在 {@link Order#changeState(OrderState)} 和 {@link Order#transition} 成功后收到通知，
+ *       把订单从旧状态的索引移到新状态的索引</li>
+ *   <li><strong>并发安全</strong>：同一订单的多次转换回调可能在不同线程上乱序到达，
+ *       因此更新时不信任回调参数，而是在该订单的键锁内读取订单的最新状态进行对齐；
+ *       最后一次回调一定发生在最后一次转换之后，索引最终总与订单状态一致</li>
+ *   <li><strong>O(1)更新</strong>：每个状态的索引按订单编号分成若干段，每段是一个紧凑数组，
+ *       订单记住自己在数组中的位置，删除时用末尾元素填补空位</li>
+ *   <li><strong>按成员遍历</strong>：查询只复制目标状态各段数组中的有效部分，开销与该状态的订单数成正比</li>
+ *   <li><strong>O(1)计数</strong>：每个状态一个 {@link LongAdder} 计数器</li>
+ *   <li><strong>按编号作键</strong>：{@link Order} 按对象身份比较，同一编号的订单（例如恢复后重建的订单）以订单编号对应到同一条目</li>
+ * </ul>
+ *
+ * <p>仓库需要设置为订单事件接收器（或通过 {@link com.demo.state.optimize.events.CompositeOrderEventSink}
+ * 与其他接收器组合）才能自动收录新订单、跟踪状态变化；在此之前创建的订单可以通过 {@link #add(Order)} 收录。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderRepository implements OrderEventSink {
+
+    /**
+     * 每个状态索引的分段数，分段越多锁竞争越少
+     */
+    private static final int STRIPES = 64;
+
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    /**
+     * 订单及其在索引中的位置
+     */
+    private static final class Entry {
+
+        private final Order order;
+        private final int stripe;
+
+        /**
+         * 订单当前所在索引的状态序号，只在该订单的键锁内读写
+         */
+        private int indexedOrdinal;
+
+        /**
+         * 订单在所在分段数组中的下标，只在持有该分段锁时读写
+         */
+        private int position;
+
+        private Entry(Order order, int stripe) {
+            this.order = order;
+            this.stripe = stripe;
+        }
+    }
+
+    /**
+     * 索引分段：紧凑数组 + 有效元素个数，以自身作为锁
+     */
+    private static final class Stripe {
+
+        private Entry[] entries = new Entry[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        private synchronized void add(Entry entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entry.position = size;
+            entries[size++] = entry;
+        }
+
+        private synchronized void remove(Entry entry) {
+            int last = --size;
+            Entry moved = entries[last];
+            entries[entry.position] = moved;
+            moved.position = entry.position;
+            entries[last] = null;
+        }
+
+        private synchronized void copyTo(List<Order> target) {
+            for (int i = 0; i < size; i++) {
+                target.add(entries[i].order);
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * stripes[状态序号][分段号]
+     */
+    private final Stripe[][] stripes;
+    private final LongAdder[] counts;
+
+    /**
+     * 创建空的订单仓库
+     */
+    public OrderRepository() {
+        int stateCount = OrderStates.values().length;
+        this.stripes = new Stripe[stateCount][STRIPES];
+        this.counts = new LongAdder[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            for (int j = 0; j < STRIPES; j++) {
+                stripes[i][j] = new Stripe();
+            }
+            counts[i] = new LongAdder();
+        }
+    }
+
+    // ==================== 事件回调 ====================
+
+    @Override
+    public void onCreated(Order order) {
+        add(order);
+    }
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        entries.computeIfPresent(order.getOrderId(), (orderId, entry) -> {
+            int ordinal = OrderStates.ordinalOf(entry.order.getCurrentState());
+            if (ordinal != entry.indexedOrdinal) {
+                unindex(entry);
+                index(entry, ordinal);
+            }
+            return entry;
+        });
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+        // 被拒绝的操作没有改变状态，索引保持不变
+    }
+
+    // ==================== 收录与移除 ====================
+
+    /**
+     * 收录订单；已存在同编号订单时替换
+     *
+     * @param order 订单
+     */
+    public void add(Order order) {
+        entries.compute(order.getOrderId(), (orderId, old) -> {
+            if (old != null) {
+                unindex(old);
+            }
+            Entry entry = new Entry(order, (orderId.hashCode() & 0x7fffffff) % STRIPES);
+            index(entry, OrderStates.ordinalOf(order.getCurrentState()));
+            return entry;
+        });
+    }
+
+    /**
+     * 移除订单
+     *
+     * @param orderId 订单编号
+     * @return 被移除的订单，不存在时返回null
+     */
+    public Order remove(String orderId) {
+        Order[] removed = new Order[1];
+        entries.computeIfPresent(orderId, (id, entry) -> {
+            unindex(entry);
+            removed[0] = entry.order;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * 把订单加入指定状态的索引（调用方持有该订单的键锁）
+     */
+    private void index(Entry entry, int ordinal) {
+        stripes[ordinal][entry.stripe].add(entry);
+        counts[ordinal].increment();
+        entry.indexedOrdinal = ordinal;
+    }
+
+    /**
+     * 把订单从当前所在的索引中移除（调用方持有该订单的键锁）
+     */
+    private void unindex(Entry entry) {
+        stripes[entry.indexedOrdinal][entry.stripe].remove(entry);
+        counts[entry.indexedOrdinal].decrement();
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 根据编号查找订单
+     *
+     * @param orderId 订单编号
+     * @return 订单，不存在时返回null
+     */
+    public Order findById(String orderId) {
+        Entry entry = entries.get(orderId);
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * 获取处于指定状态的订单
+     *
+     * <p>逐段复制该状态的索引，不扫描其他状态的订单。各段分别加锁复制，
+     * 复制过程中发生的状态变化可能反映也可能不反映在结果中（弱一致性）。</p>
+     *
+     * @param state 订单状态
+     * @return 处于该状态的订单快照
+     */
+    public List<Order> findByState(OrderState state) {
+        int ordinal = OrderStates.ordinalOf(state);
+        List<Order> result = new ArrayList<>((int) Math.max(countByState(state), 0));
+        for (Stripe stripe : stripes[ordinal]) {
+            stripe.copyTo(result);
+        }
+        return result;
+    }
+
+    /**
+     * 统计处于指定状态的订单数
+     *
+     * @param state 订单状态
+     * @return 订单数
+     */
+    public long countByState(OrderState state) {
+        return counts[OrderStates.ordinalOf(state)].sum();
+    }
+
+    /**
+     * 获取仓库中的订单总数
+     *
+     * @return 订单总数
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -1,6 +1,7 @@
 package com.demo.state.optimize.states;
 
 import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
 
 /**
  * 已取消状态 - 具体状态实现
@@ -36,6 +37,24 @@ import com.demo.state.optimize.Order;
  */
 public class CancelledState implements OrderState {
 
+    /**
+     * 可执行操作描述
+     */
+    private static final String AVAILABLE_ACTIONS = "可执行操作：\n" +
+            "  ✅ 查看取消原因\n" +
+            "  ✅ 查看退款状态（如适用）\n" +
+            "  ✅ 重新下单\n" +
+            "  ❌ 支付订单（已取消）\n" +
+            "  ❌ 发货商品（已取消）\n" +
+            "  ❌ 确认收货（已取消）\n" +
+            "  ❌ 取消订单（已取消）";
+
+    /**
+     * 包级私有构造函数，请通过 {@link OrderStates#CANCELLED} 获取共享实例
+     */
+    CancelledState() {
+    }
+
     /**
      * 支付订单操作
      *
@@ -46,7 +65,7 @@ public class CancelledState implements OrderState {
      */
     @Override
     public boolean pay(Order order) {
-        System.out.println("❌ 支付失败：订单 " + order.getOrderId() + " 已取消，无法支付");
+        Order.getEventSink().onRejected(order, OrderAction.PAY, this, "已取消，无法支付");
         return false;
     }
 
@@ -60,7 +79,7 @@ public class CancelledState implements OrderState {
      */
     @Override
     public boolean ship(Order order) {
-        System.out.println("❌ 发货失败：订单 " + order.getOrderId() + " 已取消，无法发货");
+        Order.getEventSink().onRejected(order, OrderAction.SHIP, this, "已取消，无法发货");
         return false;
     }
 
@@ -74,7 +93,7 @@ public class CancelledState implements OrderState {
      */
     @Override
     public boolean confirmDelivery(Order order) {
-        System.out.println("❌ 确认收货失败：订单 " + order.getOrderId() + " 已取消，无法确认收货");
+        Order.getEventSink().onRejected(order, OrderAction.CONFIRM_DELIVERY, this, "已取消，无法确认收货");
         return false;
     }
 
@@ -88,7 +107,7 @@ public class CancelledState implements OrderState {
      */
     @Override
     public boolean cancel(Order order) {
-        System.out.println("❌ 取消失败：订单 " + order.getOrderId() + " 已经取消，请勿重复操作");
+        Order.getEventSink().onRejected(order, OrderAction.CANCEL, this, "已经取消，请勿重复操作");
         return false;
     }
 
@@ -159,13 +178,6 @@ public class CancelledState implements OrderState {
      */
     @Override
     public String getAvailableActions() {
-        return "可执行操作：\n" +
-               "  ✅ 查看取消原因\n" +
-               "  ✅ 查看退款状态（如适用）\n" +
-               "  ✅ 重新下单\n" +
-               "  ❌ 支付订单（已取消）\n" +
-               "  ❌ 发货商品（已取消）\n" +
-               "  ❌ 确认收货（已取消）\n" +
-               "  ❌ 取消订单（已取消）";
+        return AVAILABLE_ACTIONS;
     }
 }
\ No newline at end of file
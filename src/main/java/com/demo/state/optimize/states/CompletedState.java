@@ -1,6 +1,7 @@
 package com.demo.state.optimize.states;
 
 import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
 
 /**
  * 已完成状态 - 具体状态实现
@@ -36,6 +37,24 @@ import com.demo.state.optimize.Order;
  */
 public class CompletedState implements OrderState {
 
+    /**
+     * 可执行操作描述
+     */
+    private static final String AVAILABLE_ACTIONS = "可执行操作：\n" +
+            "  ✅ 查看订单详情\n" +
+            "  ✅ 申请售后服务\n" +
+            "  ✅ 商品评价\n" +
+            "  ❌ 支付订单（已完成）\n" +
+            "  ❌ 发货商品（已完成）\n" +
+            "  ❌ 确认收货（已完成）\n" +
+            "  ❌ 取消订单（已完成）";
+
+    /**
+     * 包级私有构造函数，请通过 {@link OrderStates#COMPLETED} 获取共享实例
+     */
+    CompletedState() {
+    }
+
     /**
      * 支付订单操作
      *
@@ -46,7 +65,7 @@ public class CompletedState implements OrderState {
      */
     @Override
     public boolean pay(Order order) {
-        System.out.println("❌ 支付失败：订单 " + order.getOrderId() + " 已完成，无需支付");
+        Order.getEventSink().onRejected(order, OrderAction.PAY, this, "已完成，无需支付");
         return false;
     }
 
@@ -60,7 +79,7 @@ public class CompletedState implements OrderState {
      */
     @Override
     public boolean ship(Order order) {
-        System.out.println("❌ 发货失败：订单 " + order.getOrderId() + " 已完成，无需发货");
+        Order.getEventSink().onRejected(order, OrderAction.SHIP, this, "已完成，无需发货");
         return false;
     }
 
@@ -74,7 +93,7 @@ public class CompletedState implements OrderState {
      */
     @Override
     public boolean confirmDelivery(Order order) {
-        System.out.println("❌ 确认收货失败：订单 " + order.getOrderId() + " 已完成，请勿重复确认");
+        Order.getEventSink().onRejected(order, OrderAction.CONFIRM_DELIVERY, this, "已完成，请勿重复确认");
         return false;
     }
 
@@ -95,8 +114,7 @@ public class CompletedState implements OrderState {
      */
     @Override
     public boolean cancel(Order order) {
-        System.out.println("❌ 取消失败：订单 " + order.getOrderId() + " 已完成，无法取消");
-        System.out.println("   如有问题，请通过售后流程处理");
+        Order.getEventSink().onRejected(order, OrderAction.CANCEL, this, "已完成，无法取消（如有问题，请通过售后流程处理）");
         return false;
     }
 
@@ -167,13 +185,6 @@ public class CompletedState implements OrderState {
      */
     @Override
     public String getAvailableActions() {
-        return "可执行操作：\n" +
-               "  ✅ 查看订单详情\n" +
-               "  ✅ 申请售后服务\n" +
-               "  ✅ 商品评价\n" +
-               "  ❌ 支付订单（已完成）\n" +
-               "  ❌ 发货商品（已完成）\n" +
-               "  ❌ 确认收货（已完成）\n" +
-               "  ❌ 取消订单（已完成）";
+        return AVAILABLE_ACTIONS;
     }
 }
\ No newline at end of file
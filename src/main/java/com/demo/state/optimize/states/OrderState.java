@@ -38,6 +38,11 @@ import com.demo.state.optimize.Order;
  *   <li><strong>消除条件判断</strong>：使用多态替代switch/if-else</li>
  * </ul>
  *
+ * <p><strong>并发约定：</strong>实现类执行状态转换时应调用
+ * {@link Order#transition(com.demo.state.optimize.OrderAction, OrderState, OrderState)} 并以自身作为期望状态，
+ * 转换失败说明订单已被其他线程修改，此时操作应返回 {@code false}。
+ * 拒绝操作时不直接打印日志，而是通过 {@link Order#getEventSink()} 报告拒绝原因。</p>
+ *
  * @author 软件设计与架构课程
  * @version 1.0
  * @since 1.0
@@ -66,7 +71,7 @@ public interface OrderState {
      * </ul>
      *
      * @param order 订单上下文对象，用于访问订单信息和状态转换
-     * @return 操作是否成功
+     * @return 操作是否成功；并发转换竞争失败时返回false
      */
     boolean pay(Order order);
 
@@ -80,7 +85,7 @@ public interface OrderState {
      * </ul>
      *
      * @param order 订单上下文对象
-     * @return 操作是否成功
+     * @return 操作是否成功；并发转换竞争失败时返回false
      */
     boolean ship(Order order);
 
@@ -94,7 +99,7 @@ public interface OrderState {
      * </ul>
      *
      * @param order 订单上下文对象
-     * @return 操作是否成功
+     * @return 操作是否成功；并发转换竞争失败时返回false
      */
     boolean confirmDelivery(Order order);
 
@@ -110,7 +115,7 @@ public interface OrderState {
      * </ul>
      *
      * @param order 订单上下文对象
-     * @return 操作是否成功
+     * @return 操作是否成功；并发转换竞争失败时返回false
      */
     boolean cancel(Order order);
 
@@ -0,0 +1,113 @@
+package com.demo.state.optimize.states;
+
+/**
+ * 订单状态注册表 - 享元（Flyweight）方式共享状态对象
+ *
+ * <p>所有具体状态类都是无状态的：它们不持有任何字段，所有与订单相关的数据都通过
+ * {@link com.demo.state.optimize.Order} 参数传入。因此每种状态只需要一个实例，
+ * 所有订单、所有状态转换都可以复用同一个对象，而不必在每次转换时 {@code new} 一个新状态。</p>
+ *
+ * <p><strong>设计考虑：</strong></p>
+ * <ul>
+ *   <li><strong>零分配转换</strong>：状态转换只是引用赋值，不产生短命对象</li>
+ *   <li><strong>身份比较</strong>：同一状态全局唯一，可以直接用 {@code ==} 判断</li>
+ *   <li><strong>线程安全</strong>：状态对象不可变，可被任意线程共享</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ * @see OrderState 状态接口
+ */
+public final class OrderStates {
+
+    /**
+     * 待支付状态（共享实例）
+     */
+    public static final OrderState PENDING = new PendingState();
+
+    /**
+     * 已支付状态（共享实例）
+     */
+    public static final OrderState PAID = new PaidState();
+
+    /**
+     * 已发货状态（共享实例）
+     */
+    public static final OrderState SHIPPED = new ShippedState();
+
+    /**
+     * 已完成状态（共享实例）
+     */
+    public static final OrderState COMPLETED = new CompletedState();
+
+    /**
+     * 已取消状态（共享实例）
+     */
+    public static final OrderState CANCELLED = new CancelledState();
+
+    /**
+     * 按固定顺序排列的全部状态，下标即状态序号
+     */
+    private static final OrderState[] VALUES = {PENDING, PAID, SHIPPED, COMPLETED, CANCELLED};
+
+    private OrderStates() {
+    }
+
+    /**
+     * 获取全部共享状态实例
+     *
+     * @return 状态数组的副本，顺序为 PENDING、PAID、SHIPPED、COMPLETED、CANCELLED
+     */
+    public static OrderState[] values() {
+        return VALUES.clone();
+    }
+
+    /**
+     * 获取状态序号
+     *
+     * <p>先按对象身份匹配共享实例，对于通过构造函数以外方式得到的同名状态，再按状态名称匹配。</p>
+     *
+     * @param state 状态对象
+     * @return 状态序号，即 {@link #values()} 中的下标
+     * @throws IllegalArgumentException 如果不是已知状态
+     */
+    public static int ordinalOf(OrderState state) {
+        for (int i = 0; i < VALUES.length; i++) {
+            if (VALUES[i] == state) {
+                return i;
+            }
+        }
+        return ordinalOf(valueOf(state.getStateName()));
+    }
+
+    /**
+     * 根据状态序号获取共享实例
+     *
+     * @param ordinal 状态序号
+     * @return 对应的共享状态实例
+     * @throws IllegalArgumentException 如果序号越界
+     */
+    public static OrderState valueOf(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("未知的订单状态序号：" + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /**
+     * 根据状态名称查找共享实例
+     *
+     * @param stateName 状态名称，如 "PENDING"
+     * @return 对应的共享状态实例
+     * @throws IllegalArgumentException 如果状态名称不存在
+     */
+    public static OrderState valueOf(String stateName) {
+        for (OrderState state : VALUES) {
+            if (state.getStateName().equals(stateName)) {
+                return state;
+            }
+        }
+        throw new IllegalArgumentException("未知的订单状态：" + stateName);
+    }
+}
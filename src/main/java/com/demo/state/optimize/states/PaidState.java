@@ -1,6 +1,7 @@
 package com.demo.state.optimize.states;
 
 import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
 
 /**
  * 已支付状态 - 具体状态实现
@@ -37,6 +38,21 @@ import com.demo.state.optimize.Order;
  */
 public class PaidState implements OrderState {
 
+    /**
+     * 可执行操作描述
+     */
+    private static final String AVAILABLE_ACTIONS = "可执行操作：\n" +
+            "  ✅ 发货商品\n" +
+            "  ✅ 取消订单（需要退款）\n" +
+            "  ❌ 支付订单（已支付）\n" +
+            "  ❌ 确认收货（需要先发货）";
+
+    /**
+     * 包级私有构造函数，请通过 {@link OrderStates#PAID} 获取共享实例
+     */
+    PaidState() {
+    }
+
     /**
      * 支付订单操作
      *
@@ -49,8 +65,7 @@ public class PaidState implements OrderState {
      */
     @Override
     public boolean pay(Order order) {
-        System.out.println("❌ 支付失败：订单 " + order.getOrderId() + " 已经支付，请勿重复支付");
-        System.out.println("   当前金额：" + order.getAmount() + "元");
+        Order.getEventSink().onRejected(order, OrderAction.PAY, this, "已经支付，请勿重复支付");
         return false;
     }
 
@@ -79,18 +94,11 @@ public class PaidState implements OrderState {
      */
     @Override
     public boolean ship(Order order) {
-        System.out.println("🚚 订单 " + order.getOrderId() + " 正在处理发货...");
-        System.out.println("   正在准备商品...");
-        System.out.println("   正在联系物流...");
-
         // 执行发货逻辑（这里简化处理）
         // 在实际应用中，这里会调用库存系统和物流系统
 
         // 状态转换：已支付 -> 已发货
-        order.changeState(new ShippedState());
-        System.out.println("✅ 发货成功！订单状态变更为：已发货");
-
-        return true;
+        return order.transition(OrderAction.SHIP, this, OrderStates.SHIPPED);
     }
 
     /**
@@ -103,7 +111,7 @@ public class PaidState implements OrderState {
      */
     @Override
     public boolean confirmDelivery(Order order) {
-        System.out.println("❌ 确认收货失败：订单 " + order.getOrderId() + " 尚未发货，无法确认收货");
+        Order.getEventSink().onRejected(order, OrderAction.CONFIRM_DELIVERY, this, "尚未发货，无法确认收货");
         return false;
     }
 
@@ -124,18 +132,11 @@ public class PaidState implements OrderState {
      */
     @Override
     public boolean cancel(Order order) {
-        System.out.println("🚫 订单 " + order.getOrderId() + " 正在取消...");
-        System.out.println("   订单已支付，需要处理退款");
-        System.out.println("💸 正在处理退款：" + order.getAmount() + "元");
-
         // 执行退款逻辑（这里简化处理）
         // 在实际应用中，这里会调用支付系统进行退款
 
         // 状态转换：已支付 -> 已取消
-        order.changeState(new CancelledState());
-        System.out.println("✅ 退款完成，订单已成功取消");
-
-        return true;
+        return order.transition(OrderAction.CANCEL, this, OrderStates.CANCELLED);
     }
 
     // ==================== 状态查询方法 ====================
@@ -205,10 +206,6 @@ public class PaidState implements OrderState {
      */
     @Override
     public String getAvailableActions() {
-        return "可执行操作：\n" +
-               "  ✅ 发货商品\n" +
-               "  ✅ 取消订单（需要退款）\n" +
-               "  ❌ 支付订单（已支付）\n" +
-               "  ❌ 确认收货（需要先发货）";
+        return AVAILABLE_ACTIONS;
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.demo.state.optimize.states;
 
 import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
 
 /**
  * 待支付状态 - 具体状态实现
@@ -36,6 +37,21 @@ import com.demo.state.optimize.Order;
  */
 public class PendingState implements OrderState {
 
+    /**
+     * 可执行操作描述
+     */
+    private static final String AVAILABLE_ACTIONS = "可执行操作：\n" +
+            "  ✅ 支付订单\n" +
+            "  ✅ 取消订单\n" +
+            "  ❌ 发货（需要先支付）\n" +
+            "  ❌ 确认收货（需要先发货）";
+
+    /**
+     * 包级私有构造函数，请通过 {@link OrderStates#PENDING} 获取共享实例
+     */
+    PendingState() {
+    }
+
     /**
      * 支付订单操作
      *
@@ -61,17 +77,11 @@ public class PendingState implements OrderState {
      */
     @Override
     public boolean pay(Order order) {
-        System.out.println("💰 订单 " + order.getOrderId() + " 正在处理支付...");
-        System.out.println("   支付金额：" + order.getAmount() + "元");
-
         // 执行支付逻辑（这里简化处理）
         // 在实际应用中，这里会调用支付网关接口
 
         // 状态转换：待支付 -> 已支付
-        order.changeState(new PaidState());
-        System.out.println("✅ 支付成功！订单状态变更为：已支付");
-
-        return true;
+        return order.transition(OrderAction.PAY, this, OrderStates.PAID);
     }
 
     /**
@@ -86,7 +96,7 @@ public class PendingState implements OrderState {
      */
     @Override
     public boolean ship(Order order) {
-        System.out.println("❌ 发货失败：订单 " + order.getOrderId() + " 尚未支付，无法发货");
+        Order.getEventSink().onRejected(order, OrderAction.SHIP, this, "尚未支付，无法发货");
         return false;
     }
 
@@ -100,7 +110,7 @@ public class PendingState implements OrderState {
      */
     @Override
     public boolean confirmDelivery(Order order) {
-        System.out.println("❌ 确认收货失败：订单 " + order.getOrderId() + " 尚未发货，无法确认收货");
+        Order.getEventSink().onRejected(order, OrderAction.CONFIRM_DELIVERY, this, "尚未发货，无法确认收货");
         return false;
     }
 
@@ -121,14 +131,8 @@ public class PendingState implements OrderState {
      */
     @Override
     public boolean cancel(Order order) {
-        System.out.println("🚫 订单 " + order.getOrderId() + " 正在取消...");
-        System.out.println("   订单尚未支付，可以直接取消");
-
         // 状态转换：待支付 -> 已取消
-        order.changeState(new CancelledState());
-        System.out.println("✅ 订单已成功取消");
-
-        return true;
+        return order.transition(OrderAction.CANCEL, this, OrderStates.CANCELLED);
     }
 
     // ==================== 状态查询方法 ====================
@@ -205,10 +209,6 @@ public class PendingState implements OrderState {
      */
     @Override
     public String getAvailableActions() {
-        return "可执行操作：\n" +
-               "  ✅ 支付订单\n" +
-               "  ✅ 取消订单\n" +
-               "  ❌ 发货（需要先支付）\n" +
-               "  ❌ 确认收货（需要先发货）";
+        return AVAILABLE_ACTIONS;
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.demo.state.optimize.states;
 
 import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
 
 /**
  * 已发货状态 - 具体状态实现
@@ -37,6 +38,21 @@ import com.demo.state.optimize.Order;
  */
 public class ShippedState implements OrderState {
 
+    /**
+     * 可执行操作描述
+     */
+    private static final String AVAILABLE_ACTIONS = "可执行操作：\n" +
+            "  ✅ 确认收货\n" +
+            "  ❌ 支付订单（已支付）\n" +
+            "  ❌ 发货商品（已发货）\n" +
+            "  ❌ 取消订单（已发货，请联系客服）";
+
+    /**
+     * 包级私有构造函数，请通过 {@link OrderStates#SHIPPED} 获取共享实例
+     */
+    ShippedState() {
+    }
+
     /**
      * 支付订单操作
      *
@@ -47,7 +63,7 @@ public class ShippedState implements OrderState {
      */
     @Override
     public boolean pay(Order order) {
-        System.out.println("❌ 支付失败：订单 " + order.getOrderId() + " 已发货，无需支付");
+        Order.getEventSink().onRejected(order, OrderAction.PAY, this, "已发货，无需支付");
         return false;
     }
 
@@ -61,7 +77,7 @@ public class ShippedState implements OrderState {
      */
     @Override
     public boolean ship(Order order) {
-        System.out.println("❌ 发货失败：订单 " + order.getOrderId() + " 已经发货，请勿重复发货");
+        Order.getEventSink().onRejected(order, OrderAction.SHIP, this, "已经发货，请勿重复发货");
         return false;
     }
 
@@ -90,10 +106,6 @@ public class ShippedState implements OrderState {
      */
     @Override
     public boolean confirmDelivery(Order order) {
-        System.out.println("✅ 订单 " + order.getOrderId() + " 正在确认收货...");
-        System.out.println("   感谢您的购买！商品已送达");
-        System.out.println("   订单金额：" + order.getAmount() + "元");
-
         // 执行确认收货逻辑（这里简化处理）
         // 在实际应用中，这里会：
         // 1. 更新物流状态
@@ -102,10 +114,7 @@ public class ShippedState implements OrderState {
         // 4. 可能给予积分奖励等
 
         // 状态转换：已发货 -> 已完成
-        order.changeState(new CompletedState());
-        System.out.println("🎉 订单完成！订单状态变更为：已完成");
-
-        return true;
+        return order.transition(OrderAction.CONFIRM_DELIVERY, this, OrderStates.COMPLETED);
     }
 
     /**
@@ -125,8 +134,7 @@ public class ShippedState implements OrderState {
      */
     @Override
     public boolean cancel(Order order) {
-        System.out.println("❌ 取消失败：订单 " + order.getOrderId() + " 已发货，无法直接取消");
-        System.out.println("   建议：确认收货后可申请售后处理");
+        Order.getEventSink().onRejected(order, OrderAction.CANCEL, this, "已发货，无法直接取消（建议：确认收货后可申请售后处理）");
         return false;
     }
 
@@ -197,10 +205,6 @@ public class ShippedState implements OrderState {
      */
     @Override
     public String getAvailableActions() {
-        return "可执行操作：\n" +
-               "  ✅ 确认收货\n" +
-               "  ❌ 支付订单（已支付）\n" +
-               "  ❌ 发货商品（已发货）\n" +
-               "  ❌ 取消订单（已发货，请联系客服）";
+        return AVAILABLE_ACTIONS;
     }
 }
\ No newline at end of file
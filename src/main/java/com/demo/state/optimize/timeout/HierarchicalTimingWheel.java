@@ -0,0 +1,304 @@
+package com.demo.state.optimize.timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ *
+ * <p>把时间划分为固定长度的刻度（tick），用多层环形槽位数组保存定时任务：
+ * 第0层每个槽位对应一个刻度，第 L 层每个槽位对应 256^L 个刻度。
+ * 每个槽位是一个双向链表，因此：</p>
+ * <ul>
+ *   <li><strong>插入 O(1)</strong>：根据到期刻度直接算出层号和槽位，挂到链表头部</li>
+ *   <li><strong>取消 O(1)</strong>：任务节点知道自己的前后节点，直接摘除</li>
+ *   <li><strong>推进</strong>：每个刻度只处理第0层的一个槽位；低层转完一圈时，
+ *       把上一层对应槽位中的任务重新分配（cascade）到更低的层</li>
+ * </ul>
+ *
+ * <p>由一个后台线程按刻度推进；插入、取消和推进共用一把锁，到期回调在锁外执行。</p>
+ *
+ * @param <T> 定时任务携带的数据类型
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class HierarchicalTimingWheel<T> implements AutoCloseable {
+
+    /**
+     * 每层槽位数的位数：每层256个槽位
+     */
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS_PER_LEVEL = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+
+    /**
+     * 层数：4层可覆盖 2^32 个刻度
+     */
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * 定时任务句柄，同时也是槽位链表中的节点
+     *
+     * @param <T> 携带的数据类型
+     */
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long expireTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        /**
+         * 所在的层号与槽位，-1表示不在时间轮上（由时间轮的锁保护）
+         */
+        private int level = -1;
+        private int slot;
+
+        private Timeout(T payload, long expireTick) {
+            this.payload = payload;
+            this.expireTick = expireTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Consumer<Timeout<T>> expiryHandler;
+
+    /**
+     * slots[层][槽位] 为该槽位链表的头节点（没有任务时为null）
+     */
+    private final Timeout<T>[][] slots;
+
+    /**
+     * 已经处理完的最后一个刻度
+     */
+    private long currentTick;
+    private int size;
+
+    private final Object lock = new Object();
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    /**
+     * 创建时间轮并启动推进线程
+     *
+     * @param tickDuration 刻度长度
+     * @param unit 刻度长度的单位
+     * @param expiryHandler 任务到期时的回调，接收到期任务的句柄，在推进线程上执行
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickDuration, TimeUnit unit, Consumer<Timeout<T>> expiryHandler) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("刻度长度必须大于0：" + tickDuration + " " + unit);
+        }
+        this.expiryHandler = Objects.requireNonNull(expiryHandler, "expiryHandler");
+        this.slots = (Timeout<T>[][]) new Timeout<?>[LEVELS][SLOTS_PER_LEVEL];
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::tickLoop, "timing-wheel-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    // ==================== 插入与取消 ====================
+
+    /**
+     * 注册一个定时任务
+     *
+     * @param payload 任务数据
+     * @param delay 延迟时间
+     * @param unit 延迟时间单位
+     * @return 任务句柄，可用于取消
+     */
+    public Timeout<T> schedule(T payload, long delay, TimeUnit unit) {
+        long deadlineNanos = System.nanoTime() - startNanos + unit.toNanos(Math.max(delay, 0));
+        // 向上取整，保证不会提前到期
+        long expireTick = (deadlineNanos + tickNanos - 1) / tickNanos;
+        Timeout<T> timeout = new Timeout<>(payload, expireTick);
+        synchronized (lock) {
+            link(timeout, currentTick + 1);
+            size++;
+        }
+        return timeout;
+    }
+
+    /**
+     * 取消定时任务
+     *
+     * @param timeout 任务句柄
+     * @return 是否成功取消；任务已到期或已被取消时返回false
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        synchronized (lock) {
+            if (timeout.level < 0) {
+                return false;
+            }
+            unlink(timeout);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * 获取尚未到期的任务数
+     *
+     * @return 任务数
+     */
+    public int size() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    // ==================== 槽位链表操作（调用方持有锁） ====================
+
+    /**
+     * 把任务挂到对应的槽位
+     *
+     * @param timeout 任务
+     * @param earliestTick 允许放置的最早刻度：新注册的任务不能早于下一个刻度，级联时可以放在当前刻度
+     */
+    private void link(Timeout<T> timeout, long earliestTick) {
+        long placeTick = Math.max(timeout.expireTick, earliestTick);
+        long delta = placeTick - currentTick;
+        if (delta > MAX_DELTA_TICKS) {
+            // 超出范围的任务先放在最远的位置，级联时会按真实到期刻度重新分配
+            placeTick = currentTick + MAX_DELTA_TICKS;
+            delta = MAX_DELTA_TICKS;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((placeTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        Timeout<T> head = slots[level][slot];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[level][slot] = timeout;
+        timeout.level = level;
+        timeout.slot = slot;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.level = -1;
+    }
+
+    /**
+     * 取下整个槽位的链表
+     */
+    private Timeout<T> takeSlot(int level, int slot) {
+        Timeout<T> head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    // ==================== 推进 ====================
+
+    private void tickLoop() {
+        List<Timeout<T>> expired = new ArrayList<>();
+        while (running) {
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+            synchronized (lock) {
+                while (currentTick < nowTick) {
+                    advance(expired);
+                }
+            }
+            for (Timeout<T> timeout : expired) {
+                try {
+                    expiryHandler.accept(timeout);
+                } catch (RuntimeException e) {
+                    // 单个回调失败不能影响其他任务和推进线程
+                    System.err.println("定时任务回调失败：" + e);
+                }
+            }
+            expired.clear();
+
+            long nextTickNanos = startNanos + (nowTick + 1) * tickNanos;
+            long sleepNanos = nextTickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+            }
+        }
+    }
+
+    /**
+     * 推进一个刻度：先级联上层槽位，再取出第0层当前槽位中到期的任务（调用方持有锁）
+     */
+    private void advance(List<Timeout<T>> expired) {
+        long tick = ++currentTick;
+        for (int level = 1; level < LEVELS; level++) {
+            if (((tick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) != 0) {
+                break;
+            }
+            int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Timeout<T> node = takeSlot(level, slot);
+            while (node != null) {
+                Timeout<T> next = node.next;
+                link(node, tick);
+                node = next;
+            }
+        }
+
+        Timeout<T> node = takeSlot(0, (int) (tick & SLOT_MASK));
+        while (node != null) {
+            Timeout<T> next = node.next;
+            node.prev = null;
+            node.next = null;
+            node.level = -1;
+            size--;
+            expired.add(node);
+            node = next;
+        }
+    }
+
+    /**
+     * 停止推进线程，未到期的任务不再触发
+     *
+     * <p>等待推进线程退出；等待期间调用线程被中断时继续等待，返回前恢复中断标志。
+     * 在到期回调中（即推进线程上）调用时只发出停止信号，不等待自己退出。</p>
+     */
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+        if (Thread.currentThread() == ticker) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ticker.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.demo.state.optimize.timeout;
+
+import com.demo.state.optimize.Order;
+import com.demo.state.optimize.OrderAction;
+import com.demo.state.optimize.events.OrderEventSink;
+import com.demo.state.optimize.states.OrderState;
+import com.demo.state.optimize.states.OrderStates;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 待支付订单超时自动取消调度器
+ *
+ * <p>作为 {@link OrderEventSink} 接入订单状态机：</p>
+ * <ul>
+ *   <li><strong>进入待支付状态</strong>（创建订单，或转换到待支付）时，在 {@link HierarchicalTimingWheel} 上登记一个超时任务</li>
+ *   <li><strong>离开待支付状态</strong>（支付、取消等）时，取消对应的超时任务</li>
+ *   <li><strong>超时到期</strong>时，以条件转换把订单从待支付转换为已取消；
+ *       如果订单恰好在同一时刻被支付，条件转换失败，支付结果优先</li>
+ * </ul>
+ *
+ * <p>超时任务以订单编号为键保存（{@link Order} 按对象身份比较，以编号为键与订单仓库保持一致）。
+ * 由于全局只有一个事件接收器，需要与其他接收器同时使用时请借助
+ * {@link com.demo.state.optimize.events.CompositeOrderEventSink}。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class PaymentTimeoutScheduler implements OrderEventSink, AutoCloseable {
+
+    /**
+     * 默认刻度长度（毫秒）
+     */
+    private static final long DEFAULT_TICK_MILLIS = 100;
+
+    private final long timeoutNanos;
+    private final HierarchicalTimingWheel<Order> wheel;
+    private final ConcurrentHashMap<String, HierarchicalTimingWheel.Timeout<Order>> timeouts =
+            new ConcurrentHashMap<>();
+
+    /**
+     * 创建调度器，使用默认刻度长度
+     *
+     * @param timeout 支付超时时间
+     * @param unit 时间单位
+     */
+    public PaymentTimeoutScheduler(long timeout, TimeUnit unit) {
+        this(timeout, unit, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 创建调度器
+     *
+     * @param timeout 支付超时时间
+     * @param unit 超时时间单位
+     * @param tickDuration 时间轮刻度长度，决定超时的精度
+     * @param tickUnit 刻度长度单位
+     */
+    public PaymentTimeoutScheduler(long timeout, TimeUnit unit, long tickDuration, TimeUnit tickUnit) {
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.wheel = new HierarchicalTimingWheel<>(tickDuration, tickUnit, this::expire);
+    }
+
+    @Override
+    public void onCreated(Order order) {
+        if (order.getCurrentState() == OrderStates.PENDING) {
+            register(order);
+        }
+    }
+
+    @Override
+    public void onTransition(Order order, OrderAction action, OrderState from, OrderState to) {
+        if (from == OrderStates.PENDING) {
+            deregister(order);
+        }
+        if (to == OrderStates.PENDING) {
+            register(order);
+        }
+    }
+
+    @Override
+    public void onRejected(Order order, OrderAction action, OrderState state, String reason) {
+        // 被拒绝的操作没有改变状态，超时任务保持不变
+    }
+
+    /**
+     * 登记超时任务；同一订单重复登记时替换旧任务
+     */
+    private void register(Order order) {
+        HierarchicalTimingWheel.Timeout<Order> previous =
+                timeouts.put(order.getOrderId(), wheel.schedule(order, timeoutNanos, TimeUnit.NANOSECONDS));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    private void deregister(Order order) {
+        HierarchicalTimingWheel.Timeout<Order> timeout = timeouts.remove(order.getOrderId());
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+    }
+
+    /**
+     * 超时到期回调，在时间轮推进线程上执行
+     */
+    private void expire(HierarchicalTimingWheel.Timeout<Order> timeout) {
+        Order order = timeout.getPayload();
+        // 只处理仍然登记在册的任务：已被支付注销或被新任务替换的，不再取消订单
+        if (timeouts.remove(order.getOrderId(), timeout)
+                && order.getCurrentState() == OrderStates.PENDING) {
+            order.transition(OrderAction.CANCEL, OrderStates.PENDING, OrderStates.CANCELLED);
+        }
+    }
+
+    /**
+     * 获取尚未到期的超时任务数
+     *
+     * @return 待支付且已登记超时的订单数
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * 停止调度，未到期的订单不再自动取消
+     */
+    @Override
+    public void close() {
+        wheel.close();
+    }
+}
@@ -0,0 +1,343 @@
+package com.demo.state.origin;
+
+import com.demo.state.origin.Order.OrderStatus;
+import com.demo.state.table.TransitionMatrix;
+
+import java.util.Arrays;
+
+/**
+ * 列式订单表 - 面向海量订单的存储方式
+ *
+ * <p>{@link Order} 每个订单都是一个堆对象（对象头、字段引用、订单ID字符串及其字节数组），
+ * 当内存中需要常驻数千万订单时，这些开销远大于订单本身的数据。
+ * 本类把同一字段的所有值存放在同一个基本类型数组中（列式存储），每个订单只占用每列的一个元素：</p>
+ * <ul>
+ *   <li>订单ID：{@code long}（与 {@link Order} 的 {@code String} 订单ID不同，见下文）</li>
+ *   <li>金额：{@code long}，单位为分，避免浮点误差</li>
+ *   <li>状态：{@code byte}，即 {@link OrderStatus#ordinal()}</li>
+ *   <li>创建时间、更新时间：{@code long}</li>
+ * </ul>
+ *
+ * <p>订单通过行号访问，状态转换复用 {@link TransitionMatrix} 中由 {@link OrderStatus} 规则编译出的转换矩阵。
+ * 另外维护一个只保存行号的开放寻址索引（{@code int[]}），用于按订单ID查找行号，同样不创建任何包装对象。</p>
+ *
+ * <p><strong>订单ID类型：</strong>{@link Order} 的订单ID是任意字符串，本类为了不给每个订单保存字符串对象，
+ * 把订单ID收窄为 {@code long}，只能直接存放数字ID（例如 {@code "ORD100000001"} 去掉固定前缀后的 {@code 100000001}）。
+ * 订单ID不是"固定前缀 + 数字"形式的系统，需要由调用方自行维护字符串ID与 {@code long} 编号之间的映射，
+ * 本类不接受也不保存字符串ID，{@link #getOrderId(int)} 返回的也只是这个数字编号。</p>
+ *
+ * <p><strong>内存估算：</strong>每个订单约占 33 字节的列数据加上 4~8 字节的索引槽位，
+ * 而一个 {@link Order} 对象连同订单ID字符串和所在的 {@code HashMap} 条目约需 140 字节以上。</p>
+ *
+ * <p><strong>注意：</strong>与 {@link Order} 一样，本类不是线程安全的。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderTable {
+
+    /**
+     * 索引中表示空槽位的行号
+     */
+    private static final int NO_ROW = -1;
+
+    private long[] orderIds;
+    private long[] amountCents;
+    private byte[] statuses;
+    private long[] createTimes;
+    private long[] updateTimes;
+    private int size;
+
+    /**
+     * 订单ID索引：线性探测哈希表，槽位中只保存行号，订单ID直接从 {@link #orderIds} 列读取
+     */
+    private int[] indexRows;
+
+    /**
+     * 创建订单表
+     *
+     * @param initialCapacity 预计的订单数，预先分配可以避免扩容时的数组复制
+     */
+    public OrderTable(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        this.orderIds = new long[capacity];
+        this.amountCents = new long[capacity];
+        this.statuses = new byte[capacity];
+        this.createTimes = new long[capacity];
+        this.updateTimes = new long[capacity];
+        allocateIndex(indexCapacityFor(capacity));
+    }
+
+    // ==================== 新增与查找 ====================
+
+    /**
+     * 新增订单，初始状态为 PENDING（待支付）
+     *
+     * @param orderId 订单唯一标识
+     * @param amountCents 订单金额（分），必须大于0
+     * @return 新订单的行号
+     * @throws IllegalArgumentException 如果订单ID已存在或金额不合法
+     */
+    public int add(long orderId, long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("订单金额必须大于0：" + amountCents);
+        }
+        if (indexOf(orderId) != NO_ROW) {
+            throw new IllegalArgumentException("订单已存在：" + orderId);
+        }
+        if (size == orderIds.length) {
+            grow();
+        }
+        int row = size++;
+        long now = System.currentTimeMillis();
+        this.orderIds[row] = orderId;
+        this.amountCents[row] = amountCents;
+        this.statuses[row] = (byte) OrderStatus.PENDING.ordinal();
+        this.createTimes[row] = now;
+        this.updateTimes[row] = now;
+        insertIndex(orderId, row);
+        return row;
+    }
+
+    /**
+     * 按订单ID查找行号
+     *
+     * @param orderId 订单ID
+     * @return 行号；不存在时返回-1
+     */
+    public int indexOf(long orderId) {
+        int mask = indexRows.length - 1;
+        for (int slot = hash(orderId) & mask; ; slot = (slot + 1) & mask) {
+            int row = indexRows[slot];
+            if (row == NO_ROW) {
+                return NO_ROW;
+            }
+            if (orderIds[row] == orderId) {
+                return row;
+            }
+        }
+    }
+
+    /**
+     * 获取订单数量
+     *
+     * @return 订单数量
+     */
+    public int size() {
+        return size;
+    }
+
+    // ==================== 状态转换（按行号） ====================
+
+    /**
+     * 按转换矩阵执行一次操作
+     *
+     * @param row 行号
+     * @param action 操作序号，见 {@link TransitionMatrix} 中的常量
+     * @param timestamp 操作时间，成功时写入更新时间
+     * @return 操作是否成功
+     */
+    public boolean transition(int row, int action, long timestamp) {
+        checkRow(row);
+        byte target = TransitionMatrix.target(statuses[row], action);
+        if (target == TransitionMatrix.ILLEGAL) {
+            return false;
+        }
+        statuses[row] = target;
+        updateTimes[row] = timestamp;
+        return true;
+    }
+
+    /**
+     * 支付订单
+     *
+     * @param row 行号
+     * @return 操作是否成功
+     */
+    public boolean pay(int row) {
+        return transition(row, TransitionMatrix.PAY, System.currentTimeMillis());
+    }
+
+    /**
+     * 发货
+     *
+     * @param row 行号
+     * @return 操作是否成功
+     */
+    public boolean ship(int row) {
+        return transition(row, TransitionMatrix.SHIP, System.currentTimeMillis());
+    }
+
+    /**
+     * 确认收货
+     *
+     * @param row 行号
+     * @return 操作是否成功
+     */
+    public boolean confirmDelivery(int row) {
+        return transition(row, TransitionMatrix.CONFIRM_DELIVERY, System.currentTimeMillis());
+    }
+
+    /**
+     * 取消订单
+     *
+     * @param row 行号
+     * @return 操作是否成功
+     */
+    public boolean cancel(int row) {
+        return transition(row, TransitionMatrix.CANCEL, System.currentTimeMillis());
+    }
+
+    /**
+     * 检查是否可以支付
+     *
+     * @param row 行号
+     * @return 是否可以支付
+     */
+    public boolean canPay(int row) {
+        checkRow(row);
+        return TransitionMatrix.isLegal(statuses[row], TransitionMatrix.PAY);
+    }
+
+    /**
+     * 检查是否可以发货
+     *
+     * @param row 行号
+     * @return 是否可以发货
+     */
+    public boolean canShip(int row) {
+        checkRow(row);
+        return TransitionMatrix.isLegal(statuses[row], TransitionMatrix.SHIP);
+    }
+
+    /**
+     * 检查是否可以取消
+     *
+     * @param row 行号
+     * @return 是否可以取消
+     */
+    public boolean canCancel(int row) {
+        checkRow(row);
+        return TransitionMatrix.isLegal(statuses[row], TransitionMatrix.CANCEL);
+    }
+
+    // ==================== 列读取 ====================
+
+    /**
+     * 获取订单ID
+     *
+     * @param row 行号
+     * @return 订单ID
+     */
+    public long getOrderId(int row) {
+        checkRow(row);
+        return orderIds[row];
+    }
+
+    /**
+     * 获取订单金额（分）
+     *
+     * @param row 行号
+     * @return 订单金额（分）
+     */
+    public long getAmountCents(int row) {
+        checkRow(row);
+        return amountCents[row];
+    }
+
+    /**
+     * 获取订单当前状态
+     *
+     * @param row 行号
+     * @return 当前状态
+     */
+    public OrderStatus getStatus(int row) {
+        checkRow(row);
+        return TransitionMatrix.statusOf(statuses[row]);
+    }
+
+    /**
+     * 获取创建时间
+     *
+     * @param row 行号
+     * @return 创建时间
+     */
+    public long getCreateTime(int row) {
+        checkRow(row);
+        return createTimes[row];
+    }
+
+    /**
+     * 获取最后更新时间
+     *
+     * @param row 行号
+     * @return 最后更新时间
+     */
+    public long getUpdateTime(int row) {
+        checkRow(row);
+        return updateTimes[row];
+    }
+
+    // ==================== 内部方法 ====================
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("行号越界：" + row + "，订单数量：" + size);
+        }
+    }
+
+    /**
+     * 所有列容量翻倍，并按新容量重建索引
+     */
+    private void grow() {
+        int capacity = orderIds.length * 2;
+        if (capacity < 0) {
+            throw new IllegalStateException("订单表容量已达上限：" + orderIds.length);
+        }
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        createTimes = Arrays.copyOf(createTimes, capacity);
+        updateTimes = Arrays.copyOf(updateTimes, capacity);
+
+        allocateIndex(indexCapacityFor(capacity));
+        for (int row = 0; row < size; row++) {
+            insertIndex(orderIds[row], row);
+        }
+    }
+
+    /**
+     * 计算索引容量：不小于行容量4/3倍的2的幂，使装载因子不超过3/4
+     */
+    private static int indexCapacityFor(int rowCapacity) {
+        long wanted = ((long) rowCapacity * 4 + 2) / 3;
+        long capacity = Long.highestOneBit(Math.max(wanted, 2) - 1) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalStateException("订单索引容量超出上限：" + rowCapacity);
+        }
+        return (int) capacity;
+    }
+
+    private void allocateIndex(int capacity) {
+        indexRows = new int[capacity];
+        Arrays.fill(indexRows, NO_ROW);
+    }
+
+    private void insertIndex(long orderId, int row) {
+        int mask = indexRows.length - 1;
+        int slot = hash(orderId) & mask;
+        while (indexRows[slot] != NO_ROW) {
+            slot = (slot + 1) & mask;
+        }
+        indexRows[slot] = row;
+    }
+
+    /**
+     * 对订单ID做位混合，避免连续ID在线性探测时聚集
+     */
+    private static int hash(long orderId) {
+        long h = orderId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
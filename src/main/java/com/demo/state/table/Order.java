@@ -0,0 +1,170 @@
+package com.demo.state.table;
+
+import com.demo.state.origin.Order.OrderStatus;
+import lombok.Getter;
+
+/**
+ * 订单类 - 表驱动状态管理方式
+ *
+ * <p>提供与 {@code origin.Order}、{@code optimize.Order} 相同的操作接口，
+ * 但状态只用一个 {@code byte} 序号表示，所有合法性判断和目标状态都来自预先编译好的
+ * {@link TransitionMatrix}，调用时既没有switch分支，也没有多态分派。</p>
+ *
+ * <p><strong>适用场景：</strong></p>
+ * <ul>
+ *   <li>状态和操作数量固定、规则简单，主要关注吞吐量</li>
+ *   <li>各状态之间的行为差异只体现在"是否允许"和"转到哪里"，没有复杂的业务逻辑</li>
+ * </ul>
+ *
+ * <p>与状态模式版本一样，本实现只负责状态流转，不记录时间戳，也不输出任何日志。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ * @see TransitionMatrix 转换矩阵
+ */
+@Getter
+public class Order {
+
+    /**
+     * 订单ID
+     */
+    private final String orderId;
+
+    /**
+     * 订单金额
+     */
+    private final double amount;
+
+    /**
+     * 当前状态序号，对应 {@link OrderStatus#ordinal()}
+     */
+    private byte status;
+
+    /**
+     * 构造函数
+     *
+     * <p>创建新订单时，初始状态为 PENDING（待支付）。</p>
+     *
+     * @param orderId 订单唯一标识
+     * @param amount 订单金额，必须大于0
+     */
+    public Order(String orderId, double amount) {
+        this.orderId = orderId;
+        this.amount = amount;
+        this.status = (byte) OrderStatus.PENDING.ordinal();
+    }
+
+    /**
+     * 查表执行一次操作
+     *
+     * @param action 操作序号
+     * @return 操作是否成功
+     */
+    private boolean apply(int action) {
+        byte target = TransitionMatrix.target(status, action);
+        if (target == TransitionMatrix.ILLEGAL) {
+            return false;
+        }
+        status = target;
+        return true;
+    }
+
+    // ==================== 业务操作方法 ====================
+
+    /**
+     * 支付订单
+     *
+     * @return 操作是否成功
+     */
+    public boolean pay() {
+        return apply(TransitionMatrix.PAY);
+    }
+
+    /**
+     * 发货操作
+     *
+     * @return 操作是否成功
+     */
+    public boolean ship() {
+        return apply(TransitionMatrix.SHIP);
+    }
+
+    /**
+     * 确认收货操作
+     *
+     * @return 操作是否成功
+     */
+    public boolean confirmDelivery() {
+        return apply(TransitionMatrix.CONFIRM_DELIVERY);
+    }
+
+    /**
+     * 取消订单操作
+     *
+     * @return 操作是否成功
+     */
+    public boolean cancel() {
+        return apply(TransitionMatrix.CANCEL);
+    }
+
+    // ==================== 状态查询方法 ====================
+
+    /**
+     * 检查是否可以支付
+     *
+     * @return 是否可以支付
+     */
+    public boolean canPay() {
+        return TransitionMatrix.isLegal(status, TransitionMatrix.PAY);
+    }
+
+    /**
+     * 检查是否可以发货
+     *
+     * @return 是否可以发货
+     */
+    public boolean canShip() {
+        return TransitionMatrix.isLegal(status, TransitionMatrix.SHIP);
+    }
+
+    /**
+     * 检查是否可以取消
+     *
+     * @return 是否可以取消
+     */
+    public boolean canCancel() {
+        return TransitionMatrix.isLegal(status, TransitionMatrix.CANCEL);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 获取当前状态
+     *
+     * @return 当前状态枚举
+     */
+    public OrderStatus getCurrentStatus() {
+        return TransitionMatrix.statusOf(status);
+    }
+
+    /**
+     * 获取当前状态描述
+     *
+     * @return 状态描述信息
+     */
+    public String getStatusDescription() {
+        return getCurrentStatus().getDescription();
+    }
+
+    /**
+     * 获取订单详细信息
+     *
+     * @return 订单信息字符串
+     */
+    @Override
+    public String toString() {
+        return String.format("Order{id='%s', amount=%.2f, status=%s}",
+                           orderId, amount, getStatusDescription());
+    }
+}
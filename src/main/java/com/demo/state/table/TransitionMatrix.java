@@ -0,0 +1,137 @@
+package com.demo.state.table;
+
+import com.demo.state.origin.Order.OrderStatus;
+
+import java.util.Arrays;
+
+/**
+ * 订单状态转换矩阵 - 表驱动方式
+ *
+ * <p>把"某状态下执行某操作是否合法、合法时转换到哪个状态"这套规则在类加载时一次性编译成
+ * 一个稠密的 {@code byte[][]} 矩阵：行是 {@link OrderStatus} 的序号，列是操作序号，
+ * 单元格保存目标状态的序号，非法操作用 {@link #ILLEGAL} 表示。</p>
+ *
+ * <p><strong>与另外两种实现对比：</strong></p>
+ * <ul>
+ *   <li><strong>传统方式</strong>：每个方法一个switch，每次调用都要重新判断</li>
+ *   <li><strong>状态模式</strong>：每次调用经过一次多态分派</li>
+ *   <li><strong>表驱动</strong>：每次调用只是两次数组下标访问，规则集中声明在 {@link #RULES} 中</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TransitionMatrix {
+
+    /**
+     * 操作序号：支付
+     */
+    public static final int PAY = 0;
+
+    /**
+     * 操作序号：发货
+     */
+    public static final int SHIP = 1;
+
+    /**
+     * 操作序号：确认收货
+     */
+    public static final int CONFIRM_DELIVERY = 2;
+
+    /**
+     * 操作序号：取消
+     */
+    public static final int CANCEL = 3;
+
+    /**
+     * 操作总数
+     */
+    public static final int ACTION_COUNT = 4;
+
+    /**
+     * 表示非法转换的单元格值
+     */
+    public static final byte ILLEGAL = -1;
+
+    /**
+     * 转换规则：{源状态, 操作, 目标状态}
+     *
+     * <p>这是整套状态机唯一的规则来源，与 {@code origin.Order} 中各个switch语句的语义一致。</p>
+     */
+    private static final Object[][] RULES = {
+            {OrderStatus.PENDING, PAY, OrderStatus.PAID},
+            {OrderStatus.PENDING, CANCEL, OrderStatus.CANCELLED},
+            {OrderStatus.PAID, SHIP, OrderStatus.SHIPPED},
+            {OrderStatus.PAID, CANCEL, OrderStatus.CANCELLED},
+            {OrderStatus.SHIPPED, CONFIRM_DELIVERY, OrderStatus.COMPLETED},
+    };
+
+    /**
+     * 编译后的矩阵：MATRIX[状态序号][操作序号] = 目标状态序号 或 ILLEGAL
+     */
+    private static final byte[][] MATRIX = compile();
+
+    /**
+     * 状态序号到枚举的映射，避免每次调用 values() 复制数组
+     */
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private TransitionMatrix() {
+    }
+
+    /**
+     * 把规则表编译成稠密矩阵
+     *
+     * @return 编译后的矩阵
+     * @throws IllegalStateException 如果同一状态、同一操作声明了多条规则
+     */
+    private static byte[][] compile() {
+        byte[][] matrix = new byte[OrderStatus.values().length][ACTION_COUNT];
+        for (byte[] row : matrix) {
+            Arrays.fill(row, ILLEGAL);
+        }
+        for (Object[] rule : RULES) {
+            OrderStatus from = (OrderStatus) rule[0];
+            int action = (Integer) rule[1];
+            OrderStatus to = (OrderStatus) rule[2];
+            if (matrix[from.ordinal()][action] != ILLEGAL) {
+                throw new IllegalStateException("重复的转换规则：" + from + " / 操作" + action);
+            }
+            matrix[from.ordinal()][action] = (byte) to.ordinal();
+        }
+        return matrix;
+    }
+
+    /**
+     * 查询转换目标
+     *
+     * @param status 当前状态序号
+     * @param action 操作序号
+     * @return 目标状态序号；非法时返回 {@link #ILLEGAL}
+     */
+    public static byte target(int status, int action) {
+        return MATRIX[status][action];
+    }
+
+    /**
+     * 判断操作在当前状态下是否合法
+     *
+     * @param status 当前状态序号
+     * @param action 操作序号
+     * @return 是否合法
+     */
+    public static boolean isLegal(int status, int action) {
+        return MATRIX[status][action] != ILLEGAL;
+    }
+
+    /**
+     * 根据序号获取状态枚举
+     *
+     * @param ordinal 状态序号
+     * @return 对应的状态枚举
+     */
+    public static OrderStatus statusOf(int ordinal) {
+        return STATUSES[ordinal];
+    }
+}
@@ -2,6 +2,7 @@ package com.demo.strategy;
 
 import com.demo.strategy.concretes.Book;
 import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.observers.ConsoleDiscountObserver;
 import com.demo.strategy.strategies.ComputerBookDiscountStrategy;
 import com.demo.strategy.strategies.EnglishBookDiscountStrategy;
 import com.demo.strategy.strategies.NoDiscountStrategy;
@@ -90,6 +91,9 @@ public class BookSaleSystem {
      * @param args 命令行参数（本程序未使用）
      */
     public static void main(String[] args) {
+        // 策略本身不输出日志，演示时通过控制台观察者打印每次应用的策略
+        Book.setDiscountObserver(new ConsoleDiscountObserver());
+
         // === 策略对象准备阶段 ===
         // 预先创建好各种策略对象，在实际应用中这些可能通过工厂模式或依赖注入来管理
 
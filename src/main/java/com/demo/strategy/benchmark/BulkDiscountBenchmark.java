@@ -0,0 +1,102 @@
+package com.demo.strategy.benchmark;
+
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.strategies.ComputerBookDiscountStrategy;
+import com.demo.strategy.strategies.EnglishBookDiscountStrategy;
+import com.demo.strategy.strategies.NoDiscountStrategy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 批量定价基准测试
+ *
+ * <p>对三种固定折扣率策略分别比较两种定价方式的吞吐量：</p>
+ * <ul>
+ *   <li><strong>逐本定价</strong>：每个价格调用一次 {@link DiscountStrategy#calculateDiscount(double)}</li>
+ *   <li><strong>批量定价</strong>：一次调用 {@link DiscountStrategy#calculateDiscount(double[], double[], int, int)}
+ *       处理整个价格数组</li>
+ * </ul>
+ *
+ * <p>两种方式的结果会逐位比较，确保批量路径与逐本路径完全一致。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class BulkDiscountBenchmark {
+
+    private static final int PRICE_COUNT = 1_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int SCALAR_ROUNDS = 50;
+    private static final int BULK_ROUNDS = 200;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    public static void main(String[] args) {
+        System.out.println("=== 批量定价基准测试 ===");
+        System.out.println("每轮价格数：" + PRICE_COUNT);
+
+        double[] prices = createPrices();
+        DiscountStrategy[] strategies = {
+                new ComputerBookDiscountStrategy(),
+                new EnglishBookDiscountStrategy(),
+                new NoDiscountStrategy()
+        };
+
+        // 实际的目录重新定价任务会混合使用多种策略，先让逐本定价的调用点见过全部策略（多态调用）
+        double[] scratch = new double[PRICE_COUNT];
+        for (DiscountStrategy strategy : strategies) {
+            priceOneByOne(strategy, prices, scratch);
+        }
+
+        for (DiscountStrategy strategy : strategies) {
+            double[] scalarResult = new double[PRICE_COUNT];
+            double[] bulkResult = new double[PRICE_COUNT];
+
+            double scalarNanos = measure(() -> priceOneByOne(strategy, prices, scalarResult), SCALAR_ROUNDS);
+            double bulkNanos = measure(() -> strategy.calculateDiscount(prices, bulkResult, 0, PRICE_COUNT),
+                    BULK_ROUNDS);
+
+            System.out.printf("%-30s 逐本 %8.2f ns/本（%7.1f 百万本/秒）  批量 %6.3f ns/本（%7.1f 百万本/秒）  %s%n",
+                    strategy.getClass().getSimpleName(),
+                    scalarNanos, 1e3 / scalarNanos, bulkNanos, 1e3 / bulkNanos,
+                    Arrays.equals(scalarResult, bulkResult) ? "✅ 结果一致" : "❌ 结果不一致");
+        }
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static double[] createPrices() {
+        Random random = new Random(42);
+        double[] prices = new double[PRICE_COUNT];
+        for (int i = 0; i < PRICE_COUNT; i++) {
+            prices[i] = (1_000 + random.nextInt(19_000)) / 100.0;
+        }
+        return prices;
+    }
+
+    private static void priceOneByOne(DiscountStrategy strategy, double[] prices, double[] result) {
+        for (int i = 0; i < prices.length; i++) {
+            result[i] = strategy.calculateDiscount(prices[i]);
+        }
+    }
+
+    /**
+     * 预热后测量，返回平均每个价格的纳秒数
+     */
+    private static double measure(Runnable round, int rounds) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            round.run();
+        }
+        long nanos = System.nanoTime() - start;
+        blackhole += nanos;
+        return (double) nanos / ((long) rounds * PRICE_COUNT);
+    }
+}
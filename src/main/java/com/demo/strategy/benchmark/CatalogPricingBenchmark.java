@@ -0,0 +1,137 @@
+package com.demo.strategy.benchmark;
+
+import com.demo.strategy.catalog.BookCatalog;
+import com.demo.strategy.catalog.CatalogPricing;
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.strategies.ComputerBookDiscountStrategy;
+import com.demo.strategy.strategies.EnglishBookDiscountStrategy;
+import com.demo.strategy.strategies.FixedRateDiscountStrategy;
+import com.demo.strategy.strategies.NoDiscountStrategy;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 列式图书目录定价基准测试
+ *
+ * <p>对同一批图书比较整目录重新定价（折后价 + 营业额 + 平均优惠）的三种方式：</p>
+ * <ul>
+ *   <li><strong>Book 对象逐本定价</strong>：遍历 {@code Book[]} 调用 {@link Book#getFinalPrice()} 并累加汇总</li>
+ *   <li><strong>列式目录，单线程</strong>：{@link BookCatalog#computeFinalPrices(ForkJoinPool)}，并行度为1的线程池</li>
+ *   <li><strong>列式目录，公共线程池</strong>：{@link BookCatalog#computeFinalPrices()}</li>
+ * </ul>
+ *
+ * <p>图书的策略随机分布，逐本定价的调用点是多态的。三种方式的折后价逐本比较，汇总值允许求和顺序带来的舍入差异。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class CatalogPricingBenchmark {
+
+    private static final int BOOK_COUNT = 2_000_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 20;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    public static void main(String[] args) {
+        System.out.println("=== 列式图书目录定价基准测试 ===");
+        System.out.println("图书数：" + BOOK_COUNT + "，公共线程池并行度：" + ForkJoinPool.commonPool().getParallelism());
+
+        DiscountStrategy[] strategies = {
+                new ComputerBookDiscountStrategy(),
+                new EnglishBookDiscountStrategy(),
+                new NoDiscountStrategy(),
+                FixedRateDiscountStrategy.parse("0.85")
+        };
+        Random random = new Random(42);
+        Book[] books = new Book[BOOK_COUNT];
+        BookCatalog catalog = new BookCatalog(BOOK_COUNT);
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            books[i] = new Book("图书-" + i, (1_000 + random.nextInt(19_000)) / 100.0,
+                    strategies[random.nextInt(strategies.length)]);
+            catalog.add(books[i]);
+        }
+
+        double[] objectPrices = new double[BOOK_COUNT];
+        double[] objectTotals = new double[2];
+        double objectNanos = measure(() -> priceBooks(books, objectPrices, objectTotals));
+        report("Book 对象逐本定价", objectNanos, objectNanos);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        CatalogPricing[] singleResult = new CatalogPricing[1];
+        double singleNanos = measure(() -> singleResult[0] = catalog.computeFinalPrices(single));
+        single.shutdown();
+        report("列式目录，单线程", singleNanos, objectNanos);
+
+        CatalogPricing[] parallelResult = new CatalogPricing[1];
+        double parallelNanos = measure(() -> parallelResult[0] = catalog.computeFinalPrices());
+        report("列式目录，公共线程池", parallelNanos, objectNanos);
+
+        CatalogPricing pricing = parallelResult[0];
+        System.out.printf("营业额：%.2f 元，原价合计：%.2f 元，平均每本优惠：%.4f 元，整体折扣比例：%.2f%%%n",
+                pricing.getTotalRevenue(), pricing.getTotalOriginalPrice(),
+                pricing.getAverageDiscount(), 100 * pricing.getAverageDiscountRate());
+        boolean consistent = samePrices(objectPrices, singleResult[0].getFinalPrices())
+                && samePrices(objectPrices, pricing.getFinalPrices())
+                && close(objectTotals[0], pricing.getTotalOriginalPrice())
+                && close(objectTotals[1], pricing.getTotalRevenue());
+        System.out.println(consistent ? "✅ 三种方式结果一致" : "❌ 结果不一致");
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void priceBooks(Book[] books, double[] finalPrices, double[] totals) {
+        double original = 0;
+        double revenue = 0;
+        for (int i = 0; i < books.length; i++) {
+            double price = books[i].getFinalPrice();
+            finalPrices[i] = price;
+            original += books[i].getOriginalPrice();
+            revenue += price;
+        }
+        totals[0] = original;
+        totals[1] = revenue;
+    }
+
+    /**
+     * 预热后测量，返回平均每本书的纳秒数
+     */
+    private static double measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            round.run();
+        }
+        long nanos = System.nanoTime() - start;
+        blackhole += nanos;
+        return (double) nanos / ((long) MEASURE_ROUNDS * BOOK_COUNT);
+    }
+
+    private static void report(String label, double nanosPerBook, double baselineNanos) {
+        System.out.printf("%-20s %7.2f ns/本（%7.1f 百万本/秒）  相对逐本定价 %5.2fx%n",
+                label, nanosPerBook, 1e3 / nanosPerBook, baselineNanos / nanosPerBook);
+    }
+
+    private static boolean samePrices(double[] expected, double[] actual) {
+        if (expected.length != actual.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.doubleToLongBits(expected[i]) != Double.doubleToLongBits(actual[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean close(double expected, double actual) {
+        return Math.abs(expected - actual) <= Math.abs(expected) * 1e-12;
+    }
+}
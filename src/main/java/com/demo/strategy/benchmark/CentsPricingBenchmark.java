@@ -0,0 +1,104 @@
+package com.demo.strategy.benchmark;
+
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.strategies.ComputerBookDiscountStrategy;
+import com.demo.strategy.strategies.EnglishBookDiscountStrategy;
+import com.demo.strategy.strategies.NoDiscountStrategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * 按分精确定价基准测试
+ *
+ * <p>以 {@code BigDecimal} 精确计算（原价 × 折扣率，银行家舍入到分）作为标准答案，比较三种定价方式：</p>
+ * <ul>
+ *   <li><strong>double 直接换算</strong>：{@link Book#getFinalPrice()} × 100 截断为分，统计与标准答案不一致的数量</li>
+ *   <li><strong>double + BigDecimal 重新舍入</strong>：对账任务原先的补救做法</li>
+ *   <li><strong>long 分</strong>：{@link Book#getFinalPriceCents()}</li>
+ * </ul>
+ * <p>分别统计每种方式的耗时，并校验后两种方式与标准答案完全一致。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class CentsPricingBenchmark {
+
+    private static final int BOOK_COUNT = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 10;
+
+    private static final DiscountStrategy[] STRATEGIES = {
+            new ComputerBookDiscountStrategy(),
+            new EnglishBookDiscountStrategy(),
+            new NoDiscountStrategy()
+    };
+
+    /**
+     * 与 {@link #STRATEGIES} 一一对应的精确折扣率
+     */
+    private static final BigDecimal[] EXACT_RATES = {
+            new BigDecimal("0.7"), new BigDecimal("0.6"), BigDecimal.ONE
+    };
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static long blackhole;
+
+    @FunctionalInterface
+    private interface Pricer {
+        long priceInCents(Book book);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== 按分精确定价基准测试 ===");
+        Random random = new Random(42);
+        Book[] books = new Book[BOOK_COUNT];
+        long[] expected = new long[BOOK_COUNT];
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            long cents = 1 + random.nextInt(50_000);
+            int strategy = i % STRATEGIES.length;
+            books[i] = Book.ofCents("图书-" + i, cents, STRATEGIES[strategy]);
+            expected[i] = BigDecimal.valueOf(cents, 2).multiply(EXACT_RATES[strategy])
+                    .setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+        System.out.println("图书数：" + BOOK_COUNT);
+
+        run("double 直接换算", books, expected, book -> (long) (book.getFinalPrice() * 100));
+        run("double + BigDecimal 重新舍入", books, expected,
+                book -> BigDecimal.valueOf(book.getFinalPrice()).setScale(2, RoundingMode.HALF_EVEN)
+                        .unscaledValue().longValue());
+        run("long 分", books, expected, Book::getFinalPriceCents);
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void run(String label, Book[] books, long[] expected, Pricer pricer) {
+        int mismatches = 0;
+        for (int i = 0; i < books.length; i++) {
+            if (pricer.priceInCents(books[i]) != expected[i]) {
+                mismatches++;
+            }
+        }
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            priceAll(books, pricer);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            priceAll(books, pricer);
+        }
+        double nanosPerBook = (double) (System.nanoTime() - start) / ((long) MEASURE_ROUNDS * books.length);
+        System.out.printf("%-28s %8.2f ns/本  与精确结果不一致：%d%n", label, nanosPerBook, mismatches);
+    }
+
+    private static void priceAll(Book[] books, Pricer pricer) {
+        long sum = 0;
+        for (Book book : books) {
+            sum += pricer.priceInCents(book);
+        }
+        blackhole += sum;
+    }
+}
@@ -0,0 +1,181 @@
+package com.demo.strategy.benchmark;
+
+import com.demo.strategy.cache.CachingDiscountStrategy;
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.strategies.ComputerBookDiscountStrategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 折扣缓存基准测试
+ *
+ * <p>按 Zipf 分布（少数热门价格占大部分请求）生成定价请求序列，比较直接调用 {@link Book#getFinalPrice()}
+ * 与策略外包一层 {@link CachingDiscountStrategy} 的耗时和命中率。请求分别来自5千种价格（热门价格基本都能放进缓存）
+ * 和10万种价格（长尾远大于缓存容量）。分别测试两种策略：</p>
+ * <ul>
+ *   <li><strong>固定折扣率</strong>：{@link ComputerBookDiscountStrategy}，一次乘法</li>
+ *   <li><strong>精确舍入</strong>：用 {@code BigDecimal} 计算并按银行家舍入保留到分，代表计算代价较高的策略</li>
+ * </ul>
+ *
+ * <p>另外在10万种价格的请求中穿插"扫描"请求（大量只出现一次的冷门价格），观察准入策略能否保住热门价格。
+ * 两种方式的结果逐次比较，确保缓存不改变定价结果。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class PriceCacheBenchmark {
+
+    private static final int SMALL_CATALOG = 5_000;
+    private static final int LARGE_CATALOG = 100_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int REQUESTS = 4_000_000;
+    private static final int CACHE_SIZE = 4_096;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    /**
+     * 每隔多少个请求插入一个冷门价格
+     */
+    private static final int SCAN_INTERVAL = 4;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static double blackhole;
+
+    public static void main(String[] args) {
+        System.out.println("=== 折扣缓存基准测试 ===");
+        System.out.println("Zipf指数：" + ZIPF_EXPONENT + "，请求数：" + REQUESTS + "，缓存容量：" + CACHE_SIZE);
+
+        double[] prices = new double[LARGE_CATALOG + REQUESTS / SCAN_INTERVAL];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = (1_000 + i) / 100.0;
+        }
+        Random random = new Random(42);
+        int[] small = zipfRequests(SMALL_CATALOG, random);
+        int[] large = zipfRequests(LARGE_CATALOG, random);
+        int[] scan = withScan(large, LARGE_CATALOG);
+
+        run("固定折扣率", new ComputerBookDiscountStrategy(), prices, small, large, scan);
+        run("精确舍入", new ExactRoundingStrategy(new BigDecimal("0.7")), prices, small, large, scan);
+        System.out.println("(blackhole=" + blackhole + ")");
+    }
+
+    private static void run(String label, DiscountStrategy strategy, double[] prices,
+                            int[] small, int[] large, int[] scan) {
+        System.out.println("--- " + label + " ---");
+        report("5千种价格", strategy, prices, small);
+        report("10万种价格", strategy, prices, large);
+        report("10万种+扫描", strategy, prices, scan);
+    }
+
+    private static void report(String workload, DiscountStrategy strategy, double[] prices, int[] requests) {
+        CachingDiscountStrategy cache = new CachingDiscountStrategy(strategy, CACHE_SIZE);
+        Book[] rawBooks = new Book[prices.length];
+        Book[] cachedBooks = new Book[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            rawBooks[i] = new Book("图书-" + i, prices[i], strategy);
+            cachedBooks[i] = new Book("图书-" + i, prices[i], cache);
+        }
+
+        boolean consistent = true;
+        for (int request : requests) {
+            if (Double.doubleToLongBits(rawBooks[request].getFinalPrice())
+                    != Double.doubleToLongBits(cachedBooks[request].getFinalPrice())) {
+                consistent = false;
+                break;
+            }
+        }
+        double rawNanos = measure(rawBooks, requests);
+        long hitsBefore = cache.getHitCount();
+        long missesBefore = cache.getMissCount();
+        double cachedNanos = measure(cachedBooks, requests);
+        long hits = cache.getHitCount() - hitsBefore;
+        double hitRate = (double) hits / (hits + cache.getMissCount() - missesBefore);
+
+        System.out.printf("  %-8s 直接定价 %8.2f ns/次  缓存 %8.2f ns/次  加速比 %5.2fx  命中率 %5.1f%%  %s%n",
+                workload, rawNanos, cachedNanos, rawNanos / cachedNanos, 100 * hitRate,
+                consistent ? "✅ 结果一致" : "❌ 结果不一致");
+    }
+
+    /**
+     * 预热后测量，返回平均每次定价的纳秒数
+     */
+    private static double measure(Book[] books, int[] requests) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            priceAll(books, requests);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            priceAll(books, requests);
+        }
+        return (double) (System.nanoTime() - start) / ((long) MEASURE_ROUNDS * requests.length);
+    }
+
+    private static void priceAll(Book[] books, int[] requests) {
+        double sum = 0;
+        for (int request : requests) {
+            sum += books[request].getFinalPrice();
+        }
+        blackhole += sum;
+    }
+
+    /**
+     * 生成 Zipf 分布的请求序列；热门程度的排名被随机打乱到不同价格上
+     */
+    private static int[] zipfRequests(int distinctPrices, Random random) {
+        double[] cumulative = new double[distinctPrices];
+        double total = 0;
+        for (int rank = 0; rank < distinctPrices; rank++) {
+            total += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+        int[] priceOfRank = new int[distinctPrices];
+        for (int i = 0; i < distinctPrices; i++) {
+            int j = random.nextInt(i + 1);
+            priceOfRank[i] = priceOfRank[j];
+            priceOfRank[j] = i;
+        }
+        int[] requests = new int[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            requests[i] = priceOfRank[rank >= 0 ? rank : Math.min(-rank - 1, distinctPrices - 1)];
+        }
+        return requests;
+    }
+
+    /**
+     * 每隔 {@link #SCAN_INTERVAL} 个请求替换为一个只出现一次的冷门价格
+     */
+    private static int[] withScan(int[] zipf, int firstColdPrice) {
+        int[] requests = zipf.clone();
+        int cold = firstColdPrice;
+        for (int i = SCAN_INTERVAL - 1; i < requests.length; i += SCAN_INTERVAL) {
+            requests[i] = cold++;
+        }
+        return requests;
+    }
+
+    /**
+     * 精确舍入策略：按 {@code BigDecimal} 计算折后价并保留到分
+     */
+    private static final class ExactRoundingStrategy implements DiscountStrategy {
+
+        private final BigDecimal rate;
+
+        ExactRoundingStrategy(BigDecimal rate) {
+            this.rate = rate;
+        }
+
+        @Override
+        public double calculateDiscount(double originalPrice) {
+            return BigDecimal.valueOf(originalPrice).multiply(rate)
+                    .setScale(2, RoundingMode.HALF_EVEN).doubleValue();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.demo.strategy.benchmark;
+
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountObserver;
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.observers.ConsoleDiscountObserver;
+import com.demo.strategy.observers.NoOpDiscountObserver;
+import com.demo.strategy.strategies.ComputerBookDiscountStrategy;
+import com.demo.strategy.strategies.EnglishBookDiscountStrategy;
+import com.demo.strategy.strategies.NoDiscountStrategy;
+
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多线程定价扩展性基准测试
+ *
+ * <p>多个线程各自对一批图书反复调用 {@link Book#getFinalPrice()}，统计不同线程数下的总吞吐量：</p>
+ * <ul>
+ *   <li><strong>静默模式</strong>：{@link NoOpDiscountObserver}，策略是纯函数，线程之间没有任何共享写入，
+ *       吞吐量应随线程数（不超过CPU核数时）线性增长</li>
+ *   <li><strong>控制台追踪</strong>：{@link ConsoleDiscountObserver}，每次定价都要获取 {@code System.out} 的锁，
+ *       所有线程被串行化（测量期间标准输出被替换为空输出流）</li>
+ * </ul>
+ *
+ * <p>加速比受机器的CPU核数限制，超过核数的线程数只用于观察竞争情况。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class PricingScalabilityBenchmark {
+
+    private static final int BOOKS_PER_THREAD = 1_024;
+    private static final long MEASURE_MILLIS = 1_000;
+    private static final long WARMUP_MILLIS = 500;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static final DoubleAdder BLACKHOLE = new DoubleAdder();
+
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = Math.max(4, cores * 2);
+        System.out.println("=== 多线程定价扩展性基准测试 ===");
+        System.out.println("可用CPU核数：" + cores + "，每线程图书数：" + BOOKS_PER_THREAD);
+
+        PrintStream console = System.out;
+        run("静默模式", NoOpDiscountObserver.INSTANCE, maxThreads, cores, console);
+
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            run("控制台追踪", new ConsoleDiscountObserver(), maxThreads, cores, console);
+        } finally {
+            System.setOut(console);
+        }
+        System.out.println("(blackhole=" + BLACKHOLE.sum() + ")");
+    }
+
+    /**
+     * 在指定观察者下依次测量 1、2、4…… 个线程的吞吐量，结果写到 {@code report}（控制台可能已被替换）
+     */
+    private static void run(String label, DiscountObserver observer, int maxThreads, int cores, PrintStream report)
+            throws InterruptedException {
+        report.println("--- " + label + " ---");
+        Book.setDiscountObserver(observer);
+        try {
+            measure(1, WARMUP_MILLIS);
+            double baseline = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double opsPerSecond = measure(threads, MEASURE_MILLIS);
+                if (threads == 1) {
+                    baseline = opsPerSecond;
+                }
+                double speedup = opsPerSecond / baseline;
+                report.printf("  %2d 线程：%8.2f 百万次/秒  加速比 %5.2f  并行效率 %5.1f%%%n",
+                        threads, opsPerSecond / 1e6, speedup, 100 * speedup / Math.min(threads, cores));
+            }
+        } finally {
+            Book.setDiscountObserver(null);
+        }
+    }
+
+    /**
+     * 用指定线程数定价一段时间，返回每秒总定价次数
+     */
+    private static double measure(int threads, long millis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+        for (int t = 0; t < threads; t++) {
+            Book[] books = createBooks();
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long count = 0;
+                double sum = 0;
+                while (System.nanoTime() < deadline[0]) {
+                    for (Book book : books) {
+                        sum += book.getFinalPrice();
+                    }
+                    count += books.length;
+                }
+                operations.add(count);
+                BLACKHOLE.add(sum);
+                done.countDown();
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + millis * 1_000_000;
+        start.countDown();
+        done.await();
+        return operations.sum() * 1e9 / (System.nanoTime() - begin);
+    }
+
+    private static Book[] createBooks() {
+        DiscountStrategy[] strategies = {
+                new ComputerBookDiscountStrategy(),
+                new EnglishBookDiscountStrategy(),
+                new NoDiscountStrategy()
+        };
+        Book[] books = new Book[BOOKS_PER_THREAD];
+        for (int i = 0; i < BOOKS_PER_THREAD; i++) {
+            books[i] = new Book("图书-" + i, 10 + i % 200, strategies[i % strategies.length]);
+        }
+        return books;
+    }
+}
@@ -0,0 +1,181 @@
+package com.demo.strategy.benchmark;
+
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.registry.DiscountStrategyRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 策略注册表热更新基准测试
+ *
+ * <p>若干定价线程不停地按类别查找策略并定价，主线程同时多次改写配置文件中的折扣率：</p>
+ * <ul>
+ *   <li><strong>查找吞吐量</strong>：热更新期间 {@link DiscountStrategyRegistry#resolve(String)} + 定价的总次数</li>
+ *   <li><strong>生效延迟</strong>：从写入配置文件到定价线程看到新折扣率的时间（包含 {@code WatchService} 的通知延迟，
+ *       部分平台上是轮询实现，延迟可达数秒；以及注册表等待文件停止变化的 200 毫秒去抖时间）</li>
+ *   <li><strong>最长停顿</strong>：定价线程相邻两批查找之间的最大间隔，用于确认热更新没有阻塞定价</li>
+ * </ul>
+ *
+ * <p>配置文件先写到临时文件再原子替换，避免监听线程读到写了一半的文件。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class RegistryHotReloadBenchmark {
+
+    private static final String[] CATEGORIES = {"computer", "english", "novel", "children"};
+    private static final String[][] RATE_VERSIONS = {
+            {"0.7", "0.6", "0.9", "0.8"},
+            {"0.65", "0.55", "0.85", "0.75"},
+            {"0.5", "0.5", "0.95", "1"},
+    };
+    private static final int RELOADS = 6;
+    private static final int BATCH = 1_024;
+    private static final long RELOAD_TIMEOUT_MILLIS = 30_000;
+    private static final long STEADY_MILLIS = 1_000;
+
+    /**
+     * 防止计算结果被JIT优化掉
+     */
+    private static final DoubleAdder BLACKHOLE = new DoubleAdder();
+
+    private static volatile boolean running;
+
+    public static void main(String[] args) throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        System.out.println("=== 策略注册表热更新基准测试 ===");
+        System.out.println("定价线程数：" + threads + "，热更新次数：" + RELOADS);
+
+        Path dir = Files.createTempDirectory("discount-registry");
+        Path config = dir.resolve("discounts.properties");
+        writeConfig(config, RATE_VERSIONS[0]);
+
+        LongAdder operations = new LongAdder();
+        AtomicLong maxPauseNanos = new AtomicLong();
+        LongAdder errors = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        running = true;
+
+        try (DiscountStrategyRegistry registry = new DiscountStrategyRegistry()) {
+            registry.watch(config);
+            long begin = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                Thread thread = new Thread(() -> price(registry, operations, maxPauseNanos, errors, done));
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            long totalLatency = 0;
+            long maxLatency = 0;
+            int applied = 0;
+            // 先让定价线程稳定运行一段时间，吞吐量按定价线程的整个运行时间计算
+            Thread.sleep(STEADY_MILLIS);
+            for (int i = 1; i <= RELOADS; i++) {
+                String[] rates = RATE_VERSIONS[i % RATE_VERSIONS.length];
+                long written = System.nanoTime();
+                writeConfig(config, rates);
+                if (awaitRates(registry, rates)) {
+                    long latency = System.nanoTime() - written;
+                    totalLatency += latency;
+                    maxLatency = Math.max(maxLatency, latency);
+                    applied++;
+                } else {
+                    System.out.println("第 " + i + " 次热更新在 " + RELOAD_TIMEOUT_MILLIS + " ms 内未生效");
+                }
+            }
+            long elapsed = System.nanoTime() - begin;
+            running = false;
+            done.await();
+
+            System.out.printf("查找+定价吞吐量：%.2f 百万次/秒%n", operations.sum() * 1e3 / elapsed);
+            if (applied > 0) {
+                System.out.printf("热更新生效：%d/%d 次，平均延迟 %.1f ms，最大延迟 %.1f ms%n",
+                        applied, RELOADS, totalLatency / 1e6 / applied, maxLatency / 1e6);
+            }
+            System.out.printf("定价线程最长停顿：%.3f ms%n", maxPauseNanos.get() / 1e6);
+            System.out.println(errors.sum() == 0 && applied == RELOADS
+                    ? "✅ 所有热更新均已生效，定价期间无错误" : "❌ 错误数：" + errors.sum());
+            System.out.println("(blackhole=" + BLACKHOLE.sum() + ")");
+        } finally {
+            Files.deleteIfExists(config);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * 定价线程：按类别轮流查找策略并定价，记录相邻两批之间的最大间隔
+     */
+    private static void price(DiscountStrategyRegistry registry, LongAdder operations, AtomicLong maxPauseNanos,
+                              LongAdder errors, CountDownLatch done) {
+        long count = 0;
+        long maxPause = 0;
+        long last = System.nanoTime();
+        double sum = 0;
+        try {
+            while (running) {
+                for (int i = 0; i < BATCH; i++) {
+                    DiscountStrategy strategy = registry.resolve(CATEGORIES[i & (CATEGORIES.length - 1)]);
+                    double price = strategy.calculateDiscount(100.0);
+                    if (!(price > 0 && price <= 100.0)) {
+                        errors.increment();
+                    }
+                    sum += price;
+                }
+                count += BATCH;
+                long now = System.nanoTime();
+                maxPause = Math.max(maxPause, now - last);
+                last = now;
+            }
+        } catch (RuntimeException e) {
+            errors.increment();
+        } finally {
+            operations.add(count);
+            maxPauseNanos.accumulateAndGet(maxPause, Math::max);
+            BLACKHOLE.add(sum);
+            done.countDown();
+        }
+    }
+
+    /**
+     * 等待注册表中的折扣率变为指定版本
+     */
+    private static boolean awaitRates(DiscountStrategyRegistry registry, String[] rates) throws InterruptedException {
+        long deadline = System.nanoTime() + RELOAD_TIMEOUT_MILLIS * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            if (matches(registry, rates)) {
+                return true;
+            }
+            Thread.sleep(1);
+        }
+        return false;
+    }
+
+    private static boolean matches(DiscountStrategyRegistry registry, String[] rates) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            double expected = Double.parseDouble(rates[i]) * 100.0;
+            if (Math.abs(registry.resolve(CATEGORIES[i]).calculateDiscount(100.0) - expected) > 1e-9) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeConfig(Path config, String[] rates) throws IOException {
+        StringBuilder content = new StringBuilder("# 各类别图书折扣率\n");
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            content.append(CATEGORIES[i]).append('=').append(rates[i]).append('\n');
+        }
+        Path temp = config.resolveSibling(config.getFileName() + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, config, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
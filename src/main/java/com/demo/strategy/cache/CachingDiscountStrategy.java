@@ -0,0 +1,566 @@
+package com.demo.strategy.cache;
+
+import com.demo.strategy.interfaces.DiscountStrategy;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 带缓存的折扣策略（装饰器）
+ *
+ * <p>包装任意 {@link DiscountStrategy}，把 {@link #calculateDiscount(double)} 的结果按原价缓存起来。
+ * 适合折扣计算本身代价较高、且同样的原价被反复定价的场景；策略必须是纯函数（同一原价总是得到同一折后价）。</p>
+ *
+ * <p><strong>实现要点：</strong></p>
+ * <ul>
+ *   <li><strong>基本类型键</strong>：以 {@link Double#doubleToRawLongBits(double)} 作为键，保存在 {@code long[]} 中，
+ *       查询与插入都不创建 {@code Double} 对象</li>
+ *   <li><strong>容量有界</strong>：按键的哈希分为若干段，每段有固定数量的槽位，槽位用数组下标组成的双向链表管理</li>
+ *   <li><strong>W-TinyLFU 准入</strong>：新条目先进入约占1%容量的窗口区（LRU）；被挤出窗口的条目要进入主区时，
+ *       与主区中最久未使用的条目比较频率草图中的估计访问次数，次数更高者留下，
+ *       避免一次性的冷门价格把热门价格挤出缓存</li>
+ *   <li><strong>频率草图</strong>：每段一个 Count-Min Sketch（4行、4位计数器），
+ *       累计访问数达到容量的10倍后所有计数器减半，使频率随时间衰减</li>
+ *   <li><strong>无锁命中</strong>：查询使用 {@link StampedLock} 的乐观读，命中时不加锁；
+ *       命中记录先写入每段的读缓冲区，攒满一批后在能立即拿到写锁时统一更新频率草图和LRU顺序，
+ *       拿不到锁就丢弃这一批（与 Caffeine 的读缓冲区相同，记录是有损的，只影响淘汰的精确度）</li>
+ *   <li><strong>统计</strong>：命中、未命中、淘汰次数，见 {@link #getHitCount()} 等方法</li>
+ * </ul>
+ *
+ * <p>缓存可以被多个定价线程共享；未命中时在锁外调用被包装的策略，只有插入新条目时才获取写锁。
+ * 批量定价和按分定价直接委托给被包装的策略，不经过缓存。</p>
+ *
+ * <p><strong>只对计算代价高的策略有用。</strong>命中一次也要哈希、乐观读和记录读缓冲区，约需几十到一百多纳秒。
+ * 在 {@link com.demo.strategy.benchmark.PriceCacheBenchmark} 中，包装本项目自带的任何一个策略
+ * （如 {@link com.demo.strategy.strategies.ComputerBookDiscountStrategy}，只做一两次乘法）都比不缓存慢一个数量级（约8到16倍）；
+ * 只有单次计算约200纳秒以上的策略才会变快，而且要求命中率高：命中率约97%时快一倍左右，70%及以下时与不缓存基本持平。
+ * 不要用它包装自带的策略。</p>
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * DiscountStrategy strategy = new CachingDiscountStrategy(expensiveStrategy, 4096);
+ * Book book = new Book("Java编程思想", 120.0, strategy);
+ * double finalPrice = book.getFinalPrice();
+ * }</pre>
+ * </p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class CachingDiscountStrategy implements DiscountStrategy {
+
+    /**
+     * 段数上限，必须是2的幂
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * 每段至少保留的槽位数
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final DiscountStrategy delegate;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 创建带缓存的折扣策略
+     *
+     * @param delegate 被包装的策略，必须是纯函数
+     * @param maximumSize 最多缓存的原价数
+     * @throws IllegalArgumentException 如果容量小于1
+     */
+    public CachingDiscountStrategy(DiscountStrategy delegate, int maximumSize) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("缓存容量必须大于0：" + maximumSize);
+        }
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maximumSize / MIN_SEGMENT_CAPACITY)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(Math.max(2, capacity));
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    @Override
+    public double calculateDiscount(double originalPrice) {
+        long key = Double.doubleToRawLongBits(originalPrice);
+        long hash = mix(key);
+        Segment segment = segments[(int) (hash >>> 32) & segmentMask];
+        StampedLock lock = segment.lock;
+
+        double cached = 0;
+        long stamp = lock.tryOptimisticRead();
+        int slot = segment.find(key, (int) hash);
+        if (slot >= 0) {
+            cached = segment.valueAt(slot);
+        }
+        if (!lock.validate(stamp)) {
+            // 读取期间有写入，改为加读锁重新查找
+            stamp = lock.readLock();
+            try {
+                slot = segment.find(key, (int) hash);
+                if (slot >= 0) {
+                    cached = segment.valueAt(slot);
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (slot >= 0) {
+            hits.increment();
+            segment.recordRead(slot, key);
+            return cached;
+        }
+
+        double finalPrice = delegate.calculateDiscount(originalPrice);
+        stamp = lock.writeLock();
+        try {
+            segment.put(key, hash, finalPrice);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return finalPrice;
+    }
+
+    @Override
+    public long calculateDiscountCents(long originalCents) {
+        return delegate.calculateDiscountCents(originalCents);
+    }
+
+    @Override
+    public void calculateDiscount(double[] originalPrices, double[] finalPrices, int from, int to) {
+        delegate.calculateDiscount(originalPrices, finalPrices, from, to);
+    }
+
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+
+    /**
+     * 获取被包装的策略
+     *
+     * @return 被包装的策略
+     */
+    public DiscountStrategy getDelegate() {
+        return delegate;
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        long total = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                total += segment.misses;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 获取淘汰次数（包括准入时被拒绝的新条目）
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        long total = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                total += segment.evictions;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中次数占查询次数的比例，尚无查询时返回0
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * 获取当前缓存的条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        int total = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                total += segment.windowSize + segment.mainSize;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingDiscountStrategy{" + delegate + "}";
+    }
+
+    /**
+     * 64位哈希混合（MurmurHash3 的 fmix64），使相近的价格分散到不同的段和槽位
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * 缓存段：固定数量的槽位、开放寻址索引、窗口区与主区两条LRU链表、频率草图，以及读缓冲区
+     *
+     * <p>{@link #find(long, int)} 可以在乐观读中调用，{@link #recordRead(int, long)} 不需要持有锁，
+     * 其余方法都要求调用方持有写锁。</p>
+     */
+    private static final class Segment {
+
+        private static final int NIL = -1;
+        private static final byte WINDOW = 0;
+        private static final byte MAIN = 1;
+        private static final byte FREE = 2;
+
+        /**
+         * 读缓冲区大小，必须是2的幂
+         */
+        private static final int READ_BUFFER_SIZE = 64;
+
+        /**
+         * 频率草图每行使用的哈希种子
+         */
+        private static final long[] SKETCH_SEEDS = {
+                0x97cb3127L, 0xb5ad4eceda1ce2a9L, 0x9e3779b97f4a7c15L, 0xc2b2ae3d27d4eb4fL
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        // ---------- 槽位 ----------
+        /**
+         * 键与值交错存放：槽位s的键在 {@code 2s}，值（double的位模式）在 {@code 2s + 1}，命中时只访问一个缓存行
+         */
+        private final long[] entries;
+        private final int[] prev;
+        private final int[] next;
+        private final byte[] regions;
+        private int allocated;
+        private int freeHead = NIL;
+
+        // ---------- 索引：保存 槽位 + 1，0 表示空 ----------
+        private final int[] index;
+        private final int indexMask;
+
+        // ---------- 两条LRU链表：head 为最久未使用，tail 为最近使用 ----------
+        private final int[] heads = {NIL, NIL};
+        private final int[] tails = {NIL, NIL};
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private int windowSize;
+        private int mainSize;
+
+        // ---------- 频率草图：每个 long 存16个4位计数器 ----------
+        private final long[] sketch;
+        private final int sketchMask;
+        private final int sampleSize;
+        private int additions;
+
+        // ---------- 读缓冲区：命中的槽位及其键，位置原子分配，内容有损 ----------
+        private final int[] readSlots = new int[READ_BUFFER_SIZE];
+        private final long[] readKeys = new long[READ_BUFFER_SIZE];
+        private final AtomicInteger readCount = new AtomicInteger();
+
+        private final StampedLock lock = new StampedLock();
+        private long misses;
+        private long evictions;
+
+        Segment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;
+            // 多留一个槽位：新条目先放入窗口区，再决定淘汰谁
+            int slots = capacity + 1;
+            this.entries = new long[slots * 2];
+            this.prev = new int[slots];
+            this.next = new int[slots];
+            this.regions = new byte[slots];
+            int indexSize = Integer.highestOneBit(slots * 2 - 1) << 1;
+            this.index = new int[indexSize];
+            this.indexMask = indexSize - 1;
+            int sketchSize = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            this.sketch = new long[sketchSize];
+            this.sketchMask = sketchSize * 16 - 1;
+            this.sampleSize = 10 * capacity;
+            Arrays.fill(readSlots, NIL);
+        }
+
+        // ==================== 查询与插入 ====================
+
+        /**
+         * 查找键所在的槽位；乐观读期间索引可能正被修改，因此最多探测一整圈
+         */
+        int find(long key, int hash) {
+            int i = hash & indexMask;
+            for (int probes = 0; probes <= indexMask; probes++, i = (i + 1) & indexMask) {
+                int entry = index[i];
+                if (entry == 0) {
+                    return NIL;
+                }
+                if (entries[(entry - 1) << 1] == key) {
+                    return entry - 1;
+                }
+            }
+            return NIL;
+        }
+
+        /**
+         * 记录一次命中：写入读缓冲区，缓冲区写满一轮时尝试统一处理
+         *
+         * <p>每次命中原子地分得一个位置，每写满一轮恰好由一个线程尝试处理。
+         * 槽位和键是普通写入，缓冲区绕回一圈时可能被覆盖，处理时会校验二者是否匹配；
+         * 丢失的记录只会让频率估计略偏低。</p>
+         */
+        void recordRead(int slot, long key) {
+            int i = readCount.getAndIncrement() & (READ_BUFFER_SIZE - 1);
+            readSlots[i] = slot;
+            readKeys[i] = key;
+            if (i == READ_BUFFER_SIZE - 1) {
+                long stamp = lock.tryWriteLock();
+                if (stamp != 0) {
+                    try {
+                        drainReads();
+                    } finally {
+                        lock.unlockWrite(stamp);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 把读缓冲区中的命中计入频率草图，并移到所在LRU链表的末尾；槽位已被淘汰或复用的记录直接跳过
+         */
+        private void drainReads() {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                int slot = readSlots[i];
+                long key = readKeys[i];
+                if (slot < 0 || slot >= allocated || regions[slot] == FREE || keyAt(slot) != key) {
+                    continue;
+                }
+                increment(mix(key));
+                byte region = regions[slot];
+                if (tails[region] != slot) {
+                    unlink(region, slot);
+                    linkLast(region, slot);
+                }
+            }
+        }
+
+        long keyAt(int slot) {
+            return entries[slot << 1];
+        }
+
+        double valueAt(int slot) {
+            return Double.longBitsToDouble(entries[(slot << 1) + 1]);
+        }
+
+        /**
+         * 插入未命中时算出的结果，同时计入一次未命中
+         */
+        void put(long key, long hash, double value) {
+            misses++;
+            int existing = find(key, (int) hash);
+            if (existing >= 0) {
+                // 另一个线程已在锁外算出同一原价的结果
+                entries[(existing << 1) + 1] = Double.doubleToRawLongBits(value);
+                return;
+            }
+            increment(hash);
+            int slot = allocate();
+            entries[slot << 1] = key;
+            entries[(slot << 1) + 1] = Double.doubleToRawLongBits(value);
+            insertIndex((int) hash, slot);
+            linkLast(WINDOW, slot);
+            if (windowSize > windowCapacity) {
+                evictFromWindow();
+            }
+        }
+
+        /**
+         * 窗口区超出容量：把最久未使用的条目移入主区，主区已满时与主区的淘汰候选比较频率
+         */
+        private void evictFromWindow() {
+            int candidate = heads[WINDOW];
+            unlink(WINDOW, candidate);
+            if (mainSize < mainCapacity) {
+                linkLast(MAIN, candidate);
+                return;
+            }
+            int victim = heads[MAIN];
+            if (frequency(mix(keyAt(candidate))) > frequency(mix(keyAt(victim)))) {
+                unlink(MAIN, victim);
+                release(victim);
+                linkLast(MAIN, candidate);
+            } else {
+                release(candidate);
+            }
+            evictions++;
+        }
+
+        // ==================== 槽位管理 ====================
+
+        private int allocate() {
+            if (freeHead != NIL) {
+                int slot = freeHead;
+                freeHead = next[slot];
+                return slot;
+            }
+            return allocated++;
+        }
+
+        private void release(int slot) {
+            removeIndex(slot);
+            regions[slot] = FREE;
+            next[slot] = freeHead;
+            freeHead = slot;
+        }
+
+        private void linkLast(byte region, int slot) {
+            regions[slot] = region;
+            int tail = tails[region];
+            prev[slot] = tail;
+            next[slot] = NIL;
+            if (tail == NIL) {
+                heads[region] = slot;
+            } else {
+                next[tail] = slot;
+            }
+            tails[region] = slot;
+            if (region == WINDOW) {
+                windowSize++;
+            } else {
+                mainSize++;
+            }
+        }
+
+        private void unlink(byte region, int slot) {
+            int p = prev[slot];
+            int n = next[slot];
+            if (p == NIL) {
+                heads[region] = n;
+            } else {
+                next[p] = n;
+            }
+            if (n == NIL) {
+                tails[region] = p;
+            } else {
+                prev[n] = p;
+            }
+            if (region == WINDOW) {
+                windowSize--;
+            } else {
+                mainSize--;
+            }
+        }
+
+        // ==================== 开放寻址索引 ====================
+
+        private void insertIndex(int hash, int slot) {
+            int i = hash & indexMask;
+            while (index[i] != 0) {
+                i = (i + 1) & indexMask;
+            }
+            index[i] = slot + 1;
+        }
+
+        /**
+         * 删除索引项，并把后续探测链上的项向前移动（线性探测的后移删除），不使用墓碑
+         */
+        private void removeIndex(int slot) {
+            int i = (int) mix(keyAt(slot)) & indexMask;
+            while (index[i] != slot + 1) {
+                i = (i + 1) & indexMask;
+            }
+            int hole = i;
+            for (int j = (hole + 1) & indexMask; index[j] != 0; j = (j + 1) & indexMask) {
+                int home = (int) mix(keyAt(index[j] - 1)) & indexMask;
+                // home 不在 (hole, j] 区间内时，该项可以移到空洞处
+                if (((j - home) & indexMask) >= ((j - hole) & indexMask)) {
+                    index[hole] = index[j];
+                    hole = j;
+                }
+            }
+            index[hole] = 0;
+        }
+
+        // ==================== 频率草图 ====================
+
+        private void increment(long hash) {
+            boolean added = false;
+            for (long seed : SKETCH_SEEDS) {
+                int counter = counterIndex(hash, seed);
+                int word = counter >>> 4;
+                int shift = (counter & 15) << 2;
+                if (((sketch[word] >>> shift) & 0xfL) < 15) {
+                    sketch[word] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < sketch.length; i++) {
+                    sketch[i] = (sketch[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        private int frequency(long hash) {
+            int min = 15;
+            for (long seed : SKETCH_SEEDS) {
+                int counter = counterIndex(hash, seed);
+                min = Math.min(min, (int) ((sketch[counter >>> 4] >>> ((counter & 15) << 2)) & 0xfL));
+            }
+            return min;
+        }
+
+        private int counterIndex(long hash, long seed) {
+            long h = (hash + seed) * seed;
+            return (int) (h >>> 32) & sketchMask;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.demo.strategy.catalog;
+
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountStrategy;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 列式图书目录 - 面向整个目录重新定价的存储方式
+ *
+ * <p>{@link Book} 每本书都是一个持有策略引用的堆对象，重新定价时要逐个对象跳转并对每本书做一次多态调用。
+ * 本类把同一字段的所有值存放在同一个数组中（列式存储）：</p>
+ * <ul>
+ *   <li>标题：{@code String[]}</li>
+ *   <li>原价：{@code double[]}，单位为元</li>
+ *   <li>策略编号：{@code int[]}，指向目录内部的策略表，每种策略只保存一份</li>
+ * </ul>
+ *
+ * <p><strong>{@link #computeFinalPrices()} 的执行过程：</strong></p>
+ * <ul>
+ *   <li><strong>按策略分组</strong>：对策略编号做一次计数排序，同一策略的行号排在一起；
+ *       分组结果会被缓存，直到再次新增图书</li>
+ *   <li><strong>并行定价</strong>：每组按固定块大小拆分为 {@link ForkJoinPool} 任务；每个块把原价收集到按分组排序的连续区间，
+ *       一次调用 {@link DiscountStrategy#calculateDiscount(double[], double[], int, int)} 批量定价，再写回对应行</li>
+ *   <li><strong>同步汇总</strong>：每个块在写回时顺便累加原价与折后价，汇总结果随任务合并返回，不需要再遍历一次</li>
+ * </ul>
+ *
+ * <p>批量定价不经过 {@link Book#getFinalPrice()}，因此不会通知 {@link Book#getDiscountObserver()}。
+ * 块的划分只取决于目录内容，同一目录多次定价得到的汇总值完全相同。</p>
+ *
+ * <p><strong>注意：</strong>本类不是线程安全的，定价期间不能同时添加图书，也不能并发调用 {@link #computeFinalPrices()}。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class BookCatalog {
+
+    /**
+     * 每个并行任务最多处理的图书数
+     */
+    private static final int CHUNK_SIZE = 8_192;
+
+    private String[] titles;
+    private double[] originalPrices;
+    private int[] strategyIds;
+    private int size;
+
+    /**
+     * 策略表：策略编号即下标
+     */
+    private DiscountStrategy[] strategies = new DiscountStrategy[4];
+    private int strategyCount;
+    private final Map<DiscountStrategy, Integer> strategyIdsByInstance = new IdentityHashMap<>();
+
+    /**
+     * 按策略分组的行号，首次定价时生成，新增图书或注册新策略后失效
+     */
+    private int[] groupedRows;
+    private int[] groupStart;
+
+    /**
+     * 按 {@link #groupedRows} 顺序排列的价格，与分组结果一起缓存，避免每次定价都分配一个与目录等长的数组
+     */
+    private double[] groupedPrices;
+
+    /**
+     * 创建图书目录
+     *
+     * @param initialCapacity 预计的图书数，预先分配可以避免扩容时的数组复制
+     */
+    public BookCatalog(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        this.titles = new String[capacity];
+        this.originalPrices = new double[capacity];
+        this.strategyIds = new int[capacity];
+    }
+
+    // ==================== 策略表 ====================
+
+    /**
+     * 注册折扣策略，同一个策略对象只注册一次
+     *
+     * @param strategy 折扣策略
+     * @return 策略编号
+     */
+    public int registerStrategy(DiscountStrategy strategy) {
+        Objects.requireNonNull(strategy, "strategy");
+        Integer id = strategyIdsByInstance.get(strategy);
+        if (id != null) {
+            return id;
+        }
+        if (strategyCount == strategies.length) {
+            strategies = Arrays.copyOf(strategies, strategyCount * 2);
+        }
+        strategies[strategyCount] = strategy;
+        strategyIdsByInstance.put(strategy, strategyCount);
+        // 分组区间按策略数分配，新增策略后也要重新分组
+        this.groupedRows = null;
+        return strategyCount++;
+    }
+
+    /**
+     * 按编号获取折扣策略
+     *
+     * @param strategyId 策略编号
+     * @return 折扣策略
+     */
+    public DiscountStrategy getStrategy(int strategyId) {
+        Objects.checkIndex(strategyId, strategyCount);
+        return strategies[strategyId];
+    }
+
+    // ==================== 新增与读取 ====================
+
+    /**
+     * 新增图书
+     *
+     * @param title 图书标题
+     * @param originalPrice 图书原价（元）
+     * @param strategy 折扣策略，首次出现时自动注册
+     * @return 新图书的行号
+     */
+    public int add(String title, double originalPrice, DiscountStrategy strategy) {
+        return add(title, originalPrice, registerStrategy(strategy));
+    }
+
+    /**
+     * 以已注册的策略编号新增图书
+     *
+     * @param title 图书标题
+     * @param originalPrice 图书原价（元）
+     * @param strategyId 策略编号，见 {@link #registerStrategy(DiscountStrategy)}
+     * @return 新图书的行号
+     * @throws IndexOutOfBoundsException 如果策略编号未注册
+     */
+    public int add(String title, double originalPrice, int strategyId) {
+        Objects.checkIndex(strategyId, strategyCount);
+        if (size == titles.length) {
+            grow();
+        }
+        int row = size++;
+        this.titles[row] = title;
+        this.originalPrices[row] = originalPrice;
+        this.strategyIds[row] = strategyId;
+        this.groupedRows = null;
+        return row;
+    }
+
+    /**
+     * 把一本 {@link Book} 加入目录
+     *
+     * @param book 图书
+     * @return 新图书的行号
+     */
+    public int add(Book book) {
+        return add(book.getTitle(), book.getOriginalPrice(), book.getDiscountStrategy());
+    }
+
+    /**
+     * 获取图书数量
+     *
+     * @return 图书数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取图书标题
+     *
+     * @param row 行号
+     * @return 图书标题
+     */
+    public String getTitle(int row) {
+        Objects.checkIndex(row, size);
+        return titles[row];
+    }
+
+    /**
+     * 获取图书原价
+     *
+     * @param row 行号
+     * @return 图书原价（元）
+     */
+    public double getOriginalPrice(int row) {
+        Objects.checkIndex(row, size);
+        return originalPrices[row];
+    }
+
+    /**
+     * 获取图书的折扣策略
+     *
+     * @param row 行号
+     * @return 折扣策略
+     */
+    public DiscountStrategy getStrategyOf(int row) {
+        Objects.checkIndex(row, size);
+        return strategies[strategyIds[row]];
+    }
+
+    // ==================== 批量定价 ====================
+
+    /**
+     * 使用公共 ForkJoinPool 计算全部图书的折后价及汇总数据
+     *
+     * @return 定价结果
+     */
+    public CatalogPricing computeFinalPrices() {
+        return computeFinalPrices(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 计算全部图书的折后价及汇总数据
+     *
+     * @param pool 执行并行任务的线程池
+     * @return 定价结果
+     */
+    public CatalogPricing computeFinalPrices(ForkJoinPool pool) {
+        double[] finalPrices = new double[size];
+        if (size == 0) {
+            return new CatalogPricing(finalPrices, 0, 0);
+        }
+
+        if (groupedRows == null) {
+            groupByStrategy();
+        }
+        Pass pass = new Pass(groupedRows, groupStart, groupedPrices, finalPrices);
+        Totals totals = pool.invoke(new CatalogTask(pass));
+        return new CatalogPricing(finalPrices, totals.original, totals.revenue);
+    }
+
+    /**
+     * 对一个块定价：把原价收集到连续区间、批量调用策略（原地改写为折后价）、写回对应行并累加汇总
+     */
+    private Totals priceChunk(DiscountStrategy strategy, Pass pass, int from, int to) {
+        int[] rows = pass.rows;
+        double[] buffer = pass.buffer;
+        double original = 0;
+        for (int k = from; k < to; k++) {
+            double price = originalPrices[rows[k]];
+            buffer[k] = price;
+            original += price;
+        }
+        strategy.calculateDiscount(buffer, buffer, from, to);
+        double revenue = 0;
+        for (int k = from; k < to; k++) {
+            double price = buffer[k];
+            pass.finalPrices[rows[k]] = price;
+            revenue += price;
+        }
+        return new Totals(original, revenue);
+    }
+
+    /**
+     * 计数排序：groupStart[s] ~ groupStart[s + 1] 是策略s在groupedRows中的区间
+     */
+    private void groupByStrategy() {
+        int[] start = new int[strategyCount + 1];
+        for (int row = 0; row < size; row++) {
+            start[strategyIds[row] + 1]++;
+        }
+        for (int s = 0; s < strategyCount; s++) {
+            start[s + 1] += start[s];
+        }
+        int[] rows = new int[size];
+        int[] cursor = start.clone();
+        for (int row = 0; row < size; row++) {
+            rows[cursor[strategyIds[row]]++] = row;
+        }
+        this.groupStart = start;
+        this.groupedRows = rows;
+        this.groupedPrices = new double[size];
+    }
+
+    private void grow() {
+        int capacity = titles.length * 2;
+        titles = Arrays.copyOf(titles, capacity);
+        originalPrices = Arrays.copyOf(originalPrices, capacity);
+        strategyIds = Arrays.copyOf(strategyIds, capacity);
+    }
+
+    /**
+     * 一次定价过程共享的数组；各块只读写自己的区间，互不重叠
+     */
+    private static final class Pass {
+
+        /**
+         * 按策略分组排序后的行号
+         */
+        private final int[] rows;
+        private final int[] groupStart;
+
+        /**
+         * 按 {@link #rows} 顺序排列的价格，供批量接口连续读写：先放原价，批量定价后原地变为折后价
+         */
+        private final double[] buffer;
+
+        /**
+         * 按行号排列的折后价，即最终结果
+         */
+        private final double[] finalPrices;
+
+        Pass(int[] rows, int[] groupStart, double[] buffer, double[] finalPrices) {
+            this.rows = rows;
+            this.groupStart = groupStart;
+            this.buffer = buffer;
+            this.finalPrices = finalPrices;
+        }
+    }
+
+    /**
+     * 部分汇总值
+     */
+    private static final class Totals {
+
+        private final double original;
+        private final double revenue;
+
+        Totals(double original, double revenue) {
+            this.original = original;
+            this.revenue = revenue;
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(original + other.original, revenue + other.revenue);
+        }
+    }
+
+    /**
+     * 顶层任务：每个策略分组一个子任务
+     */
+    @SuppressWarnings("serial")
+    private class CatalogTask extends RecursiveTask<Totals> {
+
+        private final Pass pass;
+
+        CatalogTask(Pass pass) {
+            this.pass = pass;
+        }
+
+        @Override
+        protected Totals compute() {
+            ChunkTask[] groups = new ChunkTask[strategyCount];
+            for (int s = 0; s < strategyCount; s++) {
+                groups[s] = new ChunkTask(strategies[s], pass, pass.groupStart[s], pass.groupStart[s + 1]);
+            }
+            invokeAll(groups);
+            Totals totals = new Totals(0, 0);
+            for (ChunkTask group : groups) {
+                totals = totals.plus(group.join());
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * 同一策略分组内按块二分拆分的任务
+     */
+    @SuppressWarnings("serial")
+    private class ChunkTask extends RecursiveTask<Totals> {
+
+        private final DiscountStrategy strategy;
+        private final Pass pass;
+        private final int from;
+        private final int to;
+
+        ChunkTask(DiscountStrategy strategy, Pass pass, int from, int to) {
+            this.strategy = strategy;
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return to > from ? priceChunk(strategy, pass, from, to) : new Totals(0, 0);
+            }
+            // 按块边界拆分，使块的划分与线程调度无关
+            int chunks = (to - from + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            int mid = from + (chunks >>> 1) * CHUNK_SIZE;
+            ChunkTask left = new ChunkTask(strategy, pass, from, mid);
+            ChunkTask right = new ChunkTask(strategy, pass, mid, to);
+            invokeAll(left, right);
+            return left.join().plus(right.join());
+        }
+    }
+}
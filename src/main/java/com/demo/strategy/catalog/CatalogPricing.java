@@ -0,0 +1,73 @@
+package com.demo.strategy.catalog;
+
+import lombok.Getter;
+
+/**
+ * 图书目录定价结果
+ *
+ * <p>由 {@link BookCatalog#computeFinalPrices()} 一次遍历得到：每本书的折后价，以及全目录的汇总数据。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+public class CatalogPricing {
+
+    /**
+     * 每本书的折后价，下标即 {@link BookCatalog} 中的行号
+     */
+    private final double[] finalPrices;
+
+    /**
+     * 全部图书的原价合计（元）
+     */
+    private final double totalOriginalPrice;
+
+    /**
+     * 全部图书的折后价合计，即每本各售出一册时的营业额（元）
+     */
+    private final double totalRevenue;
+
+    CatalogPricing(double[] finalPrices, double totalOriginalPrice, double totalRevenue) {
+        this.finalPrices = finalPrices;
+        this.totalOriginalPrice = totalOriginalPrice;
+        this.totalRevenue = totalRevenue;
+    }
+
+    /**
+     * 获取图书数量
+     *
+     * @return 图书数量
+     */
+    public int getBookCount() {
+        return finalPrices.length;
+    }
+
+    /**
+     * 获取优惠总额
+     *
+     * @return 原价合计减去营业额（元）
+     */
+    public double getTotalDiscount() {
+        return totalOriginalPrice - totalRevenue;
+    }
+
+    /**
+     * 获取平均每本书的优惠金额
+     *
+     * @return 平均优惠金额（元），目录为空时返回0
+     */
+    public double getAverageDiscount() {
+        return finalPrices.length == 0 ? 0 : getTotalDiscount() / finalPrices.length;
+    }
+
+    /**
+     * 获取按原价加权的平均折扣比例
+     *
+     * @return 优惠总额占原价合计的比例，例如 0.3 表示整体相当于打7折；目录为空时返回0
+     */
+    public double getAverageDiscountRate() {
+        return totalOriginalPrice == 0 ? 0 : getTotalDiscount() / totalOriginalPrice;
+    }
+}
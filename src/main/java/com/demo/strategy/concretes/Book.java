@@ -1,6 +1,9 @@
 package com.demo.strategy.concretes;
 
+import com.demo.strategy.interfaces.DiscountObserver;
 import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.money.Cents;
+import com.demo.strategy.observers.NoOpDiscountObserver;
 import lombok.Data;
 
 /**
@@ -45,6 +48,14 @@ import lombok.Data;
 @Data
 public class Book {
 
+    /**
+     * 全局折扣观察者
+     *
+     * <p>每次 {@link #getFinalPrice()} 完成定价后都会通知该观察者。默认为 {@link NoOpDiscountObserver}，
+     * 定价过程不输出任何内容；演示程序可以换成 {@link com.demo.strategy.observers.ConsoleDiscountObserver}。</p>
+     */
+    private static volatile DiscountObserver discountObserver = NoOpDiscountObserver.INSTANCE;
+
     /**
      * 图书标题
      * <p>图书的名称，如："Java编程思想"、"新概念英语"等</p>
@@ -82,6 +93,21 @@ public class Book {
         this.discountStrategy = strategy;
     }
 
+    /**
+     * 以"分"为单位的价格创建图书
+     *
+     * <p>不提供 {@code Book(String, long, DiscountStrategy)} 构造函数，
+     * 是为了避免 {@code new Book("...", 120, strategy)} 这样的整数字面量被当作"分"而不是"元"。</p>
+     *
+     * @param title 图书标题，不能为空
+     * @param originalPriceCents 图书原价（分），必须为正数
+     * @param strategy 折扣策略，不能为空
+     * @return 新的图书对象
+     */
+    public static Book ofCents(String title, long originalPriceCents, DiscountStrategy strategy) {
+        return new Book(title, Cents.toYuan(originalPriceCents), strategy);
+    }
+
     /**
      * 获取图书的最终价格
      *
@@ -91,6 +117,7 @@ public class Book {
      * <ol>
      *   <li>获取图书的原价（originalPrice）</li>
      *   <li>调用折扣策略的 calculateDiscount() 方法</li>
+     *   <li>通知折扣观察者（默认不做任何事）</li>
      *   <li>返回折扣后的最终价格</li>
      * </ol>
      * </p>
@@ -107,6 +134,51 @@ public class Book {
      * @see DiscountStrategy#calculateDiscount(double)
      */
     public double getFinalPrice() {
-        return discountStrategy.calculateDiscount(this.originalPrice);
+        double finalPrice = discountStrategy.calculateDiscount(this.originalPrice);
+        discountObserver.onDiscountApplied(this, discountStrategy, this.originalPrice, finalPrice);
+        return finalPrice;
+    }
+
+    /**
+     * 获取图书原价（分）
+     *
+     * @return 原价按银行家舍入换算得到的分值
+     */
+    public long getOriginalPriceCents() {
+        return Cents.fromYuan(this.originalPrice);
+    }
+
+    /**
+     * 以"分"为单位获取图书的最终价格
+     *
+     * <p>与 {@link #getFinalPrice()} 相同地委托给折扣策略，但全程使用 {@code long} 整数运算，
+     * 结果精确到分，适合对账等不允许浮点误差的场景。</p>
+     *
+     * @return 折扣后的最终价格（分）
+     * @see DiscountStrategy#calculateDiscountCents(long)
+     */
+    public long getFinalPriceCents() {
+        long originalCents = getOriginalPriceCents();
+        long finalCents = discountStrategy.calculateDiscountCents(originalCents);
+        discountObserver.onDiscountApplied(this, discountStrategy, this.originalPrice, Cents.toYuan(finalCents));
+        return finalCents;
+    }
+
+    /**
+     * 获取全局折扣观察者
+     *
+     * @return 当前折扣观察者
+     */
+    public static DiscountObserver getDiscountObserver() {
+        return discountObserver;
+    }
+
+    /**
+     * 设置全局折扣观察者
+     *
+     * @param observer 新的折扣观察者，传入null时恢复为 {@link NoOpDiscountObserver}
+     */
+    public static void setDiscountObserver(DiscountObserver observer) {
+        discountObserver = observer != null ? observer : NoOpDiscountObserver.INSTANCE;
     }
 }
\ No newline at end of file
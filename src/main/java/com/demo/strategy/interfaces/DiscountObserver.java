@@ -0,0 +1,35 @@
+package com.demo.strategy.interfaces;
+
+import com.demo.strategy.concretes.Book;
+
+/**
+ * 折扣观察者接口
+ *
+ * <p>折扣策略是纯函数：只根据原价计算折后价，不输出日志、不修改任何状态，
+ * 因此可以被任意多个定价线程同时调用而互不影响。
+ * 需要追踪定价过程时（例如演示程序打印"应用了哪个策略"），由 {@link Book} 在计算完成后
+ * 把结构化的定价结果交给观察者，而不是让策略自己写控制台。</p>
+ *
+ * <p><strong>实现约定：</strong></p>
+ * <ul>
+ *   <li>回调在执行定价的线程上同步调用，实现应尽量轻量且线程安全</li>
+ *   <li>默认的 {@link com.demo.strategy.observers.NoOpDiscountObserver} 什么也不做，热路径上没有额外开销</li>
+ * </ul>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ * @see Book#setDiscountObserver(DiscountObserver)
+ */
+public interface DiscountObserver {
+
+    /**
+     * 图书完成一次定价
+     *
+     * @param book 被定价的图书
+     * @param strategy 使用的折扣策略
+     * @param originalPrice 原价
+     * @param finalPrice 折后价
+     */
+    void onDiscountApplied(Book book, DiscountStrategy strategy, double originalPrice, double finalPrice);
+}
@@ -1,5 +1,9 @@
 package com.demo.strategy.interfaces;
 
+import com.demo.strategy.money.Cents;
+
+import java.util.Objects;
+
 /**
  * 折扣策略接口
  *
@@ -44,8 +48,63 @@ public interface DiscountStrategy {
      * </ul>
      * </p>
      *
+     * <p>实现应当是纯函数：不输出日志、不修改共享状态，结果只取决于原价。
+     * 需要追踪定价过程时，使用 {@link DiscountObserver}。</p>
+     *
      * @param originalPrice 原始价格，必须是正数
      * @return 折扣后的价格，应小于等于原价
      */
     double calculateDiscount(double originalPrice);
-}
\ No newline at end of file
+
+    /**
+     * 以"分"为单位计算折扣后的价格
+     *
+     * <p>全程使用 {@code long} 整数运算，结果精确，没有浮点误差，也不需要 {@code BigDecimal}。
+     * 不能整除到分时采用银行家舍入（四舍六入五成双）。</p>
+     *
+     * <p>默认实现借助 {@link #calculateDiscount(double)} 计算后再舍入到分，
+     * 对于简单的比例折扣已经足够准确；内置策略都覆盖了此方法，用整数比例精确计算。</p>
+     *
+     * @param originalCents 原价（分），必须是正数
+     * @return 折扣后的价格（分）
+     * @see Cents#applyRate(long, long, long)
+     */
+    default long calculateDiscountCents(long originalCents) {
+        return Cents.fromYuan(calculateDiscount(Cents.toYuan(originalCents)));
+    }
+
+    /**
+     * 获取策略的简短描述
+     *
+     * <p>供 {@link DiscountObserver} 等追踪、展示场景使用，默认返回实现类的简单类名。</p>
+     *
+     * @return 策略描述，如"计算机类图书打7折"
+     */
+    default String getDescription() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * 批量计算折扣后的价格
+     *
+     * <p>对 {@code originalPrices} 中 {@code [from, to)} 范围内的每个原价计算折扣价，
+     * 写入 {@code finalPrices} 的相同下标，适合一次为整批图书重新定价。</p>
+     *
+     * <p>默认实现逐个调用 {@link #calculateDiscount(double)}。固定折扣率的策略会覆盖此方法，
+     * 用一个简单的计数循环完成计算：既省去了逐个元素的虚方法调用，也便于JIT将循环自动向量化。
+     * 批量计算面向批处理任务，不逐本输出日志。</p>
+     *
+     * @param originalPrices 原价数组
+     * @param finalPrices 折后价输出数组，可以与原价数组是同一个数组
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     * @throws IndexOutOfBoundsException 如果下标范围超出任一数组
+     */
+    default void calculateDiscount(double[] originalPrices, double[] finalPrices, int from, int to) {
+        Objects.checkFromToIndex(from, to, originalPrices.length);
+        Objects.checkFromToIndex(from, to, finalPrices.length);
+        for (int i = from; i < to; i++) {
+            finalPrices[i] = calculateDiscount(originalPrices[i]);
+        }
+    }
+}
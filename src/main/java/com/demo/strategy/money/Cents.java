@@ -0,0 +1,83 @@
+package com.demo.strategy.money;
+
+/**
+ * 以"分"为单位的金额运算工具
+ *
+ * <p>{@code double} 无法精确表示 0.1 这样的十进制小数，{@code 89.9 * 0.7} 的结果是
+ * {@code 62.92999999999999}，对账时只能再用 {@code BigDecimal} 重新舍入。
+ * 把金额换算为 {@code long} 类型的"分"后，折扣计算变成整数乘除，结果精确、没有装箱，
+ * 需要舍入时统一采用银行家舍入（四舍六入五成双）。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    /**
+     * 按比例计算金额，结果以银行家舍入取整到分
+     *
+     * <p>例如 {@code applyRate(8990, 7, 10)} 计算 89.90元 × 0.7 = 62.93元，返回 6293；
+     * {@code applyRate(5, 7, 10)} 计算 0.05元 × 0.7 = 0.035元，恰好是"五"，舍入到偶数 4分。</p>
+     *
+     * @param cents 金额（分）
+     * @param numerator 比例的分子
+     * @param denominator 比例的分母，必须为正数
+     * @return 按比例计算后的金额（分）
+     * @throws ArithmeticException 如果中间结果溢出 {@code long}
+     */
+    public static long applyRate(long cents, long numerator, long denominator) {
+        return divideHalfEven(Math.multiplyExact(cents, numerator), denominator);
+    }
+
+    /**
+     * 整数除法，结果以银行家舍入取整
+     *
+     * @param dividend 被除数
+     * @param divisor 除数，必须为正数
+     * @return 舍入后的商
+     * @throws IllegalArgumentException 如果除数不是正数
+     */
+    public static long divideHalfEven(long dividend, long divisor) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("除数必须为正数：" + divisor);
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // 比较 |余数| 与除数的一半，用减法避免 2 × 余数 溢出
+        long absRemainder = Math.abs(remainder);
+        long rest = divisor - absRemainder;
+        if (absRemainder > rest || (absRemainder == rest && (quotient & 1) != 0)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * 把以元为单位的 {@code double} 金额换算为分
+     *
+     * <p>按银行家舍入取整，对最多两位小数的价格（如 89.9）总能得到精确的分值。</p>
+     *
+     * @param yuan 金额（元）
+     * @return 金额（分）
+     */
+    public static long fromYuan(double yuan) {
+        return (long) Math.rint(yuan * 100);
+    }
+
+    /**
+     * 把分换算为以元为单位的 {@code double} 金额，用于展示或与旧接口交互
+     *
+     * @param cents 金额（分）
+     * @return 金额（元）
+     */
+    public static double toYuan(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.demo.strategy.observers;
+
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountObserver;
+import com.demo.strategy.interfaces.DiscountStrategy;
+
+/**
+ * 控制台折扣观察者
+ *
+ * <p>以原先策略类中的格式输出"（应用策略：...）"，用于演示程序。
+ * 控制台输出需要竞争 {@code System.out} 的锁，不适合在多线程批量定价时启用。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class ConsoleDiscountObserver implements DiscountObserver {
+
+    @Override
+    public void onDiscountApplied(Book book, DiscountStrategy strategy, double originalPrice, double finalPrice) {
+        System.out.println("（应用策略：" + strategy.getDescription() + "）");
+    }
+}
@@ -0,0 +1,29 @@
+package com.demo.strategy.observers;
+
+import com.demo.strategy.concretes.Book;
+import com.demo.strategy.interfaces.DiscountObserver;
+import com.demo.strategy.interfaces.DiscountStrategy;
+
+/**
+ * 空折扣观察者 - 默认实现
+ *
+ * <p>忽略所有定价事件。作为 {@link Book} 的默认观察者，保证未配置追踪时定价没有任何输出开销。</p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public final class NoOpDiscountObserver implements DiscountObserver {
+
+    /**
+     * 共享实例
+     */
+    public static final NoOpDiscountObserver INSTANCE = new NoOpDiscountObserver();
+
+    private NoOpDiscountObserver() {
+    }
+
+    @Override
+    public void onDiscountApplied(Book book, DiscountStrategy strategy, double originalPrice, double finalPrice) {
+    }
+}
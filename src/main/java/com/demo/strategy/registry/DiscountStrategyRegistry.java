@@ -0,0 +1,283 @@
+package com.demo.strategy.registry;
+
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.strategies.FixedRateDiscountStrategy;
+import com.demo.strategy.strategies.NoDiscountStrategy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 折扣策略注册表
+ *
+ * <p>按图书类别查找折扣策略，代替在客户端代码中手工为每本书挑选策略。</p>
+ *
+ * <p><strong>实现要点：</strong></p>
+ * <ul>
+ *   <li><strong>写时复制</strong>：类别到策略的映射保存在一个不可变快照中，通过 {@code volatile} 引用发布；
+ *       查询只读取当前快照，不加锁，定价线程永远不会被更新操作阻塞</li>
+ *   <li><strong>两层来源</strong>：代码中 {@link #register(String, DiscountStrategy)} 注册的策略，
+ *       和配置文件中加载的折扣率；同一类别以配置文件为准</li>
+ *   <li><strong>热更新</strong>：{@link #watch(Path)} 用 NIO {@link WatchService} 监听配置文件，
+ *       文件变化后重新加载并一次性替换快照；配置有误时保留原快照。文件停止变化一段时间（去抖）后才读取，
+ *       避免编辑器原地截断重写时读到只写了一半、但格式仍然合法的文件；监听事件溢出时同样重新加载</li>
+ *   <li><strong>兜底策略</strong>：未配置的类别使用 {@link NoDiscountStrategy}，查询结果永不为null</li>
+ * </ul>
+ *
+ * <p>配置文件为 UTF-8 编码的 properties 格式，每行一个 {@code 类别=折扣率}，例如：</p>
+ * <pre>
+ * # 计算机类图书7折，英语类图书6折
+ * computer=0.7
+ * english=0.6
+ * </pre>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class DiscountStrategyRegistry implements AutoCloseable {
+
+    /**
+     * 配置文件最后一次变化后，需要保持不变多久才重新加载
+     */
+    private static final long RELOAD_QUIET_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final DiscountStrategy defaultStrategy;
+
+    /**
+     * 代码中注册的策略（由 this 锁保护）
+     */
+    private final Map<String, DiscountStrategy> registered = new HashMap<>();
+
+    /**
+     * 配置文件中加载的策略（由 this 锁保护）
+     */
+    private Map<String, DiscountStrategy> configured = Map.of();
+
+    /**
+     * 当前生效的不可变快照，查询时无锁读取
+     */
+    private volatile Map<String, DiscountStrategy> snapshot = Map.of();
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * 创建注册表，未配置的类别不打折
+     */
+    public DiscountStrategyRegistry() {
+        this(new NoDiscountStrategy());
+    }
+
+    /**
+     * 创建注册表
+     *
+     * @param defaultStrategy 未配置的类别使用的策略
+     */
+    public DiscountStrategyRegistry(DiscountStrategy defaultStrategy) {
+        this.defaultStrategy = Objects.requireNonNull(defaultStrategy, "defaultStrategy");
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查找类别对应的折扣策略
+     *
+     * <p>只读取当前快照，不加锁，可以被任意多个定价线程同时调用。</p>
+     *
+     * @param category 图书类别，可以为null（未分类的图书）
+     * @return 该类别的折扣策略，未配置或类别为null时返回默认策略
+     */
+    public DiscountStrategy resolve(String category) {
+        if (category == null) {
+            // 不可变快照不接受null键，未分类的图书直接使用默认策略
+            return defaultStrategy;
+        }
+        DiscountStrategy strategy = snapshot.get(category);
+        return strategy != null ? strategy : defaultStrategy;
+    }
+
+    /**
+     * 获取当前生效的全部映射
+     *
+     * @return 不可变快照，不包含默认策略
+     */
+    public Map<String, DiscountStrategy> snapshot() {
+        return snapshot;
+    }
+
+    // ==================== 代码注册 ====================
+
+    /**
+     * 注册类别对应的策略；配置文件中存在同一类别时以配置文件为准
+     *
+     * @param category 图书类别
+     * @param strategy 折扣策略
+     */
+    public synchronized void register(String category, DiscountStrategy strategy) {
+        registered.put(Objects.requireNonNull(category, "category"), Objects.requireNonNull(strategy, "strategy"));
+        publish();
+    }
+
+    /**
+     * 移除代码中注册的策略
+     *
+     * @param category 图书类别
+     */
+    public synchronized void unregister(String category) {
+        registered.remove(category);
+        publish();
+    }
+
+    /**
+     * 重新生成并发布快照（调用方持有 this 锁）
+     */
+    private void publish() {
+        Map<String, DiscountStrategy> merged = new HashMap<>(registered);
+        merged.putAll(configured);
+        snapshot = Map.copyOf(merged);
+    }
+
+    // ==================== 配置文件 ====================
+
+    /**
+     * 从配置文件加载折扣率，替换上一次加载的全部配置
+     *
+     * <p>先完整解析文件，全部合法后才一次性发布新快照；任何一行出错都不会影响当前生效的策略。</p>
+     *
+     * @param config 配置文件路径
+     * @throws IOException 如果读取文件失败
+     * @throws IllegalArgumentException 如果某个折扣率不合法
+     */
+    public void load(Path config) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(config, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, DiscountStrategy> parsed = new HashMap<>();
+        for (String category : properties.stringPropertyNames()) {
+            String rate = properties.getProperty(category);
+            try {
+                parsed.put(category, FixedRateDiscountStrategy.parse(rate));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("类别 " + category + " 的" + e.getMessage(), e);
+            }
+        }
+        synchronized (this) {
+            configured = Map.copyOf(parsed);
+            publish();
+        }
+    }
+
+    /**
+     * 加载配置文件，并在文件变化时自动重新加载
+     *
+     * <p>监听线程是守护线程；文件在 200 毫秒内没有再变化时才重新加载。
+     * 重新加载失败时向标准错误输出原因，继续使用原来的策略。</p>
+     *
+     * @param config 配置文件路径
+     * @throws IOException 如果首次加载或注册监听失败
+     * @throws IllegalStateException 如果已经在监听
+     */
+    public synchronized void watch(Path config) throws IOException {
+        if (watchService != null) {
+            throw new IllegalStateException("注册表已在监听配置文件");
+        }
+        Path file = config.toAbsolutePath();
+        load(file);
+        WatchService service = file.getFileSystem().newWatchService();
+        file.getParent().register(service,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchService = service;
+        this.watcher = new Thread(() -> watchLoop(service, file), "discount-config-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    private void watchLoop(WatchService service, Path file) {
+        Path fileName = file.getFileName();
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            if (!affects(key, fileName)) {
+                continue;
+            }
+            // 去抖：文件仍在变化时继续等待，直到安静一段时间后再读取
+            try {
+                long deadline = System.nanoTime() + RELOAD_QUIET_NANOS;
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    WatchKey next = service.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (affects(next, fileName)) {
+                        deadline = System.nanoTime() + RELOAD_QUIET_NANOS;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            try {
+                load(file);
+            } catch (IOException | RuntimeException e) {
+                // 文件可能正在被写入或内容有误，保留原快照，等待下一次变化
+                System.err.println("折扣配置重新加载失败，继续使用原配置：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 取出并重置监听事件，返回其中是否可能包含配置文件的变化
+     */
+    private static boolean affects(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // 事件溢出时无法知道哪些文件变了，按配置文件已变化处理
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 停止监听配置文件
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            if (watchService == null) {
+                return;
+            }
+            watchService.close();
+            watchService = null;
+            thread = watcher;
+            watcher = null;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
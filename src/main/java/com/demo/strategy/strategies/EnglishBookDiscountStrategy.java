@@ -1,6 +1,9 @@
 package com.demo.strategy.strategies;
 
 import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.money.Cents;
+
+import java.util.Objects;
 
 /**
  * 英语类图书折扣策略
@@ -28,6 +31,17 @@ import com.demo.strategy.interfaces.DiscountStrategy;
  */
 public class EnglishBookDiscountStrategy implements DiscountStrategy {
 
+    /**
+     * 折扣率：折后价占原价的比例
+     */
+    private static final double DISCOUNT_RATE = 0.6;
+
+    /**
+     * 以整数比例表示的折扣率（6/10），用于按分精确计算
+     */
+    private static final long RATE_NUMERATOR = 6;
+    private static final long RATE_DENOMINATOR = 10;
+
     /**
      * 计算英语类图书的折扣价格
      *
@@ -49,7 +63,44 @@ public class EnglishBookDiscountStrategy implements DiscountStrategy {
      */
     @Override
     public double calculateDiscount(double originalPrice) {
-        System.out.println("（应用策略：英语类图书打6折）");
-        return originalPrice * 0.6;
+        return originalPrice * DISCOUNT_RATE;
+    }
+
+    /**
+     * 以"分"为单位计算折扣价格
+     *
+     * <p>原价乘以 6/10 后按银行家舍入取整到分，例如 5990 → 3594（59.90元 → 35.94元）。</p>
+     *
+     * @param originalCents 图书原价（分）
+     * @return 折扣后的价格（分）
+     */
+    @Override
+    public long calculateDiscountCents(long originalCents) {
+        return Cents.applyRate(originalCents, RATE_NUMERATOR, RATE_DENOMINATOR);
+    }
+
+    @Override
+    public String getDescription() {
+        return "英语类图书打6折";
+    }
+
+    /**
+     * 批量计算折扣价格
+     *
+     * <p>固定折扣率的简单计数循环：下标范围预先校验，循环体内没有方法调用和分支，
+     * JIT可以消除边界检查并将其自动向量化。</p>
+     *
+     * @param originalPrices 原价数组
+     * @param finalPrices 折后价输出数组，每个元素为原价的60%
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     */
+    @Override
+    public void calculateDiscount(double[] originalPrices, double[] finalPrices, int from, int to) {
+        Objects.checkFromToIndex(from, to, originalPrices.length);
+        Objects.checkFromToIndex(from, to, finalPrices.length);
+        for (int i = from; i < to; i++) {
+            finalPrices[i] = originalPrices[i] * DISCOUNT_RATE;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.demo.strategy.strategies;
+
+import com.demo.strategy.interfaces.DiscountStrategy;
+import com.demo.strategy.money.Cents;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * 可配置折扣率的策略
+ *
+ * <p>与 {@link ComputerBookDiscountStrategy} 等把折扣率写在代码里的策略不同，
+ * 本策略的折扣率在创建时指定，适合由配置文件驱动的场景（参见
+ * {@link com.demo.strategy.registry.DiscountStrategyRegistry}）。</p>
+ *
+ * <p>折扣率在内部同时保存为 {@code double}（用于元价格计算）和整数分数（用于按分精确计算），
+ * 例如 0.75 保存为 75/100。</p>
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * DiscountStrategy strategy = FixedRateDiscountStrategy.parse("0.75");
+ * double discountedPrice = strategy.calculateDiscount(100.0); // 返回 75.0
+ * }</pre>
+ * </p>
+ *
+ * @author 软件设计与架构课程
+ * @version 1.0
+ * @since 1.0
+ */
+public class FixedRateDiscountStrategy implements DiscountStrategy {
+
+    /**
+     * 折扣率最多保留的小数位数，保证按分计算时中间结果不会溢出
+     */
+    private static final int MAX_RATE_SCALE = 6;
+
+    private final double rate;
+    private final long rateNumerator;
+    private final long rateDenominator;
+    private final String description;
+
+    /**
+     * 以分数形式的折扣率创建策略
+     *
+     * @param rateNumerator 折扣率分子
+     * @param rateDenominator 折扣率分母
+     * @throws IllegalArgumentException 如果折扣率不在 (0, 1] 范围内
+     */
+    public FixedRateDiscountStrategy(long rateNumerator, long rateDenominator) {
+        if (rateDenominator <= 0 || rateNumerator <= 0 || rateNumerator > rateDenominator) {
+            throw new IllegalArgumentException("折扣率必须在 (0, 1] 范围内：" + rateNumerator + "/" + rateDenominator);
+        }
+        this.rateNumerator = rateNumerator;
+        this.rateDenominator = rateDenominator;
+        this.rate = (double) rateNumerator / rateDenominator;
+        BigDecimal tenths = BigDecimal.valueOf(rateNumerator).multiply(BigDecimal.TEN)
+                .divide(BigDecimal.valueOf(rateDenominator), MAX_RATE_SCALE, RoundingMode.HALF_EVEN)
+                .stripTrailingZeros();
+        this.description = rateNumerator == rateDenominator ? "无折扣" : "打" + tenths.toPlainString() + "折";
+    }
+
+    /**
+     * 解析小数形式的折扣率，例如 "0.7" 表示7折
+     *
+     * @param rate 折扣率文本，取值范围 (0, 1]，最多6位小数
+     * @return 对应的策略
+     * @throws IllegalArgumentException 如果文本不是合法的折扣率
+     */
+    public static FixedRateDiscountStrategy parse(String rate) {
+        Objects.requireNonNull(rate, "rate");
+        BigDecimal value;
+        try {
+            value = new BigDecimal(rate.trim()).stripTrailingZeros();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无法解析折扣率：" + rate, e);
+        }
+        if (value.scale() > MAX_RATE_SCALE) {
+            throw new IllegalArgumentException("折扣率最多保留" + MAX_RATE_SCALE + "位小数：" + rate);
+        }
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        return new FixedRateDiscountStrategy(value.unscaledValue().longValueExact(),
+                BigDecimal.TEN.pow(value.scale()).longValueExact());
+    }
+
+    /**
+     * 获取折扣率
+     *
+     * @return 折后价占原价的比例
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    @Override
+    public double calculateDiscount(double originalPrice) {
+        return originalPrice * rate;
+    }
+
+    @Override
+    public long calculateDiscountCents(long originalCents) {
+        return Cents.applyRate(originalCents, rateNumerator, rateDenominator);
+    }
+
+    @Override
+    public void calculateDiscount(double[] originalPrices, double[] finalPrices, int from, int to) {
+        Objects.checkFromToIndex(from, to, originalPrices.length);
+        Objects.checkFromToIndex(from, to, finalPrices.length);
+        double r = rate;
+        for (int i = from; i < to; i++) {
+            finalPrices[i] = originalPrices[i] * r;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return "FixedRateDiscountStrategy{" + rateNumerator + "/" + rateDenominator + "}";
+    }
+}
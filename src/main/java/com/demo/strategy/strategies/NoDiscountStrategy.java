@@ -2,6 +2,8 @@ package com.demo.strategy.strategies;
 
 import com.demo.strategy.interfaces.DiscountStrategy;
 
+import java.util.Objects;
+
 /**
  * 无折扣策略
  *
@@ -53,7 +55,39 @@ public class NoDiscountStrategy implements DiscountStrategy {
      */
     @Override
     public double calculateDiscount(double originalPrice) {
-        System.out.println("（应用策略：此书无折扣）");
         return originalPrice;
     }
+
+    /**
+     * 以"分"为单位计算无折扣价格，直接返回原价
+     *
+     * @param originalCents 图书原价（分）
+     * @return 与原价相同的价格（分）
+     */
+    @Override
+    public long calculateDiscountCents(long originalCents) {
+        return originalCents;
+    }
+
+    @Override
+    public String getDescription() {
+        return "此书无折扣";
+    }
+
+    /**
+     * 批量计算无折扣价格
+     *
+     * <p>折后价即原价，直接整段复制。</p>
+     *
+     * @param originalPrices 原价数组
+     * @param finalPrices 折后价输出数组，与原价相同
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     */
+    @Override
+    public void calculateDiscount(double[] originalPrices, double[] finalPrices, int from, int to) {
+        Objects.checkFromToIndex(from, to, originalPrices.length);
+        Objects.checkFromToIndex(from, to, finalPrices.length);
+        System.arraycopy(originalPrices, from, finalPrices, from, to - from);
+    }
 }
\ No newline at end of file